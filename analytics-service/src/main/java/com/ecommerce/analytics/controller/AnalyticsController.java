@@ -0,0 +1,75 @@
+package com.ecommerce.analytics.controller;
+
+import com.ecommerce.analytics.kafka.OrderAnalyticsTopology;
+import com.ecommerce.analytics.model.OrderView;
+import com.ecommerce.analytics.service.AnalyticsQueryService;
+import com.ecommerce.analytics.service.RevenueWindow;
+import com.ecommerce.analytics.service.SkuRanking;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.streams.state.HostInfo;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Lecturas de analítica servidas desde los stores de Kafka Streams. Si la clave está en
+ * otra instancia se responde 307 hacia ella.
+ */
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final AnalyticsQueryService queryService;
+
+    @GetMapping("/orders/{orderId}")
+    public ResponseEntity<OrderView> getOrder(@PathVariable String orderId) {
+        return query(OrderAnalyticsTopology.ORDER_VIEWS, orderId, () -> queryService.findOrder(orderId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build()));
+    }
+
+    @GetMapping("/orders-by-status")
+    public ResponseEntity<Map<String, Long>> getOrdersByStatus() {
+        return query(OrderAnalyticsTopology.ORDER_COUNTS, OrderAnalyticsTopology.ALL,
+                () -> ResponseEntity.ok(queryService.ordersByStatus()));
+    }
+
+    @GetMapping("/revenue")
+    public ResponseEntity<List<RevenueWindow>> getRevenue(@RequestParam(defaultValue = "60") int minutes) {
+        return query(OrderAnalyticsTopology.REVENUE, OrderAnalyticsTopology.ALL,
+                () -> ResponseEntity.ok(queryService.revenue(Duration.ofMinutes(minutes))));
+    }
+
+    @GetMapping("/top-skus")
+    public ResponseEntity<List<SkuRanking>> getTopSkus(@RequestParam(defaultValue = "60") int minutes,
+                                                       @RequestParam(defaultValue = "10") int limit) {
+        return query(OrderAnalyticsTopology.SKU_UNITS, OrderAnalyticsTopology.ALL,
+                () -> ResponseEntity.ok(queryService.topSkus(Duration.ofMinutes(minutes), limit)));
+    }
+
+    private <T> ResponseEntity<T> query(String store, String key, Supplier<ResponseEntity<T>> local) {
+        Optional<HostInfo> owner = queryService.ownerOf(store, key);
+        if (owner.isEmpty()) {
+            return local.get();
+        }
+        return ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT)
+                .location(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .host(owner.get().host())
+                        .port(owner.get().port())
+                        .build()
+                        .toUri())
+                .build();
+    }
+}
@@ -0,0 +1,140 @@
+package com.ecommerce.analytics.kafka;
+
+import com.ecommerce.analytics.model.OrderCounts;
+import com.ecommerce.analytics.model.OrderView;
+import com.ecommerce.analytics.model.SkuUnits;
+import com.ecommerce.common.event.order.OrderCreatedEvent;
+import com.ecommerce.common.event.payment.PaymentProcessedEvent;
+import com.ecommerce.common.event.product.InventoryUpdatedEvent;
+import com.ecommerce.common.serialization.EventCodecRegistry;
+import com.ecommerce.common.serialization.EventDeserializer;
+import com.ecommerce.common.serialization.EventSchemas;
+import com.ecommerce.common.serialization.EventSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Grouped;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.KTable;
+import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.TimeWindows;
+import org.apache.kafka.streams.state.Stores;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.serializer.JsonSerde;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Topología de Kafka Streams que proyecta la saga en stores RocksDB consultables:
+ * <ul>
+ *   <li>{@value #ORDER_VIEWS}: estado de cada orden, por orderId. Los tres topics van
+ *   particionados por orderId, así que se agrega sin repartición.</li>
+ *   <li>{@value #ORDER_COUNTS}: órdenes por estado.</li>
+ *   <li>{@value #REVENUE}: importe cobrado por minuto.</li>
+ *   <li>{@value #SKU_UNITS}: unidades pedidas de cada SKU por minuto.</li>
+ * </ul>
+ * Los agregados salen de los cambios de la vista, no de los eventos: un evento repetido
+ * no cambia la vista y no se cuenta dos veces. Van bajo una única clave, así que cada
+ * agregado vive en una sola partición, y en una sola instancia.
+ */
+@Slf4j
+@Component
+public class OrderAnalyticsTopology {
+
+    public static final String ORDER_VIEWS = "order-views";
+    public static final String ORDER_COUNTS = "order-counts";
+    public static final String REVENUE = "revenue-per-minute";
+    public static final String SKU_UNITS = "sku-units-per-minute";
+    public static final String ALL = "all";
+    public static final Duration WINDOW = Duration.ofMinutes(1);
+
+    private final Serde<Object> eventSerde;
+    private final ObjectMapper objectMapper;
+    private final Duration retention;
+    private final Duration grace;
+
+    public OrderAnalyticsTopology(EventCodecRegistry eventCodecRegistry,
+                                  ObjectMapper objectMapper,
+                                  @Value("${analytics.windows.retention:24h}") Duration retention,
+                                  @Value("${analytics.windows.grace:1m}") Duration grace) {
+        this.eventSerde = Serdes.serdeFrom(new EventSerializer(eventCodecRegistry), new EventDeserializer(eventCodecRegistry));
+        this.objectMapper = objectMapper;
+        this.retention = retention;
+        this.grace = grace;
+    }
+
+    @Autowired
+    public void build(StreamsBuilder builder) {
+        Serde<OrderView> orderViewSerde = jsonSerde(OrderView.class);
+
+        KStream<String, Object> events = builder.stream(
+                List.of(EventSchemas.OrderCreated.TOPIC, EventSchemas.InventoryUpdated.TOPIC, EventSchemas.PaymentProcessed.TOPIC),
+                Consumed.with(Serdes.String(), eventSerde));
+
+        // Sin caché: cada cambio de la vista tiene que llegar a los agregados, no solo el último.
+        // Sobre una copia: Kafka Streams reenvía la vista anterior junto a la nueva, y si fueran
+        // el mismo objeto order-counts restaría el estado nuevo en lugar del anterior
+        KTable<String, OrderView> orders = events
+                .filter((orderId, event) -> orderId != null && isSagaEvent(event))
+                .groupByKey(Grouped.with(Serdes.String(), eventSerde))
+                .aggregate(OrderView::new, (orderId, event, view) -> view.copy().apply(orderId, event),
+                        Materialized.<String, OrderView>as(Stores.persistentKeyValueStore(ORDER_VIEWS))
+                                .withKeySerde(Serdes.String())
+                                .withValueSerde(orderViewSerde)
+                                .withCachingDisabled());
+
+        orders.groupBy((orderId, view) -> KeyValue.pair(ALL, view.getStatus()),
+                        Grouped.with("order-status", Serdes.String(), Serdes.String()))
+                .aggregate(OrderCounts::new,
+                        (key, status, counts) -> counts.add(status),
+                        (key, status, counts) -> counts.subtract(status),
+                        Materialized.<String, OrderCounts>as(Stores.persistentKeyValueStore(ORDER_COUNTS))
+                                .withKeySerde(Serdes.String())
+                                .withValueSerde(jsonSerde(OrderCounts.class)));
+
+        KStream<String, OrderView> changes = orders.toStream()
+                .filter((orderId, view) -> view != null && view.isLastEventApplied());
+        TimeWindows minutes = TimeWindows.ofSizeAndGrace(WINDOW, grace);
+
+        changes.filter((orderId, view) -> PaymentProcessedEvent.TYPE.equals(view.getLastEventType())
+                        && OrderView.COMPLETED.equals(view.getStatus()) && view.getPaidAmount() != null)
+                .map((orderId, view) -> KeyValue.pair(ALL, view.getPaidAmount()))
+                .groupByKey(Grouped.with("revenue", Serdes.String(), jsonSerde(BigDecimal.class)))
+                .windowedBy(minutes)
+                .reduce(BigDecimal::add,
+                        Materialized.<String, BigDecimal>as(Stores.persistentTimestampedWindowStore(REVENUE, retention, WINDOW, false))
+                                .withKeySerde(Serdes.String())
+                                .withValueSerde(jsonSerde(BigDecimal.class)));
+
+        changes.filter((orderId, view) -> OrderCreatedEvent.TYPE.equals(view.getLastEventType()) && !view.getItems().isEmpty())
+                .map((orderId, view) -> KeyValue.pair(ALL, SkuUnits.of(view.getItems())))
+                .groupByKey(Grouped.with("sku-units", Serdes.String(), jsonSerde(SkuUnits.class)))
+                .windowedBy(minutes)
+                .reduce(SkuUnits::merge,
+                        Materialized.<String, SkuUnits>as(Stores.persistentTimestampedWindowStore(SKU_UNITS, retention, WINDOW, false))
+                                .withKeySerde(Serdes.String())
+                                .withValueSerde(jsonSerde(SkuUnits.class)));
+
+        log.info("📊 Topología de analítica: stores {}, {}, {} y {} con retención {}",
+                ORDER_VIEWS, ORDER_COUNTS, REVENUE, SKU_UNITS, retention);
+    }
+
+    private static boolean isSagaEvent(Object event) {
+        return event instanceof OrderCreatedEvent
+                || event instanceof InventoryUpdatedEvent
+                || event instanceof PaymentProcessedEvent;
+    }
+
+    // Sin cabeceras de tipo: cada store tiene un único tipo de valor
+    private <T> Serde<T> jsonSerde(Class<T> type) {
+        return new JsonSerde<>(type, objectMapper).noTypeInfo().ignoreTypeHeaders();
+    }
+}
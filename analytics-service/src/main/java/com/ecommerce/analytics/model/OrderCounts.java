@@ -0,0 +1,28 @@
+package com.ecommerce.analytics.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Órdenes por estado. Cada cambio de estado de una orden resta uno del anterior y suma uno
+ * al nuevo, así que los totales siempre suman el número de órdenes conocidas.
+ */
+@Data
+@NoArgsConstructor
+public class OrderCounts {
+
+    private Map<String, Long> byStatus = new TreeMap<>();
+
+    public OrderCounts add(String status) {
+        byStatus.merge(status, 1L, Long::sum);
+        return this;
+    }
+
+    public OrderCounts subtract(String status) {
+        byStatus.computeIfPresent(status, (key, count) -> count > 1 ? count - 1 : null);
+        return this;
+    }
+}
@@ -0,0 +1,138 @@
+package com.ecommerce.analytics.model;
+
+import com.ecommerce.common.event.order.OrderCreatedEvent;
+import com.ecommerce.common.event.payment.PaymentProcessedEvent;
+import com.ecommerce.common.event.product.InventoryUpdatedEvent;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Estado de una orden reconstruido desde los eventos de la saga, con las mismas transiciones
+ * que order-service: PENDING hasta que inventario o pago la cierran en REJECTED, COMPLETED,
+ * CANCELLED o FAILED. Los eventos repetidos y los que llegan con la orden ya cerrada no la
+ * cambian; {@code lastEventApplied} lo indica para que los agregados no los cuenten dos veces.
+ *
+ * <p>{@link #apply} modifica la vista: el agregador de la topología la aplica sobre una
+ * {@link #copy()} para que la vista anterior que Kafka Streams reenvía siga siendo la anterior.
+ */
+@Data
+@NoArgsConstructor
+public class OrderView {
+
+    public static final String PENDING = "PENDING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String CANCELLED = "CANCELLED";
+    public static final String FAILED = "FAILED";
+    public static final String REJECTED = "REJECTED";
+
+    private String orderId;
+    private String customerId;
+    private String status;
+    private BigDecimal totalAmount;
+    private Map<String, Integer> items = new LinkedHashMap<>();
+    private Boolean inventoryAvailable;
+    private String paymentId;
+    private String paymentStatus;
+    private BigDecimal paidAmount;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private String lastEventType;
+    private boolean lastEventApplied;
+
+    public OrderView apply(String orderId, Object event) {
+        this.orderId = orderId;
+        if (event instanceof OrderCreatedEvent created) {
+            lastEventApplied = apply(created);
+            lastEventType = OrderCreatedEvent.TYPE;
+        } else if (event instanceof InventoryUpdatedEvent inventory) {
+            lastEventApplied = apply(inventory);
+            lastEventType = InventoryUpdatedEvent.TYPE;
+        } else if (event instanceof PaymentProcessedEvent payment) {
+            lastEventApplied = apply(payment);
+            lastEventType = PaymentProcessedEvent.TYPE;
+        }
+        return this;
+    }
+
+    public OrderView copy() {
+        OrderView copy = new OrderView();
+        copy.orderId = orderId;
+        copy.customerId = customerId;
+        copy.status = status;
+        copy.totalAmount = totalAmount;
+        copy.items = new LinkedHashMap<>(items);
+        copy.inventoryAvailable = inventoryAvailable;
+        copy.paymentId = paymentId;
+        copy.paymentStatus = paymentStatus;
+        copy.paidAmount = paidAmount;
+        copy.errorMessage = errorMessage;
+        copy.createdAt = createdAt;
+        copy.updatedAt = updatedAt;
+        copy.lastEventType = lastEventType;
+        copy.lastEventApplied = lastEventApplied;
+        return copy;
+    }
+
+    public boolean isTerminal() {
+        return status != null && !PENDING.equals(status);
+    }
+
+    // El alta puede llegar después que inventario o pago: rellena los datos sin tocar el estado
+    private boolean apply(OrderCreatedEvent event) {
+        if (customerId != null) {
+            return false;
+        }
+        customerId = event.getCustomerId();
+        totalAmount = event.getTotalAmount();
+        createdAt = event.getOrderDate() != null ? event.getOrderDate() : event.getTimestamp();
+        if (event.getItems() != null) {
+            for (OrderCreatedEvent.OrderItem item : event.getItems()) {
+                items.merge(item.getProductId(), item.getQuantity() != null ? item.getQuantity() : 0, Integer::sum);
+            }
+        }
+        if (status == null) {
+            status = PENDING;
+        }
+        updatedAt = event.getTimestamp();
+        return true;
+    }
+
+    private boolean apply(InventoryUpdatedEvent event) {
+        if (isTerminal() || inventoryAvailable != null) {
+            return false;
+        }
+        inventoryAvailable = Boolean.TRUE.equals(event.getAllProductsAvailable());
+        if (totalAmount == null) {
+            totalAmount = event.getTotalAmount();
+        }
+        if (!inventoryAvailable) {
+            errorMessage = event.getErrorMessage();
+        }
+        status = inventoryAvailable ? PENDING : REJECTED;
+        updatedAt = event.getTimestamp();
+        return true;
+    }
+
+    private boolean apply(PaymentProcessedEvent event) {
+        if (isTerminal()) {
+            return false;
+        }
+        paymentId = event.getPaymentId();
+        paymentStatus = event.getPaymentStatus();
+        paidAmount = event.getAmount() != null ? BigDecimal.valueOf(event.getAmount()) : null;
+        errorMessage = event.getErrorMessage();
+        status = switch (paymentStatus == null ? "" : paymentStatus) {
+            case "APPROVED" -> COMPLETED;
+            case "REJECTED" -> CANCELLED;
+            default -> FAILED;
+        };
+        updatedAt = event.getTimestamp();
+        return true;
+    }
+}
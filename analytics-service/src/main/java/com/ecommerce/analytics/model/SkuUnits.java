@@ -0,0 +1,28 @@
+package com.ecommerce.analytics.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Unidades pedidas de cada SKU en una ventana.
+ */
+@Data
+@NoArgsConstructor
+public class SkuUnits {
+
+    private Map<String, Long> units = new HashMap<>();
+
+    public static SkuUnits of(Map<String, Integer> items) {
+        SkuUnits skuUnits = new SkuUnits();
+        items.forEach((sku, quantity) -> skuUnits.units.merge(sku, quantity.longValue(), Long::sum));
+        return skuUnits;
+    }
+
+    public SkuUnits merge(SkuUnits other) {
+        other.units.forEach((sku, quantity) -> units.merge(sku, quantity, Long::sum));
+        return this;
+    }
+}
@@ -0,0 +1,128 @@
+package com.ecommerce.analytics.service;
+
+import com.ecommerce.analytics.kafka.OrderAnalyticsTopology;
+import com.ecommerce.analytics.model.OrderCounts;
+import com.ecommerce.analytics.model.OrderView;
+import com.ecommerce.analytics.model.SkuUnits;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KeyQueryMetadata;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.apache.kafka.streams.state.HostInfo;
+import org.apache.kafka.streams.state.QueryableStoreType;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.WindowStoreIterator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Consultas interactivas a los stores de {@link OrderAnalyticsTopology}: se leen del RocksDB
+ * local, sin tocar la base de datos de order-service. Con varias instancias cada clave vive
+ * en una sola; {@link #ownerOf} dice cuál para redirigir la petición.
+ */
+@Service
+public class AnalyticsQueryService {
+
+    private final StreamsBuilderFactoryBean streamsBuilderFactoryBean;
+    private final HostInfo self;
+
+    public AnalyticsQueryService(StreamsBuilderFactoryBean streamsBuilderFactoryBean,
+                                 @Value("${spring.kafka.streams.properties.application.server:}") String applicationServer) {
+        this.streamsBuilderFactoryBean = streamsBuilderFactoryBean;
+        this.self = applicationServer.isBlank() ? null : HostInfo.buildFromEndpoint(applicationServer);
+    }
+
+    /**
+     * @return la instancia que tiene la clave del store, o vacío si es esta (o si solo hay una)
+     */
+    public Optional<HostInfo> ownerOf(String store, String key) {
+        if (self == null) {
+            return Optional.empty();
+        }
+        KeyQueryMetadata metadata = streams().queryMetadataForKey(store, key, Serdes.String().serializer());
+        if (metadata == null || KeyQueryMetadata.NOT_AVAILABLE.equals(metadata) || self.equals(metadata.activeHost())) {
+            return Optional.empty();
+        }
+        return Optional.of(metadata.activeHost());
+    }
+
+    public Optional<OrderView> findOrder(String orderId) {
+        return read(OrderAnalyticsTopology.ORDER_VIEWS, QueryableStoreTypes.<String, OrderView>keyValueStore(),
+                store -> Optional.ofNullable(store.get(orderId)));
+    }
+
+    public Map<String, Long> ordersByStatus() {
+        OrderCounts counts = read(OrderAnalyticsTopology.ORDER_COUNTS, QueryableStoreTypes.<String, OrderCounts>keyValueStore(),
+                store -> store.get(OrderAnalyticsTopology.ALL));
+        return counts == null ? Map.of() : counts.getByStatus();
+    }
+
+    /**
+     * Importe cobrado en cada minuto del periodo, del más antiguo al más reciente. Los minutos
+     * sin cobros no aparecen.
+     */
+    public List<RevenueWindow> revenue(Duration period) {
+        Instant to = Instant.now();
+        return read(OrderAnalyticsTopology.REVENUE, QueryableStoreTypes.<String, BigDecimal>windowStore(), store -> {
+            List<RevenueWindow> windows = new ArrayList<>();
+            try (WindowStoreIterator<BigDecimal> iterator = store.fetch(OrderAnalyticsTopology.ALL, to.minus(period), to)) {
+                while (iterator.hasNext()) {
+                    KeyValue<Long, BigDecimal> window = iterator.next();
+                    windows.add(new RevenueWindow(Instant.ofEpochMilli(window.key), window.value));
+                }
+            }
+            return windows;
+        });
+    }
+
+    /**
+     * Los {@code limit} SKUs con más unidades pedidas en el periodo, sumando sus minutos.
+     */
+    public List<SkuRanking> topSkus(Duration period, int limit) {
+        Instant to = Instant.now();
+        SkuUnits total = read(OrderAnalyticsTopology.SKU_UNITS, QueryableStoreTypes.<String, SkuUnits>windowStore(), store -> {
+            SkuUnits units = new SkuUnits();
+            try (WindowStoreIterator<SkuUnits> iterator = store.fetch(OrderAnalyticsTopology.ALL, to.minus(period), to)) {
+                while (iterator.hasNext()) {
+                    units.merge(iterator.next().value);
+                }
+            }
+            return units;
+        });
+        return total.getUnits().entrySet().stream()
+                .map(entry -> new SkuRanking(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingLong(SkuRanking::units).reversed().thenComparing(SkuRanking::sku))
+                .limit(limit)
+                .toList();
+    }
+
+    // El store se valida al leer, no al obtenerlo: la lectura entera va dentro del try
+    private <T, R> R read(String name, QueryableStoreType<T> type, Function<T, R> reader) {
+        try {
+            return reader.apply(streams().store(StoreQueryParameters.fromNameAndType(name, type)));
+        } catch (InvalidStateStoreException e) {
+            throw new StoreUnavailableException(name, e);
+        }
+    }
+
+    private KafkaStreams streams() {
+        KafkaStreams streams = streamsBuilderFactoryBean.getKafkaStreams();
+        if (streams == null) {
+            throw new StoreUnavailableException("kafka-streams", new IllegalStateException("Kafka Streams no ha arrancado"));
+        }
+        return streams;
+    }
+}
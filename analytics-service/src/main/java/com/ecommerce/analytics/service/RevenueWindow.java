@@ -0,0 +1,10 @@
+package com.ecommerce.analytics.service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Importe cobrado en el minuto que empieza en {@code windowStart}.
+ */
+public record RevenueWindow(Instant windowStart, BigDecimal revenue) {
+}
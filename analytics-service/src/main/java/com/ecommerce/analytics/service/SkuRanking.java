@@ -0,0 +1,7 @@
+package com.ecommerce.analytics.service;
+
+/**
+ * Unidades pedidas de un SKU en el periodo consultado.
+ */
+public record SkuRanking(String sku, long units) {
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.analytics.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * El store aún no se puede consultar: Kafka Streams arrancando, restaurando desde el
+ * changelog o en mitad de un rebalanceo.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class StoreUnavailableException extends RuntimeException {
+
+    public StoreUnavailableException(String store, Throwable cause) {
+        super("Store " + store + " no disponible: " + cause.getMessage(), cause);
+    }
+}
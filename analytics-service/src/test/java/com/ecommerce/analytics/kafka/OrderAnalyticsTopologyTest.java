@@ -0,0 +1,256 @@
+package com.ecommerce.analytics.kafka;
+
+import com.ecommerce.analytics.model.OrderCounts;
+import com.ecommerce.analytics.model.OrderView;
+import com.ecommerce.analytics.model.SkuUnits;
+import com.ecommerce.common.event.order.OrderCreatedEvent;
+import com.ecommerce.common.event.payment.PaymentProcessedEvent;
+import com.ecommerce.common.event.product.InventoryUpdatedEvent;
+import com.ecommerce.common.serialization.EventCodecRegistry;
+import com.ecommerce.common.serialization.EventSerializer;
+import com.ecommerce.common.serialization.PayloadFormat;
+import com.ecommerce.common.serialization.codec.InventoryUpdatedEventCodec;
+import com.ecommerce.common.serialization.codec.OrderCreatedEventCodec;
+import com.ecommerce.common.serialization.codec.PaymentProcessedEventCodec;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.WindowStore;
+import org.apache.kafka.streams.state.WindowStoreIterator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderAnalyticsTopologyTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T10:00:10Z");
+
+    // Como el de Spring Boot: fechas ISO e ignorando campos desconocidos
+    private static final ObjectMapper MAPPER = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    @TempDir
+    Path stateDir;
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, Object> orderEvents;
+    private TestInputTopic<String, Object> inventoryEvents;
+    private TestInputTopic<String, Object> paymentEvents;
+
+    @BeforeEach
+    void setUp() {
+        start(PayloadFormat.JSON);
+    }
+
+    @AfterEach
+    void tearDown() {
+        driver.close();
+    }
+
+    private void start(PayloadFormat format) {
+        if (driver != null) {
+            driver.close();
+        }
+        EventCodecRegistry registry = new EventCodecRegistry(List.of(new OrderCreatedEventCodec(),
+                new InventoryUpdatedEventCodec(), new PaymentProcessedEventCodec()), MAPPER, format);
+        StreamsBuilder builder = new StreamsBuilder();
+        new OrderAnalyticsTopology(registry, MAPPER, Duration.ofHours(24), Duration.ofMinutes(1)).build(builder);
+
+        Properties props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "analytics-test");
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        props.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.resolve(format.name()).toString());
+        driver = new TopologyTestDriver(builder.build(), props, T0.minusSeconds(10));
+
+        EventSerializer serializer = new EventSerializer(registry);
+        orderEvents = driver.createInputTopic("order-events", new StringSerializer(), serializer);
+        inventoryEvents = driver.createInputTopic("inventory-events", new StringSerializer(), serializer);
+        paymentEvents = driver.createInputTopic("payment-events", new StringSerializer(), serializer);
+    }
+
+    @ParameterizedTest
+    @EnumSource(PayloadFormat.class)
+    void sagaCompletaEnOrden(PayloadFormat format) {
+        start(format);
+
+        orderEvents.pipeInput("ORD-1", created("ORD-1", 2), T0);
+        inventoryEvents.pipeInput("ORD-1", inventory("ORD-1", true), T0.plusSeconds(1));
+        paymentEvents.pipeInput("ORD-1", payment("ORD-1", "APPROVED"), T0.plusSeconds(2));
+
+        OrderView view = view("ORD-1");
+        assertThat(view.getStatus()).isEqualTo(OrderView.COMPLETED);
+        assertThat(view.getCustomerId()).isEqualTo("C-1");
+        assertThat(view.getPaidAmount()).isEqualByComparingTo("100.0");
+        assertThat(counts()).containsOnly(Map.entry(OrderView.COMPLETED, 1L));
+        assertThat(revenue()).containsExactly(new BigDecimal("100.0"));
+        assertThat(skuUnits()).containsExactly(Map.of("SKU-1", 2L, "SKU-2", 1L));
+    }
+
+    @Test
+    void altaQueLlegaDespuesDeInventarioYPago() {
+        inventoryEvents.pipeInput("ORD-1", inventory("ORD-1", true), T0);
+        paymentEvents.pipeInput("ORD-1", payment("ORD-1", "APPROVED"), T0.plusSeconds(1));
+        orderEvents.pipeInput("ORD-1", created("ORD-1", 3), T0.plusSeconds(2));
+
+        // El alta tardía completa los datos sin devolver la orden a PENDING
+        OrderView view = view("ORD-1");
+        assertThat(view.getStatus()).isEqualTo(OrderView.COMPLETED);
+        assertThat(view.getCustomerId()).isEqualTo("C-1");
+        assertThat(view.getItems()).containsEntry("SKU-1", 3);
+        assertThat(counts()).containsOnly(Map.entry(OrderView.COMPLETED, 1L));
+        assertThat(revenue()).containsExactly(new BigDecimal("100.0"));
+        assertThat(skuUnits()).containsExactly(Map.of("SKU-1", 3L, "SKU-2", 1L));
+    }
+
+    @Test
+    void pagoAntesQueInventarioNoReabreLaOrden() {
+        orderEvents.pipeInput("ORD-1", created("ORD-1", 1), T0);
+        paymentEvents.pipeInput("ORD-1", payment("ORD-1", "REJECTED"), T0.plusSeconds(1));
+        inventoryEvents.pipeInput("ORD-1", inventory("ORD-1", true), T0.plusSeconds(2));
+
+        assertThat(view("ORD-1").getStatus()).isEqualTo(OrderView.CANCELLED);
+        assertThat(counts()).containsOnly(Map.entry(OrderView.CANCELLED, 1L));
+        assertThat(revenue()).isEmpty();
+    }
+
+    @Test
+    void eventosRepetidosNoSeCuentanDosVeces() {
+        orderEvents.pipeInput("ORD-1", created("ORD-1", 2), T0);
+        orderEvents.pipeInput("ORD-1", created("ORD-1", 5), T0.plusSeconds(1));
+        inventoryEvents.pipeInput("ORD-1", inventory("ORD-1", true), T0.plusSeconds(2));
+        inventoryEvents.pipeInput("ORD-1", inventory("ORD-1", false), T0.plusSeconds(3));
+        paymentEvents.pipeInput("ORD-1", payment("ORD-1", "APPROVED"), T0.plusSeconds(4));
+        paymentEvents.pipeInput("ORD-1", payment("ORD-1", "APPROVED"), T0.plusSeconds(5));
+
+        OrderView view = view("ORD-1");
+        assertThat(view.getStatus()).isEqualTo(OrderView.COMPLETED);
+        assertThat(view.getItems()).containsEntry("SKU-1", 2);
+        assertThat(counts()).containsOnly(Map.entry(OrderView.COMPLETED, 1L));
+        assertThat(revenue()).containsExactly(new BigDecimal("100.0"));
+        assertThat(skuUnits()).containsExactly(Map.of("SKU-1", 2L, "SKU-2", 1L));
+    }
+
+    @Test
+    void cadaCambioDeEstadoRestaDelAnteriorYSumaAlNuevo() {
+        orderEvents.pipeInput("ORD-1", created("ORD-1", 1), T0);
+        orderEvents.pipeInput("ORD-2", created("ORD-2", 1), T0.plusSeconds(1));
+        orderEvents.pipeInput("ORD-3", created("ORD-3", 1), T0.plusSeconds(2));
+        assertThat(counts()).containsOnly(Map.entry(OrderView.PENDING, 3L));
+
+        inventoryEvents.pipeInput("ORD-1", inventory("ORD-1", false), T0.plusSeconds(3));
+        inventoryEvents.pipeInput("ORD-2", inventory("ORD-2", true), T0.plusSeconds(4));
+        assertThat(counts()).containsOnly(
+                Map.entry(OrderView.PENDING, 2L), Map.entry(OrderView.REJECTED, 1L));
+
+        paymentEvents.pipeInput("ORD-2", payment("ORD-2", "APPROVED"), T0.plusSeconds(5));
+        paymentEvents.pipeInput("ORD-3", payment("ORD-3", "ERROR"), T0.plusSeconds(6));
+
+        // Los estados que se quedan a cero desaparecen del mapa
+        assertThat(counts()).containsOnly(Map.entry(OrderView.COMPLETED, 1L),
+                Map.entry(OrderView.FAILED, 1L), Map.entry(OrderView.REJECTED, 1L));
+    }
+
+    @Test
+    void ingresosYUnidadesPorMinuto() {
+        orderEvents.pipeInput("ORD-1", created("ORD-1", 1), T0);
+        paymentEvents.pipeInput("ORD-1", payment("ORD-1", "APPROVED"), T0.plusSeconds(1));
+        orderEvents.pipeInput("ORD-2", created("ORD-2", 4), T0.plusSeconds(2));
+        paymentEvents.pipeInput("ORD-2", payment("ORD-2", "APPROVED"), T0.plusSeconds(3));
+        orderEvents.pipeInput("ORD-3", created("ORD-3", 2), T0.plusSeconds(60));
+        paymentEvents.pipeInput("ORD-3", payment("ORD-3", "APPROVED"), T0.plusSeconds(61));
+
+        assertThat(revenue()).containsExactly(new BigDecimal("200.0"), new BigDecimal("100.0"));
+        assertThat(skuUnits()).containsExactly(Map.of("SKU-1", 5L, "SKU-2", 2L), Map.of("SKU-1", 2L, "SKU-2", 1L));
+    }
+
+    private OrderView view(String orderId) {
+        KeyValueStore<String, OrderView> store = driver.getKeyValueStore(OrderAnalyticsTopology.ORDER_VIEWS);
+        return store.get(orderId);
+    }
+
+    private Map<String, Long> counts() {
+        KeyValueStore<String, OrderCounts> store = driver.getKeyValueStore(OrderAnalyticsTopology.ORDER_COUNTS);
+        OrderCounts counts = store.get(OrderAnalyticsTopology.ALL);
+        return counts != null ? counts.getByStatus() : Map.of();
+    }
+
+    private List<BigDecimal> revenue() {
+        WindowStore<String, BigDecimal> store = driver.getWindowStore(OrderAnalyticsTopology.REVENUE);
+        return windows(store);
+    }
+
+    private List<Map<String, Long>> skuUnits() {
+        WindowStore<String, SkuUnits> store = driver.getWindowStore(OrderAnalyticsTopology.SKU_UNITS);
+        return windows(store).stream().map(SkuUnits::getUnits).toList();
+    }
+
+    private static <T> List<T> windows(WindowStore<String, T> store) {
+        List<T> values = new ArrayList<>();
+        try (WindowStoreIterator<T> iterator = store.fetch(OrderAnalyticsTopology.ALL,
+                T0.minus(Duration.ofHours(1)), T0.plus(Duration.ofHours(1)))) {
+            iterator.forEachRemaining((KeyValue<Long, T> window) -> values.add(window.value));
+        }
+        return values;
+    }
+
+    private static OrderCreatedEvent created(String orderId, int units) {
+        return OrderCreatedEvent.builder()
+                .eventType(OrderCreatedEvent.TYPE)
+                .timestamp(LocalDateTime.now())
+                .orderId(orderId)
+                .customerId("C-1")
+                .items(List.of(
+                        new OrderCreatedEvent.OrderItem("SKU-1", null, units, new BigDecimal("25.00")),
+                        new OrderCreatedEvent.OrderItem("SKU-2", null, 1, new BigDecimal("50.00"))))
+                .totalAmount(new BigDecimal("100.00"))
+                .orderDate(LocalDateTime.now())
+                .build();
+    }
+
+    private static InventoryUpdatedEvent inventory(String orderId, boolean available) {
+        return InventoryUpdatedEvent.builder()
+                .eventType(InventoryUpdatedEvent.TYPE)
+                .timestamp(LocalDateTime.now())
+                .orderId(orderId)
+                .inventoryStatus(Map.of("SKU-1", available))
+                .allProductsAvailable(available)
+                .errorMessage(available ? null : "Stock insuficiente")
+                .totalAmount(new BigDecimal("100.00"))
+                .build();
+    }
+
+    private static PaymentProcessedEvent payment(String orderId, String status) {
+        return PaymentProcessedEvent.builder()
+                .eventType(PaymentProcessedEvent.TYPE)
+                .timestamp(LocalDateTime.now())
+                .orderId(orderId)
+                .paymentId("PAY-" + orderId)
+                .paymentStatus(status)
+                .paymentMethod("CARD")
+                .amount(100.0)
+                .build();
+    }
+}
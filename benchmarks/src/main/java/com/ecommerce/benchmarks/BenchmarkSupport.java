@@ -0,0 +1,115 @@
+package com.ecommerce.benchmarks;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.ecommerce.common.logging.JsonLineEncoder;
+import com.ecommerce.common.logging.SamplingTurboFilter;
+import com.ecommerce.common.serialization.EventCodecRegistry;
+import com.ecommerce.common.serialization.EventSerializer;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Piezas comunes de los benchmarks de los handlers: el logging de producción sin salida,
+ * repositorios stub y un KafkaTemplate que serializa como los servicios pero no envía nada.
+ */
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Misma configuración que logback-ecommerce.xml (INFO, 1% de los logs por mensaje, sin
+     * payloads, AsyncAppender con JSON por línea), escribiendo a un stream que lo descarta.
+     */
+    static void productionLogging() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+
+        JsonLineEncoder encoder = new JsonLineEncoder();
+        encoder.setContext(context);
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> discard = new OutputStreamAppender<>();
+        discard.setContext(context);
+        discard.setEncoder(encoder);
+        discard.setOutputStream(OutputStream.nullOutputStream());
+        discard.start();
+
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setQueueSize(8192);
+        async.setNeverBlock(true);
+        async.addAppender(discard);
+        async.start();
+
+        SamplingTurboFilter filter = new SamplingTurboFilter();
+        filter.setContext(context);
+        filter.setSampleRate(0.01);
+        filter.start();
+        context.addTurboFilter(filter);
+
+        ch.qos.logback.classic.Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(async);
+    }
+
+    /**
+     * Repositorio Spring Data en memoria: cada método de answers recibe los argumentos de la
+     * llamada; el resto falla, para no medir por error un camino que no hace nada.
+     */
+    static <T> T repository(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + " stub";
+                };
+            }
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+        }));
+    }
+
+    /**
+     * KafkaTemplate sobre un MockProducer que completa cada envío al momento: se mide la
+     * serialización con el {@link EventSerializer} de los servicios, sin red. Llamar a
+     * {@link DiscardingProducer#clear()} de vez en cuando para no acumular el historial.
+     */
+    static KafkaTemplate<String, Object> kafkaTemplate(DiscardingProducer producer) {
+        return new KafkaTemplate<>(() -> producer);
+    }
+
+    /**
+     * El KafkaTemplate cierra el producer tras cada envío fuera de transacción; el
+     * MockProducer no admite envíos después de cerrarse, así que aquí cerrar no hace nada.
+     */
+    static final class DiscardingProducer extends MockProducer<String, Object> {
+
+        DiscardingProducer(EventCodecRegistry registry) {
+            super(true, new StringSerializer(), new EventSerializer(registry));
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public void close(Duration timeout) {
+        }
+    }
+}
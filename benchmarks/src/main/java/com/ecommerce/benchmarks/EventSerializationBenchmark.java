@@ -0,0 +1,156 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.common.event.order.OrderCreatedEvent;
+import com.ecommerce.common.event.payment.PaymentProcessedEvent;
+import com.ecommerce.common.event.product.InventoryUpdatedEvent;
+import com.ecommerce.common.serialization.EncodedEvent;
+import com.ecommerce.common.serialization.EventCodec;
+import com.ecommerce.common.serialization.EventCodecRegistry;
+import com.ecommerce.common.serialization.EventDeserializer;
+import com.ecommerce.common.serialization.EventHeaders;
+import com.ecommerce.common.serialization.PayloadFormat;
+import com.ecommerce.common.serialization.codec.InventoryUpdatedEventCodec;
+import com.ecommerce.common.serialization.codec.OrderCreatedEventCodec;
+import com.ecommerce.common.serialization.codec.PaymentProcessedEventCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste por evento de codificar y decodificar con Jackson frente al formato binario, para
+ * los tres eventos de la saga, usando el mismo {@link EventCodecRegistry} y {@link EventDeserializer} que los servicios.
+ * skipUnconsumed mide el descarte por cabecera de un tipo que el consumidor no lee.
+ * El tamaño en bytes de cada formato se imprime en el setup.
+ *
+ * <pre>java -jar benchmarks/target/benchmarks.jar EventSerializationBenchmark</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventSerializationBenchmark {
+
+    @Param({"JSON", "BINARY"})
+    private PayloadFormat format;
+
+    private EventCodecRegistry registry;
+    private EventDeserializer deserializer;
+    private OrderCreatedEvent orderEvent;
+    private InventoryUpdatedEvent inventoryEvent;
+    private PaymentProcessedEvent paymentEvent;
+    private byte[] orderPayload;
+    private byte[] inventoryPayload;
+    private byte[] paymentPayload;
+    private Headers orderHeaders;
+    private Headers inventoryHeaders;
+
+    @Setup
+    public void setup() {
+        List<EventCodec<?>> codecs = List.of(
+                new OrderCreatedEventCodec(), new InventoryUpdatedEventCodec(), new PaymentProcessedEventCodec());
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        registry = new EventCodecRegistry(codecs, objectMapper, format);
+        // Consumidor tipo product-service: order-events sí, inventory-events no
+        deserializer = new EventDeserializer(new EventCodecRegistry(codecs, objectMapper, format,
+                List.of(OrderCreatedEvent.TYPE)));
+
+        List<OrderCreatedEvent.OrderItem> items = new ArrayList<>();
+        Map<String, Boolean> status = new LinkedHashMap<>();
+        for (int i = 1; i <= 3; i++) {
+            String sku = "PROD-00" + i;
+            items.add(OrderCreatedEvent.OrderItem.builder()
+                    .productId(sku).quantity(i).price(new BigDecimal("199.99")).build());
+            status.put(sku, true);
+        }
+        orderEvent = OrderCreatedEvent.builder()
+                .eventType(OrderCreatedEvent.TYPE)
+                .orderId("ORD-1A2B3C4D")
+                .customerId("CUST-001")
+                .items(items)
+                .totalAmount(new BigDecimal("1199.94"))
+                .orderDate(LocalDateTime.now())
+                .build();
+        inventoryEvent = InventoryUpdatedEvent.builder()
+                .eventType(InventoryUpdatedEvent.TYPE)
+                .orderId("ORD-1A2B3C4D")
+                .inventoryStatus(status)
+                .allProductsAvailable(true)
+                .build();
+        paymentEvent = PaymentProcessedEvent.builder()
+                .eventType(PaymentProcessedEvent.TYPE)
+                .orderId("ORD-1A2B3C4D")
+                .paymentId("PAY-5E6F7A8B")
+                .paymentStatus("APPROVED")
+                .paymentMethod("CREDIT_CARD")
+                .amount(1199.94)
+                .build();
+
+        EncodedEvent encodedOrder = registry.encode(orderEvent);
+        EncodedEvent encodedInventory = registry.encode(inventoryEvent);
+        orderPayload = encodedOrder.getPayload();
+        inventoryPayload = encodedInventory.getPayload();
+        paymentPayload = registry.encode(paymentEvent).getPayload();
+        orderHeaders = new RecordHeaders();
+        EventHeaders.apply(orderHeaders, encodedOrder);
+        inventoryHeaders = new RecordHeaders();
+        EventHeaders.apply(inventoryHeaders, encodedInventory);
+        System.out.printf("%n%s: OrderCreatedEvent %d bytes, InventoryUpdatedEvent %d bytes, PaymentProcessedEvent %d bytes%n",
+                format, orderPayload.length, inventoryPayload.length, paymentPayload.length);
+    }
+
+    @Benchmark
+    public byte[] encodeOrderCreated() {
+        return registry.encode(orderEvent).getPayload();
+    }
+
+    @Benchmark
+    public Object decodeOrderCreated() {
+        return deserializer.deserialize("order-events", orderHeaders, orderPayload);
+    }
+
+    @Benchmark
+    public byte[] encodeInventoryUpdated() {
+        return registry.encode(inventoryEvent).getPayload();
+    }
+
+    @Benchmark
+    public Object decodeInventoryUpdated() {
+        return registry.decode("inventory-events", InventoryUpdatedEvent.TYPE, format, inventoryPayload);
+    }
+
+    @Benchmark
+    public byte[] encodePaymentProcessed() {
+        return registry.encode(paymentEvent).getPayload();
+    }
+
+    @Benchmark
+    public Object decodePaymentProcessed() {
+        return registry.decode("payment-events", PaymentProcessedEvent.TYPE, format, paymentPayload);
+    }
+
+    @Benchmark
+    public Object skipUnconsumed() {
+        return deserializer.deserialize("inventory-events", inventoryHeaders, inventoryPayload);
+    }
+}
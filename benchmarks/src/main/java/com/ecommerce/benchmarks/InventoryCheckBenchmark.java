@@ -0,0 +1,134 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.common.event.order.OrderCreatedEvent;
+import com.ecommerce.common.idempotency.IdempotencyProperties;
+import com.ecommerce.common.idempotency.ProcessedEventStore;
+import com.ecommerce.common.serialization.EventCodecRegistry;
+import com.ecommerce.common.serialization.PayloadFormat;
+import com.ecommerce.common.serialization.codec.InventoryUpdatedEventCodec;
+import com.ecommerce.common.serialization.codec.OrderCreatedEventCodec;
+import com.ecommerce.common.serialization.codec.PaymentProcessedEventCodec;
+import com.ecommerce.common.tracing.SagaMetrics;
+import com.ecommerce.product.kafka.InventoryEventPublisher;
+import com.ecommerce.product.kafka.OrderEventConsumer;
+import com.ecommerce.product.model.Product;
+import com.ecommerce.product.repository.ProductRepository;
+import com.ecommerce.product.service.InventoryService;
+import com.ecommerce.product.service.StockReservationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ORDER_CREATED por segundo que procesa el {@link OrderEventConsumer} de product-service:
+ * verificación de stock en {@link InventoryService}, construcción del InventoryUpdatedEvent y
+ * su serialización al publicarlo. La BD queda fuera: findBySkuIn devuelve productos en memoria,
+ * la reserva siempre se concede, el registro de eventos procesados no guarda nada y el
+ * producer no envía. La reserva real se mide en StockLedgerBenchmark.
+ *
+ * <pre>java -jar benchmarks/target/benchmarks.jar InventoryCheckBenchmark -prof gc</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InventoryCheckBenchmark {
+
+    @Param({"3", "20"})
+    private int items;
+
+    private OrderEventConsumer consumer;
+    private BenchmarkSupport.DiscardingProducer producer;
+    private OrderCreatedEvent orderEvent;
+
+    @Setup
+    public void setup() {
+        BenchmarkSupport.productionLogging();
+
+        List<Product> products = new ArrayList<>();
+        List<OrderCreatedEvent.OrderItem> orderItems = new ArrayList<>();
+        for (int i = 1; i <= items; i++) {
+            String sku = String.format("PROD-%03d", i);
+            products.add(Product.builder().id((long) i).sku(sku).name("Producto " + sku).price(199.99).stock(1_000).build());
+            orderItems.add(OrderCreatedEvent.OrderItem.builder()
+                    .productId(sku).quantity(1 + i % 3).price(new BigDecimal("199.99")).build());
+        }
+        ProductRepository productRepository = BenchmarkSupport.repository(ProductRepository.class,
+                Map.of("findBySkuIn", args -> products));
+
+        StockReservationService reservationService = new StockReservationService(null, null, Optional.empty()) {
+            @Override
+            public Map<String, Boolean> reserve(String orderId, List<OrderCreatedEvent.OrderItem> reserved) {
+                Map<String, Boolean> status = new LinkedHashMap<>();
+                reserved.forEach(item -> status.put(item.getProductId(), true));
+                return status;
+            }
+        };
+        InventoryService inventoryService = new InventoryService(productRepository, reservationService, Optional.empty());
+
+        EventCodecRegistry registry = new EventCodecRegistry(
+                List.of(new OrderCreatedEventCodec(), new InventoryUpdatedEventCodec(), new PaymentProcessedEventCodec()),
+                new ObjectMapper().findAndRegisterModules(), PayloadFormat.JSON);
+        producer = new BenchmarkSupport.DiscardingProducer(registry);
+        InventoryEventPublisher publisher = new InventoryEventPublisher(BenchmarkSupport.kafkaTemplate(producer));
+
+        consumer = new OrderEventConsumer(inventoryService, publisher, new NoopProcessedEventStore(),
+                new SagaMetrics(new SimpleMeterRegistry()));
+
+        orderEvent = OrderCreatedEvent.builder()
+                .eventType(OrderCreatedEvent.TYPE)
+                .orderId("ORD-1A2B3C4D")
+                .customerId("CUST-001")
+                .items(orderItems)
+                .totalAmount(new BigDecimal("199.99").multiply(BigDecimal.valueOf(items)))
+                .orderDate(LocalDateTime.now())
+                .build();
+    }
+
+    @Benchmark
+    public void consumeOrderCreated() {
+        consumer.consumeOrderEvent(orderEvent);
+        producer.clear();
+    }
+
+    /**
+     * Sin BD: ningún evento está procesado y registrarlos no hace nada.
+     */
+    private static final class NoopProcessedEventStore extends ProcessedEventStore {
+
+        NoopProcessedEventStore() {
+            super(null, "product-service", new IdempotencyProperties());
+        }
+
+        @Override
+        public boolean isProcessed(String eventId) {
+            return false;
+        }
+
+        @Override
+        public void markProcessed(Collection<String> eventIds) {
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.ecommerce.benchmarks;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.ecommerce.common.event.order.OrderCreatedEvent;
+import com.ecommerce.common.logging.JsonLineEncoder;
+import com.ecommerce.common.logging.LogMarkers;
+import com.ecommerce.common.logging.SamplingTurboFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mensajes por segundo que procesa un listener según la configuración de logging:
+ * <ul>
+ *   <li>current: la anterior. ConsoleAppender síncrono con el patrón de Spring Boot,
+ *   com.ecommerce y org.springframework.kafka en DEBUG, y el contenido de cada mensaje.</li>
+ *   <li>async: la común de kafka-common. AsyncAppender que nunca bloquea, JSON por línea,
+ *   INFO, logs por mensaje muestreados al 1% y sin payloads.</li>
+ * </ul>
+ * Cada operación hace las llamadas de log de product-service para un ORDER_CREATED, desde
+ * tantos hilos como la concurrencia por defecto de los listeners. La salida va a un fichero
+ * temporal (en vez de la terminal de JMH); su tamaño se imprime al terminar.
+ *
+ * <pre>java -jar benchmarks/target/benchmarks.jar LoggingBenchmark</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(3)
+@Fork(1)
+public class LoggingBenchmark {
+
+    private static final String BOOT_CONSOLE_PATTERN =
+            "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%15.15t] %-40.40logger{39} : %m%n";
+
+    private static final Logger log = LoggerFactory.getLogger("com.ecommerce.product.kafka.OrderEventConsumer");
+    private static final Logger containerLog =
+            LoggerFactory.getLogger("org.springframework.kafka.listener.KafkaMessageListenerContainer");
+
+    @Param({"current", "async"})
+    private String config;
+
+    private LoggerContext context;
+    private Path logFile;
+    private OrderCreatedEvent orderEvent;
+    private Map<String, Integer> quantities;
+    private Map<String, Boolean> inventoryStatus;
+
+    @Setup
+    public void setup() throws IOException {
+        context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        logFile = Files.createTempFile("logging-benchmark-" + config, ".log");
+
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setName("file");
+        file.setFile(logFile.toString());
+
+        ch.qos.logback.classic.Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        Appender<ILoggingEvent> appender;
+        if ("current".equals(config)) {
+            PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+            encoder.setContext(context);
+            encoder.setPattern(BOOT_CONSOLE_PATTERN);
+            encoder.start();
+            file.setEncoder(encoder);
+            file.start();
+            appender = file;
+            root.setLevel(Level.INFO);
+            context.getLogger("com.ecommerce.product").setLevel(Level.DEBUG);
+            context.getLogger("org.springframework.kafka").setLevel(Level.DEBUG);
+        } else {
+            JsonLineEncoder encoder = new JsonLineEncoder();
+            encoder.setContext(context);
+            encoder.start();
+            file.setEncoder(encoder);
+            file.start();
+
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setName("ASYNC");
+            async.setQueueSize(8192);
+            async.setNeverBlock(true);
+            async.addAppender(file);
+            async.start();
+            appender = async;
+
+            SamplingTurboFilter filter = new SamplingTurboFilter();
+            filter.setContext(context);
+            filter.setSampleRate(0.01);
+            filter.setPayloads(false);
+            filter.start();
+            context.addTurboFilter(filter);
+            root.setLevel(Level.INFO);
+        }
+        root.addAppender(appender);
+
+        orderEvent = OrderCreatedEvent.builder()
+                .eventType(OrderCreatedEvent.TYPE)
+                .orderId("ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase())
+                .customerId("CUST-001")
+                .totalAmount(new BigDecimal("1700.00"))
+                .orderDate(LocalDateTime.now())
+                .items(List.of(
+                        OrderCreatedEvent.OrderItem.builder().productId("PROD-001").quantity(1).price(new BigDecimal("1500.00")).build(),
+                        OrderCreatedEvent.OrderItem.builder().productId("PROD-002").quantity(1).price(new BigDecimal("120.00")).build(),
+                        OrderCreatedEvent.OrderItem.builder().productId("PROD-003").quantity(1).price(new BigDecimal("80.00")).build()))
+                .build();
+        quantities = new LinkedHashMap<>();
+        inventoryStatus = new LinkedHashMap<>();
+        for (OrderCreatedEvent.OrderItem item : orderEvent.getItems()) {
+            quantities.put(item.getProductId(), item.getQuantity());
+            inventoryStatus.put(item.getProductId(), true);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        // Detener el contexto vacía la cola del AsyncAppender
+        context.stop();
+        System.out.printf("%n%s: %d KB de log%n", config, Files.size(logFile) / 1024);
+        Files.deleteIfExists(logFile);
+        context.reset();
+    }
+
+    @Benchmark
+    public void handleOrderCreated() {
+        String orderId = orderEvent.getOrderId();
+        containerLog.debug("Processing [{}]", orderEvent);
+        log.info(LogMarkers.SAMPLED, "🔍 Verificando inventario para orden: {}", orderId);
+        for (OrderCreatedEvent.OrderItem item : orderEvent.getItems()) {
+            log.debug("✅ Stock suficiente para Producto: {} - Stock: {}", item.getProductId(), 25);
+        }
+        log.info(LogMarkers.SAMPLED, "🔒 Stock reservado para orden {}: {}", orderId, quantities);
+        log.info(LogMarkers.SAMPLED, "📤 Enviado InventoryUpdatedEvent para orden: {} - Status: {}", orderId, "APPROVED");
+        log.info(LogMarkers.PAYLOAD, "📊 Resumen inventario: {}", inventoryStatus);
+    }
+}
@@ -0,0 +1,97 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.common.serialization.EventCodecRegistry;
+import com.ecommerce.common.serialization.PayloadFormat;
+import com.ecommerce.common.serialization.codec.InventoryUpdatedEventCodec;
+import com.ecommerce.common.serialization.codec.OrderCreatedEventCodec;
+import com.ecommerce.common.serialization.codec.PaymentProcessedEventCodec;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.repository.OrderRepository;
+import com.ecommerce.order.repository.OutboxEventRepository;
+import com.ecommerce.order.service.CreateOrderRequest;
+import com.ecommerce.order.service.OrderCache;
+import com.ecommerce.order.service.OrderService;
+import com.ecommerce.order.service.ProductPriceCatalog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Órdenes por segundo que construye {@link OrderService#createOrder}: número de orden, precios
+ * del {@link ProductPriceCatalog}, total con BigDecimal, items y el OrderCreatedEvent codificado
+ * para el outbox. Los repositorios devuelven lo que reciben, así que no hay BD (la escritura se
+ * mide en OrderStatusUpdateBenchmark).
+ * Con -prof gc se ve además la memoria que reserva cada orden.
+ *
+ * <pre>java -jar benchmarks/target/benchmarks.jar OrderCreationBenchmark -prof gc</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderCreationBenchmark {
+
+    @Param({"3", "20"})
+    private int items;
+
+    @Param({"JSON", "BINARY"})
+    private PayloadFormat format;
+
+    private OrderService orderService;
+    private CreateOrderRequest request;
+
+    @Setup
+    public void setup() {
+        BenchmarkSupport.productionLogging();
+
+        OrderRepository orderRepository = BenchmarkSupport.repository(OrderRepository.class,
+                Map.of("save", args -> args[0]));
+        OutboxEventRepository outboxEventRepository = BenchmarkSupport.repository(OutboxEventRepository.class,
+                Map.of("save", args -> args[0]));
+        EventCodecRegistry registry = new EventCodecRegistry(
+                List.of(new OrderCreatedEventCodec(), new InventoryUpdatedEventCodec(), new PaymentProcessedEventCodec()),
+                new ObjectMapper().findAndRegisterModules(), format);
+        OrderCache orderCache = new OrderCache(new SimpleMeterRegistry(), 1_000,
+                Duration.ofSeconds(2), Duration.ofMinutes(10));
+        ProductPriceCatalog priceCatalog = new ProductPriceCatalog(new SimpleMeterRegistry());
+        orderService = new OrderService(orderRepository, outboxEventRepository, registry, orderCache, priceCatalog);
+
+        List<CreateOrderRequest.OrderItemRequest> itemRequests = new ArrayList<>();
+        for (int i = 1; i <= items; i++) {
+            String sku = String.format("PROD-%03d", i);
+            priceCatalog.update(sku, new BigDecimal("199.99"));
+            itemRequests.add(CreateOrderRequest.OrderItemRequest.builder()
+                    .productId(sku)
+                    .quantity(1 + i % 3)
+                    .build());
+        }
+        request = CreateOrderRequest.builder()
+                .customerId("CUST-001")
+                .items(itemRequests)
+                .build();
+    }
+
+    @Benchmark
+    public Order createOrder() {
+        return orderService.createOrder(request);
+    }
+}
@@ -0,0 +1,116 @@
+package com.ecommerce.benchmarks;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Actualizaciones de estado por segundo al consumir payment-events: el camino anterior
+ * (SELECT por order_number sin índice + UPDATE de la entidad completa, evento a evento)
+ * frente al batch UPDATE condicionado al estado sobre el índice único de order_number.
+ * Cada invocación procesa un lote de {@value #BATCH} eventos.
+ *
+ * <pre>java -jar benchmarks/target/benchmarks.jar OrderStatusUpdateBenchmark</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderStatusUpdateBenchmark {
+
+    private static final int ORDERS = 20_000;
+    private static final int BATCH = 500;
+
+    private static final String CREATE_TABLE = " (id BIGINT AUTO_INCREMENT PRIMARY KEY, order_number VARCHAR(255), " +
+            "customer_id VARCHAR(255), status SMALLINT, total_amount NUMERIC(38,2), created_at TIMESTAMP, " +
+            "updated_at TIMESTAMP, inventory_status SMALLINT, payment_status SMALLINT, payment_id VARCHAR(255))";
+    private static final String FIND_SQL = "SELECT * FROM legacy_orders WHERE order_number = ?";
+    private static final String SAVE_SQL = "UPDATE legacy_orders SET order_number = ?, customer_id = ?, status = ?, " +
+            "total_amount = ?, created_at = ?, updated_at = ?, inventory_status = ?, payment_status = ?, " +
+            "payment_id = ? WHERE id = ?";
+    private static final String TRANSITION_SQL = "UPDATE orders SET status = ?, payment_status = ?, payment_id = ?, " +
+            "updated_at = ? WHERE order_number = ? AND status = ?";
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private int legacyRound;
+    private int round;
+
+    @Setup
+    public void setup() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:orders;DB_CLOSE_DELAY=-1");
+        dataSource.setMaximumPoolSize(2);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE legacy_orders" + CREATE_TABLE);
+        jdbcTemplate.execute("CREATE TABLE orders" + CREATE_TABLE);
+        jdbcTemplate.execute("CREATE UNIQUE INDEX ux_orders_order_number ON orders (order_number)");
+
+        List<Object[]> rows = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            rows.add(new Object[]{orderNumber(i), "CUST-" + (i % 100), 100.0});
+        }
+        for (String table : List.of("legacy_orders", "orders")) {
+            jdbcTemplate.batchUpdate("INSERT INTO " + table + " (order_number, customer_id, status, total_amount, " +
+                    "created_at, updated_at) VALUES (?, ?, 0, ?, now(), now())", rows);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void selectThenSave() {
+        int first = (legacyRound++ * BATCH) % ORDERS;
+        for (int i = 0; i < BATCH; i++) {
+            Map<String, Object> row = jdbcTemplate.queryForMap(FIND_SQL, orderNumber(first + i));
+            jdbcTemplate.update(SAVE_SQL, row.get("ORDER_NUMBER"), row.get("CUSTOMER_ID"), 1,
+                    row.get("TOTAL_AMOUNT"), row.get("CREATED_AT"), Timestamp.valueOf(LocalDateTime.now()),
+                    row.get("INVENTORY_STATUS"), 0, "PAY-" + i, row.get("ID"));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int[] conditionalBatchUpdate() {
+        // Recorre la tabla en ventanas consecutivas y alterna PENDING <-> COMPLETED en cada
+        // pasada completa, para que todas las filas estén en el estado esperado
+        int first = (round * BATCH) % ORDERS;
+        short from = (short) ((round * BATCH / ORDERS) & 1);
+        short to = (short) (from ^ 1);
+        round++;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            batch.add(new Object[]{to, 0, "PAY-" + i, now, orderNumber(first + i), from});
+        }
+        return jdbcTemplate.batchUpdate(TRANSITION_SQL, batch);
+    }
+
+    private static String orderNumber(int i) {
+        return String.format("ORD-%08X", i);
+    }
+}
@@ -0,0 +1,62 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.common.event.payment.PaymentProcessedEvent;
+import com.ecommerce.common.event.product.InventoryUpdatedEvent;
+import com.ecommerce.payment.service.PaymentProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pagos por segundo que construye el {@link PaymentProcessor} de payment-service a partir de
+ * un InventoryUpdatedEvent aprobado: id de pago, importe y PaymentProcessedEvent. Sin la
+ * latencia simulada de la pasarela y en el propio hilo, para medir solo la construcción.
+ *
+ * <pre>java -jar benchmarks/target/benchmarks.jar PaymentAuthorizationBenchmark -prof gc</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaymentAuthorizationBenchmark {
+
+    private PaymentProcessor paymentProcessor;
+    private InventoryUpdatedEvent inventoryEvent;
+
+    @Setup
+    public void setup() {
+        BenchmarkSupport.productionLogging();
+        paymentProcessor = new PaymentProcessor(Runnable::run, 0);
+
+        Map<String, Boolean> status = new LinkedHashMap<>();
+        for (int i = 1; i <= 3; i++) {
+            status.put("PROD-00" + i, true);
+        }
+        inventoryEvent = InventoryUpdatedEvent.builder()
+                .eventType(InventoryUpdatedEvent.TYPE)
+                .orderId("ORD-1A2B3C4D")
+                .inventoryStatus(status)
+                .allProductsAvailable(true)
+                .totalAmount(new BigDecimal("1199.94"))
+                .build();
+    }
+
+    @Benchmark
+    public PaymentProcessedEvent authorize() {
+        return paymentProcessor.process(inventoryEvent).join();
+    }
+}
@@ -0,0 +1,111 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.product.service.StockLedger;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara la verificación de stock actual (findBySku + comparación), la reserva con UPDATE
+ * condicional y el {@link StockLedger} en memoria, con varios hilos sobre pocos SKUs calientes.
+ *
+ * <p>Las rutas de BD usan JDBC contra H2 en memoria: sin red ni Hibernate, así que sus
+ * números son una cota optimista de lo que cuesta el mismo acceso contra Postgres.
+ *
+ * <pre>java -jar benchmarks/target/benchmarks.jar StockLedgerBenchmark</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class StockLedgerBenchmark {
+
+    private static final String[] HOT_SKUS = {"PROD-001", "PROD-002", "PROD-003", "PROD-004"};
+
+    private static final String FIND_BY_SKU_SQL = "SELECT id, sku, name, price, stock FROM products WHERE sku = ?";
+    private static final String RESERVE_SQL =
+            "UPDATE products SET stock = stock - ?, updated_at = now() WHERE sku = ? AND stock >= ?";
+    private static final String RELEASE_SQL =
+            "UPDATE products SET stock = stock + ?, updated_at = now() WHERE sku = ?";
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private StockLedger ledger;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        String sku() {
+            return HOT_SKUS[next++ & (HOT_SKUS.length - 1)];
+        }
+    }
+
+    @Setup
+    public void setup() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:ledger;DB_CLOSE_DELAY=-1");
+        dataSource.setMaximumPoolSize(4);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE products (id BIGINT AUTO_INCREMENT PRIMARY KEY, sku VARCHAR(255) UNIQUE, " +
+                "name VARCHAR(255), price DOUBLE PRECISION, stock INT, updated_at TIMESTAMP)");
+        jdbcTemplate.execute("CREATE TABLE stock_changelog (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "sku VARCHAR(255) NOT NULL, delta INT NOT NULL, remote BOOLEAN DEFAULT FALSE NOT NULL, created_at TIMESTAMP)");
+        for (String sku : HOT_SKUS) {
+            jdbcTemplate.update("INSERT INTO products (sku, name, price, stock) VALUES (?, ?, ?, ?)",
+                    sku, "Producto " + sku, 100.0, Integer.MAX_VALUE / 2);
+        }
+
+        // Sin StockLedgerLease: el benchmark es el único dueño del ledger
+        ledger = new StockLedger(jdbcTemplate, List.of());
+        ledger.activate();
+    }
+
+    @TearDown
+    public void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        dataSource.close();
+    }
+
+    @Benchmark
+    public boolean findBySkuCheck(Cursor cursor) {
+        // Ruta original: leer el producto y comparar, sin reservar nada
+        Integer stock = jdbcTemplate.queryForObject(FIND_BY_SKU_SQL,
+                (rs, rowNum) -> rs.getInt("stock"), cursor.sku());
+        return stock != null && stock >= 1;
+    }
+
+    @Benchmark
+    public int conditionalUpdateReserve(Cursor cursor) {
+        String sku = cursor.sku();
+        int reserved = jdbcTemplate.update(RESERVE_SQL, 1, sku, 1);
+        jdbcTemplate.update(RELEASE_SQL, 1, sku);
+        return reserved;
+    }
+
+    @Benchmark
+    public boolean ledgerReserve(Cursor cursor) {
+        Map<String, Integer> quantities = Map.of(cursor.sku(), 1);
+        boolean reserved = !ledger.tryDecrement(quantities).containsValue(false);
+        ledger.increment(quantities);
+        return reserved;
+    }
+}
@@ -0,0 +1,134 @@
+package com.ecommerce.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Peticiones por segundo que atiende un servicio cuyas peticiones bloquean (JDBC, send de
+ * Kafka), según el hilo que las ejecuta:
+ * <ul>
+ *   <li>PLATFORM: pool fijo de 200 hilos, el de Tomcat por defecto.</li>
+ *   <li>VIRTUAL: un hilo virtual por petición, como con {@code spring.threads.virtual.enabled}.
+ *   Necesita Java 21: {@code mvn -Pjava21 -pl benchmarks -am package} y un JRE 21.</li>
+ * </ul>
+ * Cada operación lanza {@value #REQUESTS} peticiones a la vez y espera a todas. Cada petición
+ * bloquea {@code blockingMs}; con {@code connections} > 0 lo hace con una de esas conexiones,
+ * como con el pool de Hikari, y el pool pasa a ser el límite sea cual sea el hilo. Al terminar
+ * cada fork se imprimen el pico de hilos y de memoria residente (VmHWM, solo en Linux), donde
+ * se ven las pilas de los hilos de plataforma que el heap no muestra.
+ *
+ * <pre>java -jar benchmarks/target/benchmarks.jar ThreadingBenchmark</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class ThreadingBenchmark {
+
+    private static final int REQUESTS = 2000;
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    public enum Threading { PLATFORM, VIRTUAL }
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    private Threading threading;
+
+    @Param({"0", "10"})
+    private int connections;
+
+    @Param({"5"})
+    private long blockingMs;
+
+    private ExecutorService executor;
+    private Semaphore pool;
+
+    @Setup
+    public void setUp() {
+        executor = threading == Threading.PLATFORM
+                ? Executors.newFixedThreadPool(TOMCAT_MAX_THREADS)
+                : virtualThreadPerTaskExecutor();
+        pool = connections > 0 ? new Semaphore(connections, true) : null;
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        executor.shutdownNow();
+        System.out.printf("%n%s, %d conexiones: pico de %d hilos%s%n", threading, connections,
+                ManagementFactory.getThreadMXBean().getPeakThreadCount(), peakResidentMemory());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public void handleRequests(Blackhole bh) throws Exception {
+        List<Future<Long>> responses = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            responses.add(executor.submit(this::handleRequest));
+        }
+        for (Future<Long> response : responses) {
+            bh.consume(response.get());
+        }
+    }
+
+    private long handleRequest() throws InterruptedException {
+        if (pool == null) {
+            Thread.sleep(blockingMs);
+        } else {
+            pool.acquire();
+            try {
+                Thread.sleep(blockingMs);
+            } finally {
+                pool.release();
+            }
+        }
+        // El trabajo de CPU de la petición: poco frente a la espera
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    // Por reflexión: el módulo compila también para Java 17
+    private static ExecutorService virtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Los hilos virtuales necesitan Java 21 (" + Runtime.version() + ")", e);
+        }
+    }
+
+    private static String peakResidentMemory() throws IOException {
+        Path status = Path.of("/proc/self/status");
+        if (!Files.exists(status)) {
+            return "";
+        }
+        return Files.readAllLines(status).stream()
+                .filter(line -> line.startsWith("VmHWM:"))
+                .map(line -> ", pico de memoria residente " + line.substring("VmHWM:".length()).trim())
+                .findFirst()
+                .orElse("");
+    }
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.gateway.filter;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+
+/**
+ * Respuesta del backend ya leída entera, compartida por las peticiones unidas.
+ */
+record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+
+    // Solo una respuesta 200 puede servirse a otros clientes durante el TTL
+    boolean cacheable() {
+        return status.isSameCodeAs(HttpStatus.OK);
+    }
+}
@@ -0,0 +1,87 @@
+package com.ecommerce.gateway.filter;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Respuesta que guarda estado, cabeceras y cuerpo del backend en lugar de escribirlos,
+ * para repartirlos después entre todas las peticiones unidas. Lleva sus propias
+ * cabeceras: las que el gateway ya puso en la respuesta real (X-RateLimit-*) son de
+ * ese cliente y no deben copiarse a los demás.
+ */
+class CapturingResponse extends ServerHttpResponseDecorator {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final HttpHeaders headers = new HttpHeaders();
+    private HttpStatusCode status = HttpStatus.OK;
+    private byte[] body = EMPTY;
+
+    CapturingResponse(ServerHttpResponse delegate) {
+        super(delegate);
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    @Override
+    public boolean setStatusCode(HttpStatusCode status) {
+        if (status != null) {
+            this.status = status;
+        }
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public boolean setRawStatusCode(Integer value) {
+        return setStatusCode(value != null ? HttpStatusCode.valueOf(value) : null);
+    }
+
+    @Override
+    public HttpStatusCode getStatusCode() {
+        return status;
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public Integer getRawStatusCode() {
+        return status.value();
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        return DataBufferUtils.join(body)
+                .doOnNext(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    this.body = bytes;
+                })
+                .then();
+    }
+
+    @Override
+    public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+        return writeWith(Flux.from(body).flatMapSequential(chunk -> chunk));
+    }
+
+    @Override
+    public Mono<Void> setComplete() {
+        return Mono.empty();
+    }
+
+    CachedResponse toCachedResponse() {
+        return new CachedResponse(status, HttpHeaders.readOnlyHttpHeaders(headers), body);
+    }
+}
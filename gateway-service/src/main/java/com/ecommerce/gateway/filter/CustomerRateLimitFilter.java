@@ -0,0 +1,143 @@
+package com.ecommerce.gateway.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita las peticiones de cada cliente con un {@link TokenBucket} en memoria (sin Redis:
+ * cada instancia del gateway aplica el límite a lo que recibe). El cliente es la cabecera
+ * X-Customer-Id, el parámetro customerId o, si no viene ninguno, la IP. Como el cliente
+ * elige ese identificador, cada IP tiene además su propio bucket, más amplio para no
+ * castigar a varios clientes detrás de un mismo NAT: cambiar de X-Customer-Id en cada
+ * petición no pasa de ese límite. Al superar cualquiera de los dos responde 429 con
+ * Retry-After. Va antes que {@link ResponseCoalescingFilter}: las lecturas servidas desde la
+ * caché también consumen del límite.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "gateway.rate-limit", name = "enabled", matchIfMissing = true)
+public class CustomerRateLimitFilter implements GlobalFilter, Ordered {
+
+    public static final String CUSTOMER_HEADER = "X-Customer-Id";
+    public static final int ORDER = ResponseCoalescingFilter.ORDER - 1;
+
+    private final int capacity;
+    private final double refillPerSecond;
+    private final Buckets customerBuckets;
+    private final Buckets ipBuckets;
+    private final Counter allowed;
+    private final Counter rejected;
+
+    public CustomerRateLimitFilter(MeterRegistry meterRegistry,
+                                   @Value("${gateway.rate-limit.capacity:20}") int capacity,
+                                   @Value("${gateway.rate-limit.refill-per-second:10}") double refillPerSecond,
+                                   @Value("${gateway.rate-limit.max-customers:100000}") long maxCustomers,
+                                   @Value("${gateway.rate-limit.ip.capacity:100}") int ipCapacity,
+                                   @Value("${gateway.rate-limit.ip.refill-per-second:50}") double ipRefillPerSecond,
+                                   @Value("${gateway.rate-limit.ip.max-ips:100000}") long maxIps) {
+        this.capacity = capacity;
+        this.refillPerSecond = refillPerSecond;
+        this.customerBuckets = new Buckets(capacity, refillPerSecond, maxCustomers);
+        this.ipBuckets = new Buckets(ipCapacity, ipRefillPerSecond, maxIps);
+        this.allowed = Counter.builder("gateway.rate.limit.requests")
+                .description("Peticiones evaluadas por el límite por cliente")
+                .tag("result", "allowed")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("gateway.rate.limit.requests")
+                .description("Peticiones evaluadas por el límite por cliente")
+                .tag("result", "rejected")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long now = System.nanoTime();
+        String ip = remoteIp(exchange.getRequest());
+        String client = clientKey(exchange.getRequest(), ip);
+        // Primero la IP: si la rechaza, el bucket del cliente no pierde el token
+        long result = ipBuckets.tryConsume(ip, now);
+        if (result >= 0) {
+            result = Math.min(result, customerBuckets.tryConsume(client, now));
+        }
+
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        headers.set("X-RateLimit-Burst-Capacity", String.valueOf(capacity));
+        headers.set("X-RateLimit-Replenish-Rate", String.valueOf(refillPerSecond));
+        if (result >= 0) {
+            allowed.increment();
+            headers.set("X-RateLimit-Remaining", String.valueOf(result));
+            return chain.filter(exchange);
+        }
+
+        rejected.increment();
+        log.debug("🚦 Límite superado para {} en {}", client, exchange.getRequest().getPath());
+        headers.set("X-RateLimit-Remaining", "0");
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(-result + 999_999_999))));
+        exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        return exchange.getResponse().setComplete();
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private static String clientKey(ServerHttpRequest request, String ip) {
+        String customerId = request.getHeaders().getFirst(CUSTOMER_HEADER);
+        if (customerId == null || customerId.isBlank()) {
+            customerId = request.getQueryParams().getFirst("customerId");
+        }
+        if (customerId != null && !customerId.isBlank()) {
+            return "customer:" + customerId;
+        }
+        return "ip:" + ip;
+    }
+
+    private static String remoteIp(ServerHttpRequest request) {
+        InetSocketAddress remote = request.getRemoteAddress();
+        return remote != null && remote.getAddress() != null ? remote.getAddress().getHostAddress() : "anonymous";
+    }
+
+    /**
+     * Buckets con la misma capacidad y reposición, por clave.
+     */
+    private static final class Buckets {
+
+        private final int capacity;
+        private final double refillPerSecond;
+        private final Cache<String, TokenBucket> cache;
+
+        Buckets(int capacity, double refillPerSecond, long maxSize) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+            // Un bucket sin uso durante lo que tarda en llenarse está lleno: descartarlo no cambia nada
+            long refillNanos = (long) Math.ceil(capacity / refillPerSecond * 1_000_000_000d);
+            this.cache = Caffeine.newBuilder()
+                    .maximumSize(maxSize)
+                    .expireAfterAccess(Duration.ofNanos(Math.max(refillNanos, TimeUnit.SECONDS.toNanos(1))))
+                    .build();
+        }
+
+        long tryConsume(String key, long now) {
+            return cache.get(key, k -> new TokenBucket(capacity, refillPerSecond, now)).tryConsume(now);
+        }
+    }
+}
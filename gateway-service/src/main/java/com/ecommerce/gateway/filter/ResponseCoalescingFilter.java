@@ -0,0 +1,144 @@
+package com.ecommerce.gateway.filter;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Une los GET idénticos a las rutas configuradas: mientras hay una llamada al backend en
+ * curso, las demás esperan su respuesta en lugar de repetirla, y las respuestas 200 se
+ * sirven desde memoria durante un TTL corto. Así, con cualquier número de clientes
+ * consultando la misma orden, el backend recibe como mucho una petición por TTL.
+ * Las respuestas que no son 200 se reparten a quien las esperaba pero no se guardan.
+ *
+ * <p>Va antes de {@link NettyWriteResponseFilter}, que es quien escribe la respuesta del
+ * backend: así puede capturarla. La cabecera X-Gateway-Cache indica MISS, COALESCED o HIT.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "gateway.coalescing", name = "enabled", matchIfMissing = true)
+public class ResponseCoalescingFilter implements GlobalFilter, Ordered {
+
+    public static final String CACHE_HEADER = "X-Gateway-Cache";
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+
+    private final List<PathPattern> paths;
+    private final AsyncCache<String, CachedResponse> responses;
+    private final Counter upstream;
+    private final Counter coalesced;
+    private final Counter cached;
+
+    public ResponseCoalescingFilter(MeterRegistry meterRegistry,
+                                    @Value("${gateway.coalescing.paths:/order-service/api/orders/ORD-*}") List<String> paths,
+                                    @Value("${gateway.coalescing.ttl:1s}") Duration ttl,
+                                    @Value("${gateway.coalescing.max-entries:10000}") long maxEntries) {
+        this.paths = paths.stream().map(PathPatternParser.defaultInstance::parse).toList();
+        // El TTL cuenta desde que llega la respuesta; una llamada en curso no caduca
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "gateway-responses");
+        this.upstream = counter(meterRegistry, "upstream");
+        this.coalesced = counter(meterRegistry, "coalesced");
+        this.cached = counter(meterRegistry, "cached");
+        log.info("🔗 Coalescing de GET en {} con TTL {}", paths, ttl);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getMethod() != HttpMethod.GET || !matches(request)) {
+            return chain.filter(exchange);
+        }
+
+        String query = request.getURI().getRawQuery();
+        String key = query == null ? request.getURI().getRawPath() : request.getURI().getRawPath() + '?' + query;
+        boolean[] leader = {false};
+        CompletableFuture<CachedResponse> response = responses.get(key, (k, executor) -> {
+            leader[0] = true;
+            return fetch(exchange, chain).toFuture();
+        });
+
+        String cacheStatus;
+        if (leader[0]) {
+            upstream.increment();
+            cacheStatus = "MISS";
+            response.thenAccept(result -> {
+                if (!result.cacheable()) {
+                    responses.asMap().remove(key, response);
+                }
+            });
+        } else if (response.isDone()) {
+            cached.increment();
+            cacheStatus = "HIT";
+        } else {
+            coalesced.increment();
+            cacheStatus = "COALESCED";
+        }
+        // suppressCancel: si este cliente se va, la llamada sigue para los demás que la esperan
+        return Mono.fromFuture(response, true)
+                .flatMap(result -> write(exchange.getResponse(), result, cacheStatus));
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private boolean matches(ServerHttpRequest request) {
+        for (PathPattern path : paths) {
+            if (path.matches(request.getPath().pathWithinApplication())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // La petición que llega primero hace la llamada real con una respuesta que solo captura
+    private static Mono<CachedResponse> fetch(ServerWebExchange exchange, GatewayFilterChain chain) {
+        CapturingResponse capture = new CapturingResponse(exchange.getResponse());
+        return chain.filter(exchange.mutate().response(capture).build())
+                .then(Mono.fromSupplier(capture::toCachedResponse));
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, CachedResponse result, String cacheStatus) {
+        response.setStatusCode(result.status());
+        HttpHeaders headers = response.getHeaders();
+        headers.addAll(result.headers());
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        headers.setContentLength(result.body().length);
+        headers.set(CACHE_HEADER, cacheStatus);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(result.body())));
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("gateway.coalescing.requests")
+                .description("GET a rutas con coalescing, por cómo se sirvieron")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
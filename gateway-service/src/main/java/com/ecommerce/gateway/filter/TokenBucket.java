@@ -0,0 +1,36 @@
+package com.ecommerce.gateway.filter;
+
+/**
+ * Token bucket de un cliente: hasta {@code capacity} peticiones seguidas y después
+ * {@code refillPerSecond} por segundo. Los tokens se reponen al consultar, sin hilos.
+ */
+final class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+
+    // Protegidos por this
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(int capacity, double refillPerSecond, long now) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.refilledAt = now;
+    }
+
+    /**
+     * @return los tokens que quedan (0 o más) si la petición pasa, o menos los nanosegundos
+     * que faltan para el siguiente token si se rechaza
+     */
+    synchronized long tryConsume(long now) {
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * refillPerNano);
+        refilledAt = now;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return (long) tokens;
+        }
+        return -Math.max(1, (long) Math.ceil((1 - tokens) / refillPerNano));
+    }
+}
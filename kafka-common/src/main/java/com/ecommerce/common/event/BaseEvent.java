@@ -1,22 +1,32 @@
 package com.ecommerce.common.event;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Builder;
 import lombok.Data;
+import lombok.experimental.SuperBuilder;
+
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+/**
+ * Base de los eventos compartidos. El builder asigna eventId y timestamp; los
+ * constructores sin argumentos los dejan vacíos porque los usa la deserialización,
+ * que los rellena desde el payload.
+ */
 @Data
+@SuperBuilder
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class BaseEvent {
-    private String eventId;
+    @Builder.Default
+    private String eventId = UUID.randomUUID().toString();
     private String eventType;
-    private LocalDateTime timestamp;
-    
+    @Builder.Default
+    private LocalDateTime timestamp = LocalDateTime.now();
+
     public BaseEvent() {
-        this.eventId = UUID.randomUUID().toString();
-        this.timestamp = LocalDateTime.now();
     }
-    
+
     public BaseEvent(String eventType) {
-        this();
         this.eventType = eventType;
     }
 }
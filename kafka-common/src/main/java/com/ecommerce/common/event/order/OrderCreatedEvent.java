@@ -1,25 +1,39 @@
 package com.ecommerce.common.event.order;
 
 import com.ecommerce.common.event.BaseEvent;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
+@SuperBuilder
 @EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
 public class OrderCreatedEvent extends BaseEvent {
+    public static final String TYPE = "ORDER_CREATED";
+
     private String orderId;
     private String customerId;
     private List<OrderItem> items;
     private BigDecimal totalAmount;
+    private LocalDateTime orderDate;
 
     public OrderCreatedEvent() {
-        super("ORDER_CREATED");
+        super(TYPE);
     }
 
     @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
     public static class OrderItem {
         private String productId;
         private String productName;
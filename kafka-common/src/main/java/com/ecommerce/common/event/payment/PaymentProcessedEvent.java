@@ -0,0 +1,26 @@
+package com.ecommerce.common.event.payment;
+
+import com.ecommerce.common.event.BaseEvent;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+@Data
+@SuperBuilder
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class PaymentProcessedEvent extends BaseEvent {
+    public static final String TYPE = "PAYMENT_PROCESSED";
+
+    private String orderId;
+    private String paymentId;
+    private String paymentStatus; // APPROVED, REJECTED, FAILED
+    private String paymentMethod;
+    private Double amount;
+    private String errorMessage;
+
+    public PaymentProcessedEvent() {
+        super(TYPE);
+    }
+}
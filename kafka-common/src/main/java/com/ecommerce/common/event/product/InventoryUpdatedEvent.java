@@ -0,0 +1,29 @@
+package com.ecommerce.common.event.product;
+
+import com.ecommerce.common.event.BaseEvent;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Data
+@SuperBuilder
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class InventoryUpdatedEvent extends BaseEvent {
+    public static final String TYPE = "INVENTORY_UPDATED";
+
+    private String orderId;
+    private Map<String, Boolean> inventoryStatus;
+    private Boolean allProductsAvailable;
+    private String errorMessage;
+    // Total de la orden, tal como lo calculó order-service: es el importe que cobra payment-service
+    private BigDecimal totalAmount;
+
+    public InventoryUpdatedEvent() {
+        super(TYPE);
+    }
+}
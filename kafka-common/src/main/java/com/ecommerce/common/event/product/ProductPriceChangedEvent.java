@@ -0,0 +1,29 @@
+package com.ecommerce.common.event.product;
+
+import com.ecommerce.common.event.BaseEvent;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+import java.math.BigDecimal;
+
+/**
+ * Precio vigente de un producto, con clave = SKU en el topic compactado product-events:
+ * el último evento de cada SKU es su precio actual. Un tombstone (valor nulo) lo retira.
+ */
+@Data
+@SuperBuilder
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class ProductPriceChangedEvent extends BaseEvent {
+    public static final String TYPE = "PRODUCT_PRICE_CHANGED";
+
+    private String sku;
+    private String name;
+    private BigDecimal price;
+
+    public ProductPriceChangedEvent() {
+        super(TYPE);
+    }
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.common.idempotency;
+
+import java.time.Duration;
+
+/**
+ * Otra entrega tiene reclamado el evento ({@link ProcessedEventStore.Claim#IN_PROGRESS}). El
+ * manejador de errores común lo reintenta en el sitio durante la concesión: o el otro lo completa
+ * y el reintento lo descarta, o la concesión vence y el reintento lo retoma.
+ */
+public class ClaimInProgressException extends RuntimeException {
+
+    private final transient Duration lease;
+
+    public ClaimInProgressException(String eventId, Duration lease) {
+        super("Evento " + eventId + " reclamado por otra entrega");
+        this.lease = lease;
+    }
+
+    public Duration getLease() {
+        return lease;
+    }
+}
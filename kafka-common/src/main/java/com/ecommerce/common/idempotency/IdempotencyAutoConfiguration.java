@@ -0,0 +1,87 @@
+package com.ecommerce.common.idempotency;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+
+import java.util.Collection;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Deduplicación de eventos para los servicios con base de datos. El rebalance listener
+ * refresca el filtro al asignarse particiones; un servicio que ya declare el suyo debe
+ * llamar él mismo a {@link ProcessedEventStore#refresh()}.
+ */
+@Slf4j
+@AutoConfiguration(after = JdbcTemplateAutoConfiguration.class)
+@ConditionalOnClass({JdbcTemplate.class, ConsumerAwareRebalanceListener.class})
+@ConditionalOnBean(JdbcTemplate.class)
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ProcessedEventStore processedEventStore(JdbcTemplate jdbcTemplate,
+                                                   IdempotencyProperties properties,
+                                                   Environment environment) {
+        String consumer = properties.getConsumer() != null
+                ? properties.getConsumer()
+                : environment.getProperty("spring.application.name", "default");
+        log.info("🛡️ Deduplicación de eventos para {} (ventana de {})", consumer, properties.getRetention());
+        return new ProcessedEventStore(jdbcTemplate, consumer, properties);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(ConsumerAwareRebalanceListener.class)
+    public ConsumerAwareRebalanceListener processedEventsRebalanceListener(ProcessedEventStore processedEventStore) {
+        return new ConsumerAwareRebalanceListener() {
+            @Override
+            public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+                if (!partitions.isEmpty()) {
+                    processedEventStore.refresh();
+                }
+            }
+        };
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class IdempotencyMetricsConfiguration {
+
+        @Bean
+        public MeterBinder processedEventsMetrics(ProcessedEventStore store) {
+            return registry -> {
+                lookup(registry, store, "recent", ProcessedEventStore::getRecentHits);
+                lookup(registry, store, "filter", ProcessedEventStore::getFilterMisses);
+                lookup(registry, store, "database", ProcessedEventStore::getDatabaseLookups);
+                FunctionCounter.builder("kafka.consumer.duplicates", store, ProcessedEventStore::getDuplicates)
+                        .description("Eventos descartados por estar ya procesados")
+                        .tag("consumer", store.getConsumer())
+                        .register(registry);
+            };
+        }
+
+        private static void lookup(MeterRegistry registry, ProcessedEventStore store, String resolvedBy,
+                                   ToDoubleFunction<ProcessedEventStore> count) {
+            FunctionCounter.builder("kafka.consumer.dedupe.lookups", store, count)
+                    .description("Comprobaciones de eventos procesados según dónde se resolvieron")
+                    .tag("consumer", store.getConsumer())
+                    .tag("resolved.by", resolvedBy)
+                    .register(registry);
+        }
+    }
+}
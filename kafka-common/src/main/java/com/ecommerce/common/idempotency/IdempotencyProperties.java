@@ -0,0 +1,33 @@
+package com.ecommerce.common.idempotency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "ecommerce.kafka.idempotency")
+public class IdempotencyProperties {
+
+    // Nombre del consumidor en processed_events; por defecto spring.application.name
+    private String consumer;
+
+    // Eventos por ventana de retención. Dimensiona cada una de las dos generaciones del filtro
+    // de Bloom: ~1,2 MB por generación para un millón de eventos al 1 %
+    private long expectedEvents = 1_000_000;
+
+    private double falsePositiveRate = 0.01;
+
+    // Últimos eventos procesados que se resuelven sin tocar el filtro ni la BD
+    private int recentCapacity = 10_000;
+
+    // Ventana de deduplicación: más que cualquier reentrega razonable (rebalanceo, replay)
+    private Duration retention = Duration.ofDays(7);
+
+    // Cada cuánto se borran los eventos fuera de la ventana, en un hilo propio
+    private Duration purgeInterval = Duration.ofHours(1);
+
+    // Concesión de un evento reclamado con tryClaim y aún sin completar. Debe superar lo que tarda
+    // el efecto en confirmarse; vencida, una reentrega lo retoma y el efecto se repite
+    private Duration claimLease = Duration.ofMinutes(1);
+}
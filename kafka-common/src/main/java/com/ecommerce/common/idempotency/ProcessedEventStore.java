@@ -0,0 +1,341 @@
+package com.ecommerce.common.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registro de eventos ya procesados por un consumidor, para descartar reentregas de Kafka.
+ * La tabla processed_events es la fuente de verdad; delante hay una caché LRU de los últimos
+ * eventos (reentregas inmediatas) y un filtro de Bloom con todos los de la ventana de
+ * retención: si el filtro dice que no, el evento es nuevo sin consultar la BD.
+ *
+ * <p>Un filtro de Bloom no admite borrados, así que son dos generaciones: los eventos entran
+ * en la actual y, cada ventana de retención, la actual pasa a ser la anterior y se descarta la
+ * anterior. Un evento sigue en alguna de las dos al menos durante la ventana de retención.
+ *
+ * <p>Para efectos que no van en la transacción del consumidor (un cobro asíncrono),
+ * {@link #tryClaim} registra el evento como CLAIMED antes de procesarlo, {@link #complete} lo
+ * pasa a DONE cuando el efecto está confirmado y {@link #release} lo libera si falla. Un
+ * registro CLAIMED es una concesión de {@code claim-lease}: si quien lo tomó se cae, una
+ * reentrega posterior a la concesión lo retoma.
+ *
+ * <p>{@link #markProcessed} usa la transacción del llamante si la hay. El filtro solo conoce
+ * lo que registra esta instancia, así que {@link #refresh()} carga lo registrado por otras al
+ * asignarse particiones. Los registros fuera de la ventana de retención se purgan en un hilo
+ * propio cada {@code purge-interval}, haya o no rebalanceos.
+ */
+@Slf4j
+public class ProcessedEventStore implements InitializingBean, DisposableBean {
+
+    /**
+     * Resultado de {@link #tryClaim}.
+     */
+    public enum Claim {
+        /** El evento es de quien lo reclama: procesarlo y llamar a complete o release. */
+        CLAIMED,
+        /** Ya procesado: descartar. */
+        PROCESSED,
+        /** Otra entrega lo tiene reclamado y su concesión no ha vencido: reintentar más tarde. */
+        IN_PROGRESS
+    }
+
+    private static final String DONE = "DONE";
+    private static final String CLAIMED = "CLAIMED";
+
+    private static final String INSERT =
+            "INSERT INTO processed_events (consumer, event_id) VALUES (?, ?) ON CONFLICT DO NOTHING";
+
+    // Inserta el registro, o retoma uno CLAIMED cuya concesión venció; 0 filas si no
+    private static final String CLAIM =
+            "INSERT INTO processed_events (consumer, event_id, status, claimed_at) " +
+            "VALUES (?, ?, 'CLAIMED', CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (consumer, event_id) DO UPDATE SET claimed_at = CURRENT_TIMESTAMP " +
+            "WHERE processed_events.status = 'CLAIMED' " +
+            "AND processed_events.claimed_at < CURRENT_TIMESTAMP - ? * INTERVAL '1 millisecond'";
+
+    // Filas confirmadas poco después de leer la marca de agua siguen entrando en el siguiente refresco
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String consumer;
+    private final Duration retention;
+    private final Duration claimLease;
+    private final Duration purgeInterval;
+    private final long expectedEvents;
+    private final double falsePositiveRate;
+    private final Map<String, Boolean> recent;
+
+    // Se leen en este orden (actual, anterior) y la rotación escribe en el inverso: quien lee
+    // la generación nueva ya ve la antigua como anterior
+    private volatile BloomFilter current;
+    private volatile BloomFilter previous;
+    private volatile long rotateAtMillis;
+
+    private final LongAdder recentHits = new LongAdder();
+    private final LongAdder filterMisses = new LongAdder();
+    private final LongAdder databaseLookups = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+
+    // Protegido por this
+    private Timestamp loadedUntil;
+
+    private ScheduledExecutorService purger;
+
+    public ProcessedEventStore(JdbcTemplate jdbcTemplate, String consumer, IdempotencyProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.consumer = consumer;
+        this.retention = properties.getRetention();
+        this.claimLease = properties.getClaimLease();
+        this.purgeInterval = properties.getPurgeInterval();
+        this.expectedEvents = properties.getExpectedEvents();
+        this.falsePositiveRate = properties.getFalsePositiveRate();
+        this.current = new BloomFilter(expectedEvents, falsePositiveRate);
+        this.previous = new BloomFilter(expectedEvents, falsePositiveRate);
+        this.rotateAtMillis = System.currentTimeMillis() + retention.toMillis();
+        int capacity = properties.getRecentCapacity();
+        this.recent = Collections.synchronizedMap(new LinkedHashMap<>(capacity, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS processed_events (" +
+                "consumer VARCHAR(100) NOT NULL, " +
+                "event_id VARCHAR(64) NOT NULL, " +
+                "processed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+                "PRIMARY KEY (consumer, event_id))");
+        // Tablas de versiones anteriores: sus filas son eventos ya procesados
+        jdbcTemplate.execute("ALTER TABLE processed_events " +
+                "ADD COLUMN IF NOT EXISTS status VARCHAR(10) NOT NULL DEFAULT 'DONE', " +
+                "ADD COLUMN IF NOT EXISTS claimed_at TIMESTAMP");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_processed_events_time " +
+                "ON processed_events (consumer, processed_at)");
+        refresh();
+
+        purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "processed-events-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        purger.scheduleWithFixedDelay(this::purgeQuietly, 0, purgeInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (purger != null) {
+            purger.shutdownNow();
+        }
+    }
+
+    /**
+     * Un eventId nulo (productor antiguo) nunca se considera procesado.
+     */
+    public boolean isProcessed(String eventId) {
+        if (eventId == null) {
+            return false;
+        }
+        if (recent.get(eventId) != null) {
+            recentHits.increment();
+            duplicates.increment();
+            return true;
+        }
+        if (!mightContain(eventId)) {
+            filterMisses.increment();
+            return false;
+        }
+        databaseLookups.increment();
+        boolean processed = !jdbcTemplate.queryForList(
+                "SELECT 1 FROM processed_events WHERE consumer = ? AND event_id = ? AND status = 'DONE'",
+                Integer.class, consumer, eventId).isEmpty();
+        if (processed) {
+            duplicates.increment();
+            recent.put(eventId, Boolean.TRUE);
+        }
+        return processed;
+    }
+
+    /**
+     * Reclama el evento en un único INSERT: de dos entregas concurrentes solo una obtiene
+     * {@link Claim#CLAIMED}. Un eventId nulo siempre se puede procesar.
+     *
+     * <p>No pasa por la caché de recientes: un registro puede liberarse en otra instancia.
+     */
+    public Claim tryClaim(String eventId) {
+        if (eventId == null) {
+            return Claim.CLAIMED;
+        }
+        if (jdbcTemplate.update(CLAIM, consumer, eventId, claimLease.toMillis()) > 0) {
+            put(eventId);
+            return Claim.CLAIMED;
+        }
+        List<String> status = jdbcTemplate.queryForList(
+                "SELECT status FROM processed_events WHERE consumer = ? AND event_id = ?",
+                String.class, consumer, eventId);
+        if (status.contains(DONE)) {
+            duplicates.increment();
+            return Claim.PROCESSED;
+        }
+        // CLAIMED vigente, o liberado justo ahora: en ambos casos se reintenta
+        return Claim.IN_PROGRESS;
+    }
+
+    /**
+     * El efecto del evento reclamado está confirmado: a partir de aquí es un duplicado.
+     */
+    public void complete(String eventId) {
+        if (eventId == null) {
+            return;
+        }
+        jdbcTemplate.update("UPDATE processed_events SET status = 'DONE', processed_at = CURRENT_TIMESTAMP " +
+                "WHERE consumer = ? AND event_id = ?", consumer, eventId);
+        recent.put(eventId, Boolean.TRUE);
+    }
+
+    /**
+     * Deshace {@link #tryClaim} para que una reentrega vuelva a procesar el evento.
+     * El filtro no admite borrados: como mucho le cuesta a la reentrega una consulta.
+     */
+    public void release(String eventId) {
+        if (eventId == null) {
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM processed_events WHERE consumer = ? AND event_id = ? AND status = 'CLAIMED'",
+                consumer, eventId);
+    }
+
+    public void markProcessed(String eventId) {
+        if (eventId != null) {
+            markProcessed(List.of(eventId));
+        }
+    }
+
+    public void markProcessed(Collection<String> eventIds) {
+        List<String> ids = eventIds.stream().filter(Objects::nonNull).toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT, ids, ids.size(), (ps, eventId) -> {
+            ps.setString(1, consumer);
+            ps.setString(2, eventId);
+        });
+        for (String eventId : ids) {
+            put(eventId);
+            recent.put(eventId, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Borra los eventos que ya salieron de la ventana de retención.
+     *
+     * @return filas borradas
+     */
+    public int purge() {
+        int purged = jdbcTemplate.update(
+                "DELETE FROM processed_events WHERE consumer = ? AND processed_at < ?",
+                consumer, Timestamp.from(Instant.now().minus(retention)));
+        if (purged > 0) {
+            log.info("🧹 {} eventos procesados de {} fuera de la ventana de {}", purged, consumer, retention);
+        }
+        return purged;
+    }
+
+    // Una excepción cancelaría las ejecuciones siguientes del executor
+    private void purgeQuietly() {
+        try {
+            purge();
+        } catch (RuntimeException e) {
+            log.warn("⚠️ No se pudieron purgar los eventos procesados de {}: {}", consumer, e.getMessage());
+        }
+    }
+
+    /**
+     * Añade al filtro los eventos registrados desde el último refresco (la primera vez, toda la
+     * ventana de retención).
+     */
+    public synchronized void refresh() {
+        Instant now = Instant.now();
+        Timestamp since = loadedUntil != null ? loadedUntil : Timestamp.from(now.minus(retention));
+        Timestamp[] newest = {since};
+        int[] loaded = {0};
+        jdbcTemplate.query(
+                "SELECT event_id, processed_at FROM processed_events WHERE consumer = ? AND processed_at >= ?",
+                rs -> {
+                    put(rs.getString(1));
+                    Timestamp processedAt = rs.getTimestamp(2);
+                    if (processedAt.after(newest[0])) {
+                        newest[0] = processedAt;
+                    }
+                    loaded[0]++;
+                },
+                consumer, since);
+        Timestamp next = Timestamp.from(newest[0].toInstant().minus(REFRESH_OVERLAP));
+        loadedUntil = next.after(since) ? next : since;
+        log.debug("🔎 {} eventos procesados de {} cargados en el filtro", loaded[0], consumer);
+    }
+
+    private boolean mightContain(String eventId) {
+        return current.mightContain(eventId) || previous.mightContain(eventId);
+    }
+
+    private void put(String eventId) {
+        if (System.currentTimeMillis() >= rotateAtMillis) {
+            rotate();
+        }
+        current.put(eventId);
+    }
+
+    private synchronized void rotate() {
+        long now = System.currentTimeMillis();
+        if (now < rotateAtMillis) {
+            return;
+        }
+        previous = current;
+        current = new BloomFilter(expectedEvents, falsePositiveRate);
+        rotateAtMillis = now + retention.toMillis();
+        log.debug("🔄 Nueva generación del filtro de eventos procesados de {}", consumer);
+    }
+
+    public String getConsumer() {
+        return consumer;
+    }
+
+    public Duration getClaimLease() {
+        return claimLease;
+    }
+
+    public long getRecentHits() {
+        return recentHits.sum();
+    }
+
+    public long getFilterMisses() {
+        return filterMisses.sum();
+    }
+
+    public long getDatabaseLookups() {
+        return databaseLookups.sum();
+    }
+
+    public long getDuplicates() {
+        return duplicates.sum();
+    }
+}
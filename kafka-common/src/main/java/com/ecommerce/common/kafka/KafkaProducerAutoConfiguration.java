@@ -0,0 +1,79 @@
+package com.ecommerce.common.kafka;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.LoggingProducerListener;
+import org.springframework.kafka.support.ProducerListener;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Producer común para todos los servicios: idempotente y ajustado según el perfil
+ * ecommerce.kafka.producer.profile (latency / throughput). Se aplica sobre la
+ * ProducerFactory de Spring Boot: lo que se fije explícitamente en spring.kafka.producer.*
+ * (acks, batch-size, compression-type o properties.*) prevalece sobre el perfil.
+ */
+@Slf4j
+@AutoConfiguration(before = KafkaAutoConfiguration.class)
+@ConditionalOnClass(KafkaTemplate.class)
+@EnableConfigurationProperties(KafkaProducerProperties.class)
+public class KafkaProducerAutoConfiguration {
+
+    @Bean
+    public DefaultKafkaProducerFactoryCustomizer ecommerceProducerFactoryCustomizer(KafkaProducerProperties properties) {
+        return producerFactory -> {
+            // Spring Boot solo pone en la factory lo que está fijado en spring.kafka.producer.*
+            Map<String, Object> explicit = producerFactory.getConfigurationProperties();
+            Map<String, Object> configs = new HashMap<>();
+            configs.put(ProducerConfig.LINGER_MS_CONFIG, properties.resolveLingerMs());
+            configs.put(ProducerConfig.BATCH_SIZE_CONFIG, properties.resolveBatchSize());
+            configs.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, properties.resolveCompressionType());
+            configs.put(ProducerConfig.ACKS_CONFIG, properties.resolveAcks());
+            configs.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, properties.resolveMaxInFlight());
+            configs.keySet().removeAll(explicit.keySet());
+
+            // La idempotencia exige acks=all y como mucho 5 peticiones en vuelo
+            String acks = String.valueOf(explicit.getOrDefault(ProducerConfig.ACKS_CONFIG, properties.resolveAcks()));
+            int maxInFlight = Integer.parseInt(String.valueOf(explicit.getOrDefault(
+                    ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, properties.resolveMaxInFlight())));
+            boolean idempotent = ("all".equals(acks) || "-1".equals(acks)) && maxInFlight <= 5;
+            if (explicit.containsKey(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG)) {
+                idempotent = Boolean.parseBoolean(String.valueOf(explicit.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG)));
+            } else {
+                configs.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, idempotent);
+            }
+            if (!idempotent) {
+                log.warn("⚠️ Producer sin idempotencia (acks={}, max.in.flight={})", acks, maxInFlight);
+            }
+
+            producerFactory.updateConfigs(configs);
+            log.info("⚙️ Producer Kafka con perfil {}: {}", properties.getProfile(), configs);
+        };
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    @ConditionalOnProperty(prefix = "ecommerce.kafka.producer", name = "metrics-enabled", matchIfMissing = true)
+    static class ProducerMetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(ProducerListener.class)
+        public ProducerListener<Object, Object> kafkaProducerListener(ObjectProvider<MeterRegistry> meterRegistry) {
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            return registry != null ? new ProducerMetricsListener<>(registry) : new LoggingProducerListener<>();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.ecommerce.common.kafka;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "ecommerce.kafka.producer")
+public class KafkaProducerProperties {
+
+    private ProducerProfile profile = ProducerProfile.THROUGHPUT;
+
+    // Overrides opcionales sobre el perfil
+    private Integer lingerMs;
+    private Integer batchSize;
+    private String compressionType;
+    private String acks;
+    private Integer maxInFlight;
+
+    // Métricas por topic de latencia de envío y tamaño de registro
+    private boolean metricsEnabled = true;
+
+    public int resolveLingerMs() {
+        return lingerMs != null ? lingerMs : profile.getLingerMs();
+    }
+
+    public int resolveBatchSize() {
+        return batchSize != null ? batchSize : profile.getBatchSize();
+    }
+
+    public String resolveCompressionType() {
+        return compressionType != null ? compressionType : profile.getCompressionType();
+    }
+
+    public String resolveAcks() {
+        return acks != null ? acks : profile.getAcks();
+    }
+
+    public int resolveMaxInFlight() {
+        return maxInFlight != null ? maxInFlight : profile.getMaxInFlight();
+    }
+}
@@ -0,0 +1,55 @@
+package com.ecommerce.common.kafka;
+
+import com.ecommerce.common.serialization.EventSchemas;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+
+/**
+ * Declara los topics de la saga con el mismo número de particiones. Todos los eventos
+ * van con clave = número de orden, así que una orden cae siempre en la misma partición
+ * de cada topic y mantiene su orden aunque los listeners usen varios hilos
+ * (spring.kafka.listener.concurrency). Los DLT son de cada consumer group y los crea la
+ * configuración de reintentos al arrancar los listeners, con las mismas particiones.
+ * product-events es un changelog compactado por SKU: conserva el último precio de cada producto.
+ */
+@Slf4j
+@AutoConfiguration(after = KafkaAutoConfiguration.class)
+@ConditionalOnClass(KafkaAdmin.class)
+@ConditionalOnProperty(prefix = "ecommerce.kafka.topics", name = "create", matchIfMissing = true)
+@EnableConfigurationProperties(KafkaTopicsProperties.class)
+public class KafkaTopicsAutoConfiguration {
+
+    @Bean
+    public KafkaAdmin.NewTopics sagaTopics(KafkaTopicsProperties topics, KafkaProperties kafkaProperties) {
+        Integer concurrency = kafkaProperties.getListener().getConcurrency();
+        if (concurrency != null && concurrency > topics.getPartitions()) {
+            log.warn("⚠️ spring.kafka.listener.concurrency={} supera las {} particiones: {} hilos quedarán ociosos",
+                    concurrency, topics.getPartitions(), concurrency - topics.getPartitions());
+        }
+        return new KafkaAdmin.NewTopics(
+                topic(EventSchemas.OrderCreated.TOPIC, topics),
+                topic(EventSchemas.InventoryUpdated.TOPIC, topics),
+                topic(EventSchemas.PaymentProcessed.TOPIC, topics),
+                TopicBuilder.name(EventSchemas.ProductPriceChanged.TOPIC)
+                        .partitions(topics.getPartitions())
+                        .replicas(topics.getReplicationFactor())
+                        .compact()
+                        .build());
+    }
+
+    private static NewTopic topic(String name, KafkaTopicsProperties topics) {
+        return TopicBuilder.name(name)
+                .partitions(topics.getPartitions())
+                .replicas(topics.getReplicationFactor())
+                .build();
+    }
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.common.kafka;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "ecommerce.kafka.topics")
+public class KafkaTopicsProperties {
+
+    // Crea (o amplía) los topics de la saga al arrancar
+    private boolean create = true;
+
+    // Techo de paralelismo por consumer group: un hilo por partición como máximo
+    private int partitions = 6;
+
+    private short replicationFactor = 1;
+}
@@ -0,0 +1,49 @@
+package com.ecommerce.common.kafka;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.springframework.kafka.support.LoggingProducerListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registra por topic la latencia de envío (desde que el producer sella el registro hasta
+ * el ack del broker) y el tamaño serializado de cada registro. El tamaño medio de lote lo
+ * publica el propio cliente de Kafka como kafka.producer.batch.size.avg.
+ */
+public class ProducerMetricsListener<K, V> extends LoggingProducerListener<K, V> {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> latencyTimers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> sizeSummaries = new ConcurrentHashMap<>();
+
+    public ProducerMetricsListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void onSuccess(ProducerRecord<K, V> record, RecordMetadata metadata) {
+        String topic = metadata.topic();
+        if (metadata.hasTimestamp()) {
+            long latencyMs = Math.max(0, System.currentTimeMillis() - metadata.timestamp());
+            latencyTimers.computeIfAbsent(topic, t -> Timer.builder("ecommerce.kafka.producer.send.latency")
+                            .description("Latencia desde el envío hasta el ack del broker")
+                            .tag("topic", t)
+                            .publishPercentileHistogram()
+                            .register(meterRegistry))
+                    .record(latencyMs, TimeUnit.MILLISECONDS);
+        }
+        int size = Math.max(0, metadata.serializedKeySize()) + Math.max(0, metadata.serializedValueSize());
+        sizeSummaries.computeIfAbsent(topic, t -> DistributionSummary.builder("ecommerce.kafka.producer.record.size")
+                        .description("Tamaño serializado de clave + valor")
+                        .baseUnit("bytes")
+                        .tag("topic", t)
+                        .register(meterRegistry))
+                .record(size);
+    }
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.common.kafka;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Perfiles predefinidos del producer. Cualquier valor se puede sobrescribir
+ * individualmente en ecommerce.kafka.producer.*, o en spring.kafka.producer.*, que prevalece.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ProducerProfile {
+    // Envío inmediato, lotes pequeños
+    LATENCY(0, 16_384, "lz4", "all", 5),
+    // Espera a llenar lotes grandes y comprime con zstd
+    THROUGHPUT(20, 131_072, "zstd", "all", 5);
+
+    private final int lingerMs;
+    private final int batchSize;
+    private final String compressionType;
+    private final String acks;
+    private final int maxInFlight;
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.common.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+/**
+ * Markers que interpreta {@link SamplingTurboFilter} antes de formatear nada.
+ */
+public final class LogMarkers {
+
+    // Logs que se repiten por mensaje o por petición: se muestrean con ecommerce.logging.sample-rate
+    public static final Marker SAMPLED = MarkerFactory.getMarker("SAMPLED");
+
+    // Contenido de los eventos: solo se escribe con ecommerce.logging.payloads=true
+    public static final Marker PAYLOAD = MarkerFactory.getMarker("PAYLOAD");
+
+    private LogMarkers() {
+    }
+}
@@ -0,0 +1,43 @@
+package com.ecommerce.common.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decide por marker antes de crear el evento de log, así que lo descartado no formatea
+ * el mensaje ni reserva memoria: {@link LogMarkers#PAYLOAD} solo pasa con payloads=true y
+ * {@link LogMarkers#SAMPLED} pasa con probabilidad sampleRate. Los ERROR nunca se muestrean.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private double sampleRate = 1.0;
+    private boolean payloads;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (marker == null || !isStarted()) {
+            return FilterReply.NEUTRAL;
+        }
+        if (marker.contains(LogMarkers.PAYLOAD)) {
+            return payloads ? FilterReply.NEUTRAL : FilterReply.DENY;
+        }
+        if (marker.contains(LogMarkers.SAMPLED) && level.levelInt < Level.ERROR_INT && sampleRate < 1.0
+                && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return FilterReply.DENY;
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public void setPayloads(boolean payloads) {
+        this.payloads = payloads;
+    }
+}
@@ -0,0 +1,104 @@
+package com.ecommerce.common.retry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.kafka.config.AbstractKafkaListenerContainerFactory;
+import org.springframework.kafka.config.KafkaListenerContainerFactory;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistrar;
+import org.springframework.kafka.config.MethodKafkaListenerEndpoint;
+import org.springframework.kafka.retrytopic.DestinationTopic;
+import org.springframework.kafka.retrytopic.DestinationTopicProcessor;
+import org.springframework.kafka.retrytopic.EndpointCustomizer;
+import org.springframework.kafka.retrytopic.EndpointCustomizerFactory;
+import org.springframework.kafka.retrytopic.ListenerContainerFactoryConfigurer;
+import org.springframework.kafka.retrytopic.ListenerContainerFactoryResolver;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurer;
+import org.springframework.kafka.retrytopic.RetryTopicNamesProviderFactory;
+import org.springframework.kafka.retrytopic.SuffixingRetryTopicNamesProviderFactory.SuffixingRetryTopicNamesProvider;
+import org.springframework.kafka.support.EndpointHandlerMethod;
+import org.springframework.lang.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Spring Kafka no admite reintentos no bloqueantes en listeners por lotes. Un endpoint de
+ * ecommerce.kafka.retry.topics cuya factory es por lotes se registra como si el topic no
+ * estuviera en la lista: reintentos en el sitio y DLT del error handler común. Así un mismo
+ * servicio puede cambiar de modo (p. ej. inventory.batch.enabled) sin tocar la lista.
+ *
+ * <p>Los topics de la cadena llevan el consumer group del listener ({@link RetryTopics}).
+ */
+@Slf4j
+class BatchAwareRetryTopicConfigurer extends RetryTopicConfigurer {
+
+    private final String defaultGroup;
+    private BeanFactory beanFactory;
+
+    BatchAwareRetryTopicConfigurer(DestinationTopicProcessor destinationTopicProcessor,
+                                   ListenerContainerFactoryResolver containerFactoryResolver,
+                                   ListenerContainerFactoryConfigurer listenerContainerFactoryConfigurer,
+                                   RetryTopicNamesProviderFactory retryTopicNamesProviderFactory,
+                                   String defaultGroup) {
+        super(destinationTopicProcessor, containerFactoryResolver, listenerContainerFactoryConfigurer,
+                retryTopicNamesProviderFactory);
+        this.defaultGroup = defaultGroup;
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        super.setBeanFactory(beanFactory);
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public void processMainAndRetryListeners(EndpointProcessor endpointProcessor,
+                                             MethodKafkaListenerEndpoint<?, ?> mainEndpoint,
+                                             RetryTopicConfiguration configuration,
+                                             KafkaListenerEndpointRegistrar registrar,
+                                             @Nullable KafkaListenerContainerFactory<?> factory,
+                                             String defaultContainerFactoryBeanName) {
+        if (!isBatch(factory != null ? factory : defaultFactory(defaultContainerFactoryBeanName))) {
+            super.processMainAndRetryListeners(endpointProcessor, mainEndpoint, configuration, registrar,
+                    factory, defaultContainerFactoryBeanName);
+            return;
+        }
+        // Lo mismo que hace KafkaListenerAnnotationBeanPostProcessor sin configuración de reintentos
+        endpointProcessor.accept(mainEndpoint);
+        registrar.registerEndpoint(mainEndpoint, factory);
+        log.info("🔁 Listener por lotes {} de {}: sin topics de reintento, reintento en el sitio y DLT",
+                mainEndpoint.getId(), Arrays.toString(mainEndpoint.getTopics().toArray()));
+    }
+
+    // El endpoint ya tiene el groupId de la anotación cuando se le ponen los nombres de topic
+    @Override
+    protected EndpointCustomizer createEndpointCustomizer(EndpointHandlerMethod endpointBeanMethod,
+                                                          DestinationTopic.Properties properties) {
+        return endpoint -> {
+            String group = endpoint.getGroupId() != null ? endpoint.getGroupId() : defaultGroup;
+            return new EndpointCustomizerFactory(properties, endpointBeanMethod, beanFactory, groupNames(group))
+                    .createEndpointCustomizer()
+                    .customizeEndpointAndCollectTopics(endpoint);
+        };
+    }
+
+    private static RetryTopicNamesProviderFactory groupNames(String group) {
+        return properties -> new SuffixingRetryTopicNamesProvider(properties) {
+            @Override
+            public String getTopicName(String topic) {
+                return properties.isMainEndpoint() ? topic : RetryTopics.chainTopic(topic, group, properties.suffix());
+            }
+        };
+    }
+
+    private KafkaListenerContainerFactory<?> defaultFactory(String beanName) {
+        return beanFactory != null && beanFactory.containsBean(beanName)
+                ? beanFactory.getBean(beanName, KafkaListenerContainerFactory.class)
+                : null;
+    }
+
+    private static boolean isBatch(KafkaListenerContainerFactory<?> factory) {
+        return factory instanceof AbstractKafkaListenerContainerFactory<?, ?, ?> containerFactory
+                && Boolean.TRUE.equals(containerFactory.isBatchListener());
+    }
+}
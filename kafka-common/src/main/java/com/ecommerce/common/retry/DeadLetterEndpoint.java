@@ -0,0 +1,35 @@
+package com.ecommerce.common.retry;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+/**
+ * {@code GET /actuator/deadletters/{topic}}: registros pendientes en el DLT del topic.
+ * {@code POST /actuator/deadletters/{topic}} (cuerpo opcional {"limit": n}): los republica
+ * en el primer topic de reintento del mismo consumer group. {@code topic} es el DLT
+ * ({@code <topic>.<group>-dlt}) o, para el grupo por defecto del servicio, el topic principal.
+ */
+@Endpoint(id = "deadletters")
+public class DeadLetterEndpoint {
+
+    private static final int DEFAULT_LIMIT = 1000;
+
+    private final DeadLetterReplayer replayer;
+
+    public DeadLetterEndpoint(DeadLetterReplayer replayer) {
+        this.replayer = replayer;
+    }
+
+    @ReadOperation
+    public DeadLetterReplay pending(@Selector String topic) {
+        return replayer.pending(topic);
+    }
+
+    @WriteOperation
+    public DeadLetterReplay replay(@Selector String topic, @Nullable Integer limit) {
+        return replayer.replay(topic, limit != null ? limit : DEFAULT_LIMIT);
+    }
+}
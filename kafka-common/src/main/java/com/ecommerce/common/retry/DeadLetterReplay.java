@@ -0,0 +1,7 @@
+package com.ecommerce.common.retry;
+
+/**
+ * Resultado de un replay: registros republicados y los que siguen pendientes en el DLT.
+ */
+public record DeadLetterReplay(String deadLetterTopic, String targetTopic, int replayed, long pending) {
+}
@@ -0,0 +1,169 @@
+package com.ecommerce.common.retry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.springframework.kafka.retrytopic.RetryTopicHeaders;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Devuelve los registros del DLT de un consumer group al primer topic de reintento de ese grupo
+ * ({@code <topic>.<group>-retry-0}), tal cual (bytes y cabeceras de evento) y con la misma clave,
+ * así que caen en la misma partición. Solo los vuelve a procesar el grupo que falló. El avance se
+ * guarda como offsets confirmados de un grupo propio: cada replay sigue donde lo dejó el anterior.
+ */
+@Slf4j
+public class DeadLetterReplayer {
+
+    private static final String DLT_HEADER_PREFIX = "kafka_dlt-";
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+    private static final Duration MAX_REPLAY_TIME = Duration.ofMinutes(2);
+
+    private final Map<String, Object> consumerConfigs;
+    private final Map<String, Object> producerConfigs;
+    private final String groupId;
+    private final String defaultGroup;
+
+    /**
+     * @param groupId      grupo con el que se guarda el avance de los replays
+     * @param defaultGroup consumer group de los topics que se piden sin él
+     */
+    public DeadLetterReplayer(Map<String, Object> consumerConfigs, Map<String, Object> producerConfigs,
+                              String groupId, String defaultGroup) {
+        this.consumerConfigs = consumerConfigs;
+        this.producerConfigs = producerConfigs;
+        this.groupId = groupId;
+        this.defaultGroup = defaultGroup;
+    }
+
+    /**
+     * Republica como mucho {@code limit} registros pendientes, sin pasar del final que tenía el
+     * DLT al empezar: lo que vuelva a fallar durante el replay queda para el siguiente.
+     *
+     * @param topic DLT de un grupo, o topic principal para el del grupo por defecto
+     */
+    public synchronized DeadLetterReplay replay(String topic, int limit) {
+        String group = group(topic);
+        String deadLetterTopic = RetryTopics.deadLetterTopic(topic, group);
+        String targetTopic = RetryTopics.retryTopic(topic, group);
+        int replayed = 0;
+        try (KafkaConsumer<byte[], byte[]> consumer = consumer(Math.max(1, Math.min(limit, 500)));
+             KafkaProducer<byte[], byte[]> producer =
+                     new KafkaProducer<>(producerConfigs, new ByteArraySerializer(), new ByteArraySerializer())) {
+            if (consumer.partitionsFor(targetTopic).isEmpty()) {
+                // Sin él los registros quedarían en un topic que no lee nadie
+                throw new IllegalStateException("No existe " + targetTopic + ": ningún listener de " + group
+                        + " recibe replays de " + RetryTopics.mainTopic(topic));
+            }
+            List<TopicPartition> partitions = assign(consumer, deadLetterTopic);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+            long deadline = System.nanoTime() + MAX_REPLAY_TIME.toNanos();
+
+            while (replayed < limit && !reachedEnd(consumer, endOffsets) && System.nanoTime() < deadline) {
+                Map<TopicPartition, OffsetAndMetadata> progress = new HashMap<>();
+                for (ConsumerRecord<byte[], byte[]> record : consumer.poll(POLL_TIMEOUT)) {
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    if (replayed >= limit || record.offset() >= endOffsets.get(partition)) {
+                        continue;
+                    }
+                    producer.send(new ProducerRecord<>(targetTopic, null, record.key(), record.value(),
+                            replayHeaders(record)));
+                    progress.put(partition, new OffsetAndMetadata(record.offset() + 1));
+                    replayed++;
+                }
+                // Se confirma solo lo republicado: lo leído de más se vuelve a leer en el siguiente replay
+                if (!progress.isEmpty()) {
+                    producer.flush();
+                    consumer.commitSync(progress);
+                }
+            }
+            long pending = pending(consumer, partitions, endOffsets);
+            log.info("♻️ Replay de {} a {}: {} registros republicados, {} pendientes",
+                    deadLetterTopic, targetTopic, replayed, pending);
+            return new DeadLetterReplay(deadLetterTopic, targetTopic, replayed, pending);
+        }
+    }
+
+    public DeadLetterReplay pending(String topic) {
+        String group = group(topic);
+        String deadLetterTopic = RetryTopics.deadLetterTopic(topic, group);
+        try (KafkaConsumer<byte[], byte[]> consumer = consumer(1)) {
+            List<TopicPartition> partitions = assign(consumer, deadLetterTopic);
+            long pending = pending(consumer, partitions, consumer.endOffsets(partitions));
+            return new DeadLetterReplay(deadLetterTopic, RetryTopics.retryTopic(topic, group), 0, pending);
+        }
+    }
+
+    private String group(String topic) {
+        return RetryTopics.isChainTopic(topic) ? RetryTopics.group(topic, defaultGroup) : defaultGroup;
+    }
+
+    private KafkaConsumer<byte[], byte[]> consumer(int maxPollRecords) {
+        Map<String, Object> configs = new HashMap<>(consumerConfigs);
+        configs.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        configs.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        configs.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        configs.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        // Preguntar por un DLT o un topic de reintento no debe crearlo
+        configs.put(ConsumerConfig.ALLOW_AUTO_CREATE_TOPICS_CONFIG, false);
+        return new KafkaConsumer<>(configs, new ByteArrayDeserializer(), new ByteArrayDeserializer());
+    }
+
+    // Sin suscripción: el grupo solo guarda offsets, no hay rebalanceos con otros replays
+    private static List<TopicPartition> assign(KafkaConsumer<byte[], byte[]> consumer, String deadLetterTopic) {
+        List<TopicPartition> partitions = consumer.partitionsFor(deadLetterTopic).stream()
+                .map(info -> new TopicPartition(deadLetterTopic, info.partition()))
+                .toList();
+        consumer.assign(partitions);
+        return partitions;
+    }
+
+    private static boolean reachedEnd(KafkaConsumer<byte[], byte[]> consumer, Map<TopicPartition, Long> endOffsets) {
+        return endOffsets.entrySet().stream()
+                .allMatch(end -> consumer.position(end.getKey()) >= end.getValue());
+    }
+
+    private static long pending(KafkaConsumer<byte[], byte[]> consumer, List<TopicPartition> partitions,
+                                Map<TopicPartition, Long> endOffsets) {
+        Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(Set.copyOf(partitions));
+        Map<TopicPartition, Long> beginning = consumer.beginningOffsets(partitions);
+        long pending = 0;
+        for (TopicPartition partition : partitions) {
+            OffsetAndMetadata offset = committed.get(partition);
+            long from = Math.max(offset == null ? 0 : offset.offset(), beginning.get(partition));
+            pending += Math.max(0, endOffsets.get(partition) - from);
+        }
+        return pending;
+    }
+
+    // Se conservan las cabeceras del evento (formato, tipo...); las del fallo y los reintentos no
+    private static RecordHeaders replayHeaders(ConsumerRecord<byte[], byte[]> record) {
+        RecordHeaders headers = new RecordHeaders();
+        for (Header header : record.headers()) {
+            if (!header.key().startsWith(DLT_HEADER_PREFIX) && !isRetryHeader(header.key())) {
+                headers.add(header);
+            }
+        }
+        return headers;
+    }
+
+    private static boolean isRetryHeader(String key) {
+        return key.equals(RetryTopicHeaders.DEFAULT_HEADER_ATTEMPTS)
+                || key.equals(RetryTopicHeaders.DEFAULT_HEADER_BACKOFF_TIMESTAMP)
+                || key.equals(RetryTopicHeaders.DEFAULT_HEADER_ORIGINAL_TIMESTAMP);
+    }
+}
@@ -0,0 +1,100 @@
+package com.ecommerce.common.retry;
+
+import com.ecommerce.common.kafka.KafkaTopicsProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.TopicPartitionOffset;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Crea antes de arrancar los listeners los topics por consumer group que no declara nadie más:
+ * el DLT de cada topic que lee un grupo y los {@code <topic>.<group>-retry-0} a los que se
+ * suscriben los listeners sin cadena de reintentos. Los de las cadenas ya los declara Spring Kafka;
+ * volver a pedirlos no cambia nada.
+ */
+@Slf4j
+public class GroupTopicsCreator implements SmartLifecycle {
+
+    private final KafkaListenerEndpointRegistry registry;
+    private final KafkaAdmin kafkaAdmin;
+    private final KafkaTopicsProperties topics;
+    private volatile boolean running;
+
+    public GroupTopicsCreator(KafkaListenerEndpointRegistry registry,
+                              KafkaAdmin kafkaAdmin,
+                              KafkaTopicsProperties topics) {
+        this.registry = registry;
+        this.kafkaAdmin = kafkaAdmin;
+        this.topics = topics;
+    }
+
+    @Override
+    public void start() {
+        Set<String> names = new TreeSet<>();
+        for (MessageListenerContainer container : registry.getAllListenerContainers()) {
+            String group = container.getGroupId();
+            for (String topic : topicsOf(container.getContainerProperties())) {
+                if (RetryTopics.isDeadLetterTopic(topic)) {
+                    continue;
+                }
+                if (RetryTopics.isChainTopic(topic)) {
+                    names.add(topic);
+                    names.add(RetryTopics.deadLetterTopic(topic, RetryTopics.group(topic, group)));
+                } else if (group != null) {
+                    names.add(RetryTopics.deadLetterTopic(topic, group));
+                }
+            }
+        }
+        if (!names.isEmpty()) {
+            try {
+                kafkaAdmin.createOrModifyTopics(names.stream()
+                        .map(name -> TopicBuilder.name(name)
+                                .partitions(topics.getPartitions())
+                                .replicas(topics.getReplicationFactor())
+                                .build())
+                        .toArray(NewTopic[]::new));
+                log.info("🔁 Topics de reintento y DLT por consumer group: {}", names);
+            } catch (RuntimeException e) {
+                // Como KafkaAdmin con los topics declarados: sin broker al arrancar no se impide el arranque
+                log.warn("⚠️ No se pudieron crear los topics {}: {}", names, e.getMessage());
+            }
+        }
+        running = true;
+    }
+
+    private static List<String> topicsOf(ContainerProperties properties) {
+        if (properties.getTopics() != null) {
+            return Arrays.asList(properties.getTopics());
+        }
+        TopicPartitionOffset[] partitions = properties.getTopicPartitions();
+        return partitions == null ? List.of()
+                : Arrays.stream(partitions).map(TopicPartitionOffset::getTopic).distinct().toList();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Antes que los contenedores: un listener suscrito a un topic que no existe no recibe nada
+    @Override
+    public int getPhase() {
+        return AbstractMessageListenerContainer.DEFAULT_PHASE - 1;
+    }
+}
@@ -0,0 +1,235 @@
+package com.ecommerce.common.retry;
+
+import com.ecommerce.common.idempotency.ClaimInProgressException;
+import com.ecommerce.common.kafka.KafkaTopicsProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.retrytopic.DestinationTopicProcessor;
+import org.springframework.kafka.retrytopic.ListenerContainerFactoryConfigurer;
+import org.springframework.kafka.retrytopic.ListenerContainerFactoryResolver;
+import org.springframework.kafka.retrytopic.RetryTopicComponentFactory;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationBuilder;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationSupport;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurer;
+import org.springframework.kafka.retrytopic.RetryTopicNamesProviderFactory;
+import org.springframework.kafka.retrytopic.RetryTopicSchedulerWrapper;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.util.backoff.ExponentialBackOff;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.util.List;
+
+/**
+ * Ningún registro que falla se pierde ni bloquea su partición indefinidamente:
+ * <ul>
+ *   <li>Listeners por registro de los topics de ecommerce.kafka.retry.topics: reintentos no
+ *   bloqueantes en {@code <topic>.<group>-retry-N} con backoff exponencial y, agotados,
+ *   {@code <topic>.<group>-dlt}.</li>
+ *   <li>Resto (listeners por lotes, ack asíncrono): unos pocos reintentos en el sitio y después
+ *   el DLT del grupo. Un lote que falla entero se reintenta con backoff más largo antes de rendirse.</li>
+ * </ul>
+ * Cada consumer group tiene su cadena ({@link RetryTopics}). Los DLT se revisan y republican en
+ * el primer topic de reintento del grupo con el endpoint {@link DeadLetterEndpoint}.
+ */
+@Slf4j
+@AutoConfiguration(after = KafkaAutoConfiguration.class)
+@ConditionalOnClass({RetryTopicConfiguration.class, MeterRegistry.class})
+@ConditionalOnBean(KafkaTemplate.class)
+@ConditionalOnProperty(prefix = "ecommerce.kafka.retry", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties({KafkaRetryProperties.class, KafkaTopicsProperties.class})
+public class KafkaRetryAutoConfiguration {
+
+    // Grupo de los listeners sin groupId propio
+    private static String defaultGroup(Environment environment) {
+        return environment.getProperty("spring.kafka.consumer.group-id",
+                environment.getProperty("spring.application.name", "ecommerce"));
+    }
+
+    @Bean
+    public RetryMetrics kafkaRetryMetrics(ObjectProvider<MeterRegistry> meterRegistry, Environment environment) {
+        return new RetryMetrics(meterRegistry.getIfAvailable(SimpleMeterRegistry::new), defaultGroup(environment));
+    }
+
+    @Bean
+    public DeadLetterPublishingRecoverer kafkaDeadLetterRecoverer(KafkaTemplate<?, ?> kafkaTemplate,
+                                                                  Environment environment) {
+        String defaultGroup = defaultGroup(environment);
+        // DLT del grupo que falló, misma partición que el original: tiene las mismas particiones que su topic
+        return new DeadLetterPublishingRecoverer(kafkaTemplate, (record, ex) -> new TopicPartition(
+                RetryTopics.deadLetterTopic(record.topic(), RetryTopics.group(record.topic(), defaultGroup)),
+                record.partition()));
+    }
+
+    // Spring Boot lo aplica a todas las factories creadas con el configurer
+    @Bean
+    @ConditionalOnMissingBean(CommonErrorHandler.class)
+    public DefaultErrorHandler kafkaErrorHandler(DeadLetterPublishingRecoverer kafkaDeadLetterRecoverer,
+                                                 KafkaRetryProperties properties,
+                                                 RetryMetrics kafkaRetryMetrics) {
+        ExponentialBackOff batchBackOff = new ExponentialBackOff(1000, 2);
+        batchBackOff.setMaxInterval(30_000);
+        batchBackOff.setMaxElapsedTime(properties.getBatchRetryTimeout().toMillis());
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(kafkaDeadLetterRecoverer, batchBackOff);
+
+        // Registros sueltos (incluido el señalado con BatchListenerFailedException en un lote)
+        long interval = properties.getBlockingInterval().toMillis();
+        FixedBackOff recordBackOff = new FixedBackOff(interval, Math.max(0, properties.getBlockingAttempts() - 1));
+        errorHandler.setBackOffFunction((record, ex) -> {
+            // Evento reclamado por otra entrega: se espera a que lo complete o venza su concesión
+            ClaimInProgressException inProgress = claimInProgress(ex);
+            return inProgress == null ? recordBackOff
+                    : new FixedBackOff(interval, inProgress.getLease().toMillis() / Math.max(1, interval) + 1);
+        });
+        errorHandler.setRetryListeners(kafkaRetryMetrics);
+        return errorHandler;
+    }
+
+    // Llega envuelta en ListenerExecutionFailedException
+    private static ClaimInProgressException claimInProgress(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ClaimInProgressException inProgress) {
+                return inProgress;
+            }
+        }
+        return null;
+    }
+
+    @Bean
+    public DeadLetterReplayer deadLetterReplayer(ConsumerFactory<?, ?> consumerFactory,
+                                                 ProducerFactory<?, ?> producerFactory,
+                                                 Environment environment) {
+        String groupId = environment.getProperty("spring.application.name", "ecommerce") + "-dlt-replay";
+        return new DeadLetterReplayer(consumerFactory.getConfigurationProperties(),
+                producerFactory.getConfigurationProperties(), groupId, defaultGroup(environment));
+    }
+
+    @Bean
+    @ConditionalOnBean(KafkaAdmin.class)
+    @ConditionalOnProperty(prefix = "ecommerce.kafka.topics", name = "create", matchIfMissing = true)
+    public GroupTopicsCreator groupTopicsCreator(KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry,
+                                                 KafkaAdmin kafkaAdmin,
+                                                 KafkaTopicsProperties topics) {
+        return new GroupTopicsCreator(kafkaListenerEndpointRegistry, kafkaAdmin, topics);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(Endpoint.class)
+    static class DeadLetterEndpointConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public DeadLetterEndpoint deadLetterEndpoint(DeadLetterReplayer deadLetterReplayer) {
+            return new DeadLetterEndpoint(deadLetterReplayer);
+        }
+    }
+
+    /**
+     * Sustituye a la RetryTopicConfigurationSupport que Spring Kafka registraría por su cuenta,
+     * para medir los registros que pasan de un topic de reintento al siguiente y dejar fuera
+     * los listeners por lotes ({@link BatchAwareRetryTopicConfigurer}).
+     */
+    @Configuration(proxyBeanMethods = false)
+    @Conditional(OnRetryTopicsCondition.class)
+    static class RetryTopicsConfiguration extends RetryTopicConfigurationSupport {
+
+        private final RetryMetrics retryMetrics;
+        private final String defaultGroup;
+
+        RetryTopicsConfiguration(RetryMetrics retryMetrics, Environment environment) {
+            this.retryMetrics = retryMetrics;
+            this.defaultGroup = defaultGroup(environment);
+        }
+
+        @Override
+        protected RetryTopicComponentFactory createComponentFactory() {
+            return new RetryTopicComponentFactory() {
+                @Override
+                public RetryTopicConfigurer retryTopicConfigurer(DestinationTopicProcessor topicProcessor,
+                                                                 ListenerContainerFactoryConfigurer factoryConfigurer,
+                                                                 ListenerContainerFactoryResolver factoryResolver,
+                                                                 RetryTopicNamesProviderFactory namesProviderFactory) {
+                    return new BatchAwareRetryTopicConfigurer(topicProcessor, factoryResolver,
+                            factoryConfigurer, namesProviderFactory, defaultGroup);
+                }
+            };
+        }
+
+        @Override
+        protected void configureCustomizers(CustomizersConfigurer customizersConfigurer) {
+            customizersConfigurer.customizeErrorHandler(errorHandler ->
+                    errorHandler.setRetryListeners(retryMetrics.forwarding()));
+        }
+
+        // Reanuda las particiones de reintento en espera; propio para no depender de @EnableScheduling
+        @Bean
+        public RetryTopicSchedulerWrapper retryTopicSchedulerWrapper() {
+            ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+            scheduler.setThreadNamePrefix("kafka-retry-");
+            return new RetryTopicSchedulerWrapper(scheduler);
+        }
+
+        @Bean
+        public RetryTopicConfiguration kafkaRetryTopicConfiguration(KafkaTemplate<?, ?> kafkaTemplate,
+                                                                    KafkaRetryProperties retry,
+                                                                    KafkaTopicsProperties topics) {
+            log.info("🔁 Reintentos no bloqueantes para {}: {} intentos, backoff {} x{} hasta {}",
+                    retry.getTopics(), retry.getAttempts(), retry.getInitialDelay(),
+                    retry.getMultiplier(), retry.getMaxDelay());
+            return RetryTopicConfigurationBuilder.newInstance()
+                    .includeTopics(retry.getTopics())
+                    .maxAttempts(retry.getAttempts())
+                    .exponentialBackoff(retry.getInitialDelay().toMillis(), retry.getMultiplier(),
+                            retry.getMaxDelay().toMillis())
+                    .retryTopicSuffix(RetryTopics.RETRY_SUFFIX)
+                    .dltSuffix(RetryTopics.DLT_SUFFIX)
+                    .suffixTopicsWithIndexValues()
+                    // Mismas particiones que el topic principal: el reintento conserva la partición
+                    .autoCreateTopicsWith(topics.getPartitions(), topics.getReplicationFactor())
+                    .dltHandlerMethod("kafkaRetryMetrics", "onDeadLetter")
+                    .create(kafkaTemplate);
+        }
+    }
+
+    static class OnRetryTopicsCondition extends SpringBootCondition {
+
+        @Override
+        public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            List<String> topics = Binder.get(context.getEnvironment())
+                    .bind("ecommerce.kafka.retry.topics", Bindable.listOf(String.class))
+                    .orElse(List.of());
+            return topics.isEmpty()
+                    ? ConditionOutcome.noMatch("ecommerce.kafka.retry.topics vacío")
+                    : ConditionOutcome.match("topics con reintentos " + topics);
+        }
+    }
+}
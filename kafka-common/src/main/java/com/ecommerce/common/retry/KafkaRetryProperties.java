@@ -0,0 +1,34 @@
+package com.ecommerce.common.retry;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "ecommerce.kafka.retry")
+public class KafkaRetryProperties {
+
+    // Topics cuyos listeners por registro reintentan en <topic>.<group>-retry-N sin bloquear la partición.
+    // Los listeners por lotes de estos topics se quedan con los reintentos en el sitio y el DLT
+    private List<String> topics = new ArrayList<>();
+
+    // Intentos totales con el primero incluido: 4 = topic principal + 3 topics de reintento
+    private int attempts = 4;
+
+    private Duration initialDelay = Duration.ofSeconds(1);
+
+    private double multiplier = 10;
+
+    private Duration maxDelay = Duration.ofMinutes(1);
+
+    // Resto de listeners: reintentos en el sitio antes de mandar el registro a <topic>.<group>-dlt
+    private int blockingAttempts = 3;
+
+    private Duration blockingInterval = Duration.ofMillis(500);
+
+    // Un lote que falla entero (p. ej. BD caída) se reintenta con backoff exponencial hasta este límite
+    private Duration batchRetryTimeout = Duration.ofMinutes(5);
+}
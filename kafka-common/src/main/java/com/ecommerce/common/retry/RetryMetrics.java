@@ -0,0 +1,94 @@
+package com.ecommerce.common.retry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.header.Header;
+import org.springframework.kafka.listener.RetryListener;
+import org.springframework.kafka.support.KafkaHeaders;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Contadores de la cadena de reintentos, etiquetados con el topic principal y el consumer group:
+ * kafka.consumer.retries (reintentos en el sitio), kafka.consumer.retry.forwarded (registros
+ * enviados al siguiente topic de reintento) y kafka.consumer.dead.letters (registros en el DLT).
+ */
+@Slf4j
+public class RetryMetrics implements RetryListener {
+
+    private final MeterRegistry registry;
+    private final String defaultGroup;
+
+    public RetryMetrics(MeterRegistry registry, String defaultGroup) {
+        this.registry = registry;
+        this.defaultGroup = defaultGroup;
+    }
+
+    @Override
+    public void failedDelivery(ConsumerRecord<?, ?> record, Exception ex, int deliveryAttempt) {
+        counter("kafka.consumer.retries", record.topic()).increment();
+    }
+
+    // Handler de errores de los listeners sin topics de reintento: recuperar es publicar en el DLT
+    @Override
+    public void recovered(ConsumerRecord<?, ?> record, Exception ex) {
+        deadLettered(record.topic(), record, ex.getMessage());
+    }
+
+    // Lote que falló entero: se reintenta completo y, agotado el backoff, cada registro va al DLT
+    @Override
+    public void failedDelivery(ConsumerRecords<?, ?> records, Exception ex, int deliveryAttempt) {
+        records.forEach(record -> failedDelivery(record, ex, deliveryAttempt));
+    }
+
+    @Override
+    public void recovered(ConsumerRecords<?, ?> records, Exception ex) {
+        records.forEach(record -> recovered(record, ex));
+    }
+
+    /**
+     * Listener para el handler de los topics de reintento: ahí recuperar es pasar al siguiente topic.
+     */
+    public RetryListener forwarding() {
+        return new RetryListener() {
+            @Override
+            public void failedDelivery(ConsumerRecord<?, ?> record, Exception ex, int deliveryAttempt) {
+            }
+
+            @Override
+            public void recovered(ConsumerRecord<?, ?> record, Exception ex) {
+                counter("kafka.consumer.retry.forwarded", record.topic()).increment();
+                log.warn("🔁 Registro {}-{}@{} enviado a reintento: {}",
+                        record.topic(), record.partition(), record.offset(), ex.getMessage());
+            }
+        };
+    }
+
+    /**
+     * Handler de los DLT de la cadena de reintentos (ver {@code dltHandlerMethod}).
+     */
+    public void onDeadLetter(ConsumerRecord<?, ?> record) {
+        deadLettered(record.topic(), record, header(record, KafkaHeaders.DLT_EXCEPTION_MESSAGE));
+    }
+
+    private void deadLettered(String topic, ConsumerRecord<?, ?> record, String error) {
+        counter("kafka.consumer.dead.letters", topic).increment();
+        log.error("☠️ Registro con clave {} de {} enviado a {}: {}", record.key(), RetryTopics.mainTopic(topic),
+                RetryTopics.deadLetterTopic(topic, RetryTopics.group(topic, defaultGroup)), error);
+    }
+
+    private Counter counter(String name, String topic) {
+        return Counter.builder(name)
+                .tag("topic", RetryTopics.mainTopic(topic))
+                .tag("group", RetryTopics.group(topic, defaultGroup))
+                .register(registry);
+    }
+
+    private static String header(ConsumerRecord<?, ?> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+}
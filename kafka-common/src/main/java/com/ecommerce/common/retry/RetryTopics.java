@@ -0,0 +1,68 @@
+package com.ecommerce.common.retry;
+
+import org.springframework.kafka.support.KafkaUtils;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Nombres de la cadena de reintentos de un topic, una por consumer group:
+ * {@code <topic>.<group>-retry-N} y {@code <topic>.<group>-dlt}. Dos grupos que leen el mismo
+ * topic no comparten reintentos ni DLT, y un replay solo vuelve a procesarlo el grupo que falló.
+ *
+ * <p>{@code <topic>.<group>-retry-0} es la entrada de la cadena: ahí republica el replay. Los
+ * listeners sin topics de reintento (por lotes, ack asíncrono) se suscriben a él además de al
+ * topic principal. Los nombres de grupo no llevan puntos.
+ */
+public final class RetryTopics {
+
+    public static final String RETRY_SUFFIX = "-retry";
+    public static final String DLT_SUFFIX = "-dlt";
+
+    private static final Pattern CHAIN_TOPIC = Pattern.compile("^(.+)\\.([^.]+?)(-retry(-\\d+)?|-dlt)$");
+
+    private RetryTopics() {
+    }
+
+    public static String chainTopic(String topic, String group, String suffix) {
+        return mainTopic(topic) + "." + group + suffix;
+    }
+
+    /**
+     * Primer topic de reintento del grupo.
+     */
+    public static String retryTopic(String topic, String group) {
+        return chainTopic(topic, group, RETRY_SUFFIX + "-0");
+    }
+
+    public static String deadLetterTopic(String topic, String group) {
+        return chainTopic(topic, group, DLT_SUFFIX);
+    }
+
+    public static String mainTopic(String topic) {
+        Matcher matcher = CHAIN_TOPIC.matcher(topic);
+        return matcher.matches() ? matcher.group(1) : topic;
+    }
+
+    public static boolean isChainTopic(String topic) {
+        return CHAIN_TOPIC.matcher(topic).matches();
+    }
+
+    public static boolean isDeadLetterTopic(String topic) {
+        return isChainTopic(topic) && topic.endsWith(DLT_SUFFIX);
+    }
+
+    /**
+     * Grupo dueño de un registro de {@code topic}: el del nombre si es de una cadena; si no, el del
+     * consumer que lo está procesando o, fuera de su hilo (p. ej. un callback asíncrono),
+     * {@code defaultGroup}.
+     */
+    public static String group(String topic, String defaultGroup) {
+        Matcher matcher = CHAIN_TOPIC.matcher(topic);
+        if (matcher.matches()) {
+            return matcher.group(2);
+        }
+        String consumerGroup = KafkaUtils.getConsumerGroupId();
+        return consumerGroup != null ? consumerGroup : defaultGroup;
+    }
+}
@@ -0,0 +1,144 @@
+package com.ecommerce.common.serialization;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Lector del formato de {@link BinaryWriter}. Lee directamente sobre el byte[] del
+ * registro; los mensajes anidados son vistas sobre el mismo array, sin copias.
+ */
+public final class BinaryReader {
+
+    private final byte[] buffer;
+    private final int limit;
+    private int position;
+
+    public BinaryReader(byte[] buffer) {
+        this(buffer, 0, buffer.length);
+    }
+
+    public BinaryReader(byte[] buffer, int offset, int limit) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = limit;
+    }
+
+    /**
+     * Devuelve el siguiente tag, o 0 al final del mensaje.
+     */
+    public int readTag() {
+        return position >= limit ? 0 : (int) readVarint();
+    }
+
+    public static int field(int tag) {
+        return tag >>> 3;
+    }
+
+    public String readString() {
+        int length = readLength();
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    public int readInt() {
+        return (int) unZigZag(readVarint());
+    }
+
+    public long readLong() {
+        return unZigZag(readVarint());
+    }
+
+    public boolean readBool() {
+        return readVarint() != 0;
+    }
+
+    public double readDouble() {
+        require(8);
+        long bits = 0;
+        for (int i = 0; i < 8; i++) {
+            bits |= (buffer[position++] & 0xFFL) << (8 * i);
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    public BigDecimal readDecimal() {
+        int length = readLength();
+        int end = position + length;
+        int scale = (int) unZigZag(readVarint());
+        BigInteger unscaled = new BigInteger(Arrays.copyOfRange(buffer, position, end));
+        position = end;
+        return new BigDecimal(unscaled, scale);
+    }
+
+    public LocalDateTime readTimestamp() {
+        long micros = unZigZag(readVarint());
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    public BinaryReader readMessage() {
+        int length = readLength();
+        BinaryReader nested = new BinaryReader(buffer, position, position + length);
+        position += length;
+        return nested;
+    }
+
+    public int readByte() {
+        require(1);
+        return buffer[position++] & 0xFF;
+    }
+
+    // Salta un campo que este lector no conoce (compatibilidad hacia delante)
+    public void skip(int tag) {
+        switch (tag & 0x7) {
+            case BinaryWriter.VARINT -> readVarint();
+            case BinaryWriter.FIXED64 -> {
+                require(8);
+                position += 8;
+            }
+            case BinaryWriter.LEN -> {
+                // readLength avanza position: no vale position += readLength()
+                int length = readLength();
+                position += length;
+            }
+            default -> throw new IllegalArgumentException("Wire type desconocido: " + (tag & 0x7));
+        }
+    }
+
+    public long readVarint() {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            require(1);
+            byte b = buffer[position++];
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("Varint mal formado");
+    }
+
+    private int readLength() {
+        int length = (int) readVarint();
+        if (length < 0) {
+            throw new IllegalArgumentException("Longitud negativa: " + length);
+        }
+        require(length);
+        return length;
+    }
+
+    private void require(int bytes) {
+        if (position + bytes > limit) {
+            throw new IllegalArgumentException("Payload binario truncado");
+        }
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
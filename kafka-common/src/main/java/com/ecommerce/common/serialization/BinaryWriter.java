@@ -0,0 +1,200 @@
+package com.ecommerce.common.serialization;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * Escritor del formato binario de eventos, al estilo de Protobuf: cada campo es
+ * (tag << 3 | wireType) seguido del valor. Los campos null no se escriben.
+ */
+public final class BinaryWriter {
+
+    public static final int VARINT = 0;
+    public static final int FIXED64 = 1;
+    public static final int LEN = 2;
+
+    private byte[] buffer;
+    private int position;
+
+    public BinaryWriter() {
+        this(256);
+    }
+
+    public BinaryWriter(int initialCapacity) {
+        this.buffer = new byte[initialCapacity];
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    public int size() {
+        return position;
+    }
+
+    public void reset() {
+        position = 0;
+    }
+
+    public void writeString(int field, String value) {
+        if (value == null) {
+            return;
+        }
+        writeTag(field, LEN);
+        writeRawString(value);
+    }
+
+    public void writeInt(int field, Integer value) {
+        if (value != null) {
+            writeTag(field, VARINT);
+            writeVarint(zigZag(value));
+        }
+    }
+
+    public void writeLong(int field, Long value) {
+        if (value != null) {
+            writeTag(field, VARINT);
+            writeVarint(zigZag(value));
+        }
+    }
+
+    public void writeBool(int field, Boolean value) {
+        if (value != null) {
+            writeTag(field, VARINT);
+            writeVarint(value ? 1 : 0);
+        }
+    }
+
+    public void writeDouble(int field, Double value) {
+        if (value != null) {
+            writeTag(field, FIXED64);
+            long bits = Double.doubleToRawLongBits(value);
+            ensureCapacity(8);
+            for (int i = 0; i < 8; i++) {
+                buffer[position++] = (byte) (bits >>> (8 * i));
+            }
+        }
+    }
+
+    // Escala (zigzag) + valor sin escalar en complemento a dos
+    public void writeDecimal(int field, BigDecimal value) {
+        if (value == null) {
+            return;
+        }
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        writeTag(field, LEN);
+        long scale = zigZag(value.scale());
+        writeVarint(varintSize(scale) + unscaled.length);
+        writeVarint(scale);
+        writeRawBytes(unscaled, 0, unscaled.length);
+    }
+
+    // Microsegundos desde epoch, interpretando la fecha en UTC
+    public void writeTimestamp(int field, LocalDateTime value) {
+        if (value != null) {
+            writeTag(field, VARINT);
+            writeVarint(zigZag(value.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + value.getNano() / 1_000));
+        }
+    }
+
+    /**
+     * Mensaje anidado con prefijo de longitud. Se reserva un byte para la longitud y,
+     * si no alcanza, se desplaza el contenido: evita codificar dos veces.
+     */
+    public <T> void writeMessage(int field, T value, BiConsumer<T, BinaryWriter> encoder) {
+        if (value == null) {
+            return;
+        }
+        writeTag(field, LEN);
+        ensureCapacity(1);
+        int lengthPosition = position++;
+        int start = position;
+        encoder.accept(value, this);
+        int length = position - start;
+
+        int lengthSize = varintSize(length);
+        if (lengthSize > 1) {
+            ensureCapacity(lengthSize - 1);
+            System.arraycopy(buffer, start, buffer, start + lengthSize - 1, length);
+            position += lengthSize - 1;
+        }
+        int end = position;
+        position = lengthPosition;
+        writeVarint(length);
+        position = end;
+    }
+
+    public void writeTag(int field, int wireType) {
+        writeVarint(((long) field << 3) | wireType);
+    }
+
+    public void writeVarint(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    public void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    private void writeRawString(String value) {
+        int length = value.length();
+        // Camino rápido ASCII: sin byte[] intermedio
+        if (length < 128) {
+            ensureCapacity(1 + length);
+            int lengthPosition = position++;
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (c >= 0x80) {
+                    position = lengthPosition;
+                    writeUtf8(value);
+                    return;
+                }
+                buffer[position++] = (byte) c;
+            }
+            buffer[lengthPosition] = (byte) length;
+            return;
+        }
+        writeUtf8(value);
+    }
+
+    private void writeUtf8(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length);
+        writeRawBytes(bytes, 0, bytes.length);
+    }
+
+    private void writeRawBytes(byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, buffer, position, length);
+        position += length;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (position + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+        }
+    }
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static int varintSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+}
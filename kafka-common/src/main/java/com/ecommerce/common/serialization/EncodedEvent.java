@@ -0,0 +1,10 @@
+package com.ecommerce.common.serialization;
+
+import lombok.Value;
+
+@Value
+public class EncodedEvent {
+    String eventType;
+    PayloadFormat format;
+    byte[] payload;
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.common.serialization;
+
+/**
+ * Codec binario de un tipo de evento. Los campos se escriben con el número de tag
+ * definido en {@link EventSchemas}; al leer, los tags desconocidos se saltan.
+ */
+public interface EventCodec<T> {
+
+    // Tipo lógico de evento (cabecera event-type)
+    String eventType();
+
+    // Topic por defecto, para mensajes antiguos que llegan sin cabeceras
+    String topic();
+
+    Class<T> type();
+
+    void encode(T event, BinaryWriter writer);
+
+    T decode(BinaryReader reader);
+}
@@ -0,0 +1,126 @@
+package com.ecommerce.common.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Codifica y decodifica eventos en el formato configurado. Al leer, el formato lo
+ * decide la cabecera content-type de cada mensaje, así que JSON y binario conviven
+ * durante un despliegue gradual.
+ *
+ * <p>Solo se decodifican los tipos consumidos (todos si no se indica ninguno). El tipo
+ * se resuelve comparando los bytes de la cabecera event-type con una tabla pequeña,
+ * sin crear Strings: un evento que no interesa se descarta sin tocar el payload.
+ */
+public class EventCodecRegistry {
+
+    private static final int BINARY_VERSION = 1;
+
+    private final Map<Class<?>, EventCodec<?>> byType = new HashMap<>();
+    private final Map<String, EventCodec<?>> byEventType = new HashMap<>();
+    private final Map<String, EventCodec<?>> byTopic = new HashMap<>();
+    private final byte[][] consumedTypeKeys;
+    private final EventCodec<?>[] consumedCodecs;
+    private final ObjectMapper objectMapper;
+    private final PayloadFormat format;
+    private final ThreadLocal<BinaryWriter> writers = ThreadLocal.withInitial(BinaryWriter::new);
+
+    public EventCodecRegistry(List<EventCodec<?>> codecs, ObjectMapper objectMapper, PayloadFormat format) {
+        this(codecs, objectMapper, format, List.of());
+    }
+
+    public EventCodecRegistry(List<EventCodec<?>> codecs, ObjectMapper objectMapper, PayloadFormat format,
+                              Collection<String> consumedTypes) {
+        this.objectMapper = objectMapper;
+        this.format = format;
+        for (EventCodec<?> codec : codecs) {
+            byType.put(codec.type(), codec);
+            if (consumedTypes.isEmpty() || consumedTypes.contains(codec.eventType())) {
+                byEventType.put(codec.eventType(), codec);
+                byTopic.putIfAbsent(codec.topic(), codec);
+            }
+        }
+        this.consumedCodecs = byEventType.values().toArray(new EventCodec<?>[0]);
+        this.consumedTypeKeys = new byte[consumedCodecs.length][];
+        for (int i = 0; i < consumedCodecs.length; i++) {
+            consumedTypeKeys[i] = consumedCodecs[i].eventType().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    public PayloadFormat getFormat() {
+        return format;
+    }
+
+    public EncodedEvent encode(Object event) {
+        EventCodec<Object> codec = codecFor(event.getClass());
+        if (format == PayloadFormat.BINARY) {
+            BinaryWriter writer = writers.get();
+            writer.reset();
+            writer.writeByte(BINARY_VERSION);
+            codec.encode(event, writer);
+            return new EncodedEvent(codec.eventType(), PayloadFormat.BINARY, writer.toByteArray());
+        }
+        try {
+            return new EncodedEvent(codec.eventType(), PayloadFormat.JSON, objectMapper.writeValueAsBytes(event));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Error serializando " + codec.eventType() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Decodifica el payload. El tipo sale de la cabecera event-type (bytes crudos) o, si falta, del topic.
+     *
+     * @return el evento, o null si el tipo no es uno de los consumidos
+     */
+    public Object decode(String topic, byte[] eventType, PayloadFormat payloadFormat, byte[] payload) {
+        EventCodec<?> codec = eventType != null ? consumedCodec(eventType) : byTopic.get(topic);
+        return codec == null ? null : decode(codec, payloadFormat, payload);
+    }
+
+    public Object decode(String topic, String eventType, PayloadFormat payloadFormat, byte[] payload) {
+        EventCodec<?> codec = eventType != null ? byEventType.get(eventType) : byTopic.get(topic);
+        return codec == null ? null : decode(codec, payloadFormat, payload);
+    }
+
+    private Object decode(EventCodec<?> codec, PayloadFormat payloadFormat, byte[] payload) {
+        if (payloadFormat == PayloadFormat.BINARY) {
+            BinaryReader reader = new BinaryReader(payload);
+            int version = reader.readByte();
+            if (version != BINARY_VERSION) {
+                throw new IllegalArgumentException("Versión de formato binario no soportada: " + version);
+            }
+            return codec.decode(reader);
+        }
+        try {
+            return objectMapper.readValue(payload, codec.type());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Error deserializando " + codec.eventType() + ": " + e.getMessage(), e);
+        }
+    }
+
+    // Búsqueda lineal: son pocos tipos y Arrays.equals sale al primer byte distinto
+    private EventCodec<?> consumedCodec(byte[] eventType) {
+        for (int i = 0; i < consumedTypeKeys.length; i++) {
+            if (Arrays.equals(consumedTypeKeys[i], eventType)) {
+                return consumedCodecs[i];
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private EventCodec<Object> codecFor(Class<?> type) {
+        EventCodec<?> codec = byType.get(type);
+        if (codec == null) {
+            throw new IllegalArgumentException("No hay codec registrado para " + type.getName());
+        }
+        return (EventCodec<Object>) codec;
+    }
+}
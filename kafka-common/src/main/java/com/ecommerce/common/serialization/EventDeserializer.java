@@ -0,0 +1,39 @@
+package com.ecommerce.common.serialization;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Deserializer de valores: elige JSON o binario según la cabecera content-type y el codec
+ * según event-type. Los tipos que el servicio no consume se devuelven como {@link SkippedEvent}.
+ */
+public class EventDeserializer implements Deserializer<Object> {
+
+    private final EventCodecRegistry registry;
+
+    public EventDeserializer(EventCodecRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        // Las cabeceras se comparan en bytes: un tipo que no se consume no cuesta ni un String
+        PayloadFormat format = PayloadFormat.fromContentType(EventHeaders.lastRawValue(headers, EventHeaders.CONTENT_TYPE));
+        byte[] eventType = EventHeaders.lastRawValue(headers, EventHeaders.EVENT_TYPE);
+        try {
+            Object event = registry.decode(topic, eventType, format, data);
+            return event != null ? event : SkippedEvent.INSTANCE;
+        } catch (RuntimeException e) {
+            throw new SerializationException("Error deserializando evento de " + topic, e);
+        }
+    }
+}
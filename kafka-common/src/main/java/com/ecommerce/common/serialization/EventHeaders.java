@@ -0,0 +1,42 @@
+package com.ecommerce.common.serialization;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Cabeceras Kafka que describen el payload: formato y tipo lógico de evento.
+ */
+public final class EventHeaders {
+
+    public static final String CONTENT_TYPE = "content-type";
+    public static final String EVENT_TYPE = "event-type";
+
+    private EventHeaders() {
+    }
+
+    public static void apply(Headers headers, EncodedEvent event) {
+        headers.remove(CONTENT_TYPE);
+        headers.remove(EVENT_TYPE);
+        headers.add(CONTENT_TYPE, event.getFormat().getContentType().getBytes(StandardCharsets.UTF_8));
+        headers.add(EVENT_TYPE, event.getEventType().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Valor sin copiar ni decodificar, para comparar con bytes conocidos
+    public static byte[] lastRawValue(Headers headers, String name) {
+        if (headers == null) {
+            return null;
+        }
+        Header header = headers.lastHeader(name);
+        return header == null ? null : header.value();
+    }
+
+    public static String lastValue(Headers headers, String name) {
+        if (headers == null) {
+            return null;
+        }
+        Header header = headers.lastHeader(name);
+        return header == null || header.value() == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,88 @@
+package com.ecommerce.common.serialization;
+
+import com.ecommerce.common.event.order.OrderCreatedEvent;
+import com.ecommerce.common.event.payment.PaymentProcessedEvent;
+import com.ecommerce.common.event.product.InventoryUpdatedEvent;
+import com.ecommerce.common.event.product.ProductPriceChangedEvent;
+
+/**
+ * Números de tag del formato binario de cada evento. Un tag nunca se reutiliza:
+ * los campos nuevos toman el siguiente número libre.
+ */
+public final class EventSchemas {
+
+    private EventSchemas() {
+    }
+
+    public static final class OrderCreated {
+        public static final String TYPE = OrderCreatedEvent.TYPE;
+        public static final String TOPIC = "order-events";
+
+        public static final int EVENT_ID = 1;
+        public static final int EVENT_TYPE = 2;
+        public static final int ORDER_ID = 3;
+        public static final int CUSTOMER_ID = 4;
+        public static final int ITEMS = 5;
+        public static final int TOTAL_AMOUNT = 6;
+        public static final int ORDER_DATE = 7;
+        public static final int TIMESTAMP = 8;
+
+        public static final int ITEM_PRODUCT_ID = 1;
+        public static final int ITEM_QUANTITY = 2;
+        public static final int ITEM_PRICE = 3;
+        public static final int ITEM_PRODUCT_NAME = 4;
+
+        private OrderCreated() {
+        }
+    }
+
+    public static final class InventoryUpdated {
+        public static final String TYPE = InventoryUpdatedEvent.TYPE;
+        public static final String TOPIC = "inventory-events";
+
+        public static final int ORDER_ID = 1;
+        public static final int INVENTORY_STATUS = 2;
+        public static final int ALL_PRODUCTS_AVAILABLE = 3;
+        public static final int ERROR_MESSAGE = 4;
+        public static final int TIMESTAMP = 5;
+        public static final int EVENT_ID = 6;
+        public static final int TOTAL_AMOUNT = 7;
+
+        public static final int STATUS_SKU = 1;
+        public static final int STATUS_AVAILABLE = 2;
+
+        private InventoryUpdated() {
+        }
+    }
+
+    public static final class PaymentProcessed {
+        public static final String TYPE = PaymentProcessedEvent.TYPE;
+        public static final String TOPIC = "payment-events";
+
+        public static final int ORDER_ID = 1;
+        public static final int PAYMENT_ID = 2;
+        public static final int PAYMENT_STATUS = 3;
+        public static final int PAYMENT_METHOD = 4;
+        public static final int AMOUNT = 5;
+        public static final int ERROR_MESSAGE = 6;
+        public static final int TIMESTAMP = 7;
+        public static final int EVENT_ID = 8;
+
+        private PaymentProcessed() {
+        }
+    }
+
+    public static final class ProductPriceChanged {
+        public static final String TYPE = ProductPriceChangedEvent.TYPE;
+        public static final String TOPIC = "product-events";
+
+        public static final int SKU = 1;
+        public static final int NAME = 2;
+        public static final int PRICE = 3;
+        public static final int TIMESTAMP = 4;
+        public static final int EVENT_ID = 5;
+
+        private ProductPriceChanged() {
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.common.serialization;
+
+import com.ecommerce.common.serialization.codec.InventoryUpdatedEventCodec;
+import com.ecommerce.common.serialization.codec.OrderCreatedEventCodec;
+import com.ecommerce.common.serialization.codec.PaymentProcessedEventCodec;
+import com.ecommerce.common.serialization.codec.ProductPriceChangedEventCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaConsumerFactoryCustomizer;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.adapter.RecordFilterStrategy;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sustituye los (de)serializadores String de todos los servicios por
+ * {@link EventSerializer} / {@link EventDeserializer} con los codecs de los eventos compartidos,
+ * y descarta antes del listener los registros que el servicio no consume.
+ */
+@AutoConfiguration(after = JacksonAutoConfiguration.class, before = KafkaAutoConfiguration.class)
+@ConditionalOnClass(KafkaTemplate.class)
+@ConditionalOnProperty(prefix = "ecommerce.kafka.serialization", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(EventSerializationProperties.class)
+public class EventSerializationAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public EventCodecRegistry eventCodecRegistry(ObjectProvider<EventCodec<?>> codecs,
+                                                 ObjectProvider<ObjectMapper> objectMapper,
+                                                 EventSerializationProperties properties) {
+        // Los codecs propios de cada servicio se registran después y pueden sustituir a los comunes
+        List<EventCodec<?>> all = new ArrayList<>(List.of(
+                new OrderCreatedEventCodec(), new InventoryUpdatedEventCodec(), new PaymentProcessedEventCodec(),
+                new ProductPriceChangedEventCodec()));
+        codecs.orderedStream().forEach(all::add);
+        return new EventCodecRegistry(all, objectMapper.getIfAvailable(ObjectMapper::new),
+                properties.getFormat(), properties.getConsumedTypes());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(RecordFilterStrategy.class)
+    public SkippedEventFilter skippedEventFilter() {
+        return new SkippedEventFilter();
+    }
+
+    @Bean
+    @SuppressWarnings("unchecked")
+    public DefaultKafkaProducerFactoryCustomizer eventSerializerCustomizer(EventCodecRegistry registry) {
+        return producerFactory -> ((DefaultKafkaProducerFactory<Object, Object>) producerFactory)
+                .setValueSerializer(new EventSerializer(registry));
+    }
+
+    @Bean
+    @SuppressWarnings("unchecked")
+    public DefaultKafkaConsumerFactoryCustomizer eventDeserializerCustomizer(EventCodecRegistry registry) {
+        // Un payload ilegible no se reintenta: el error handler lo manda al DLT con sus bytes originales
+        return consumerFactory -> ((DefaultKafkaConsumerFactory<Object, Object>) consumerFactory)
+                .setValueDeserializer(new ErrorHandlingDeserializer<>(new EventDeserializer(registry)));
+    }
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.common.serialization;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "ecommerce.kafka.serialization")
+public class EventSerializationProperties {
+
+    private boolean enabled = true;
+
+    // Formato de escritura; la lectura acepta siempre ambos
+    private PayloadFormat format = PayloadFormat.JSON;
+
+    // Tipos de evento que decodifica este servicio; el resto se descarta por cabecera. Vacío = todos
+    private List<String> consumedTypes = new ArrayList<>();
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.common.serialization;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serializer de valores: codifica eventos con su codec y marca formato y tipo en cabeceras.
+ * Los byte[] se envían tal cual (ya codificados, p. ej. desde el outbox) y los String como JSON.
+ */
+public class EventSerializer implements Serializer<Object> {
+
+    private final EventCodecRegistry registry;
+
+    public EventSerializer(EventCodecRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return serialize(topic, null, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        if (data == null || data instanceof byte[]) {
+            return (byte[]) data;
+        }
+        if (data instanceof String value) {
+            if (headers != null && headers.lastHeader(EventHeaders.CONTENT_TYPE) == null) {
+                headers.add(EventHeaders.CONTENT_TYPE,
+                        PayloadFormat.JSON.getContentType().getBytes(StandardCharsets.UTF_8));
+            }
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+        try {
+            EncodedEvent encoded = registry.encode(data);
+            if (headers != null) {
+                EventHeaders.apply(headers, encoded);
+            }
+            return encoded.getPayload();
+        } catch (RuntimeException e) {
+            throw new SerializationException("Error serializando evento para " + topic, e);
+        }
+    }
+}
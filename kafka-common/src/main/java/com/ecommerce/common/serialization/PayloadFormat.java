@@ -0,0 +1,28 @@
+package com.ecommerce.common.serialization;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+@Getter
+@RequiredArgsConstructor
+public enum PayloadFormat {
+    JSON("application/json"),
+    BINARY("application/x-ecommerce-binary");
+
+    private static final byte[] BINARY_CONTENT_TYPE = BINARY.contentType.getBytes(StandardCharsets.UTF_8);
+
+    private final String contentType;
+
+    // Mensajes sin cabecera (productores antiguos) se tratan como JSON
+    public static PayloadFormat fromContentType(String contentType) {
+        return BINARY.contentType.equals(contentType) ? BINARY : JSON;
+    }
+
+    // Compara los bytes de la cabecera sin decodificarlos
+    public static PayloadFormat fromContentType(byte[] contentType) {
+        return Arrays.equals(BINARY_CONTENT_TYPE, contentType) ? BINARY : JSON;
+    }
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.common.serialization;
+
+/**
+ * Valor que devuelve {@link EventDeserializer} para registros que este servicio no consume:
+ * tipo de evento desconocido o fuera de ecommerce.kafka.serialization.consumed-types.
+ * El payload no llega a leerse y {@link SkippedEventFilter} descarta el registro antes del listener.
+ */
+public final class SkippedEvent {
+
+    public static final SkippedEvent INSTANCE = new SkippedEvent();
+
+    private SkippedEvent() {
+    }
+
+    @Override
+    public String toString() {
+        return "SkippedEvent";
+    }
+}
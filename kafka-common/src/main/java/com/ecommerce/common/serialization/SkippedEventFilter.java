@@ -0,0 +1,16 @@
+package com.ecommerce.common.serialization;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.adapter.RecordFilterStrategy;
+
+/**
+ * Descarta los registros marcados como {@link SkippedEvent}. Spring Boot lo aplica a
+ * todas las factories creadas con el configurer; con ack manual hay que activar ackDiscarded.
+ */
+public class SkippedEventFilter implements RecordFilterStrategy<Object, Object> {
+
+    @Override
+    public boolean filter(ConsumerRecord<Object, Object> consumerRecord) {
+        return consumerRecord.value() == SkippedEvent.INSTANCE;
+    }
+}
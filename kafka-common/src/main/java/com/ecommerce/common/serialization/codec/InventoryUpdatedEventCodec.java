@@ -0,0 +1,83 @@
+package com.ecommerce.common.serialization.codec;
+
+import com.ecommerce.common.event.product.InventoryUpdatedEvent;
+import com.ecommerce.common.serialization.BinaryReader;
+import com.ecommerce.common.serialization.BinaryWriter;
+import com.ecommerce.common.serialization.EventCodec;
+import com.ecommerce.common.serialization.EventSchemas.InventoryUpdated;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class InventoryUpdatedEventCodec implements EventCodec<InventoryUpdatedEvent> {
+
+    @Override
+    public String eventType() {
+        return InventoryUpdated.TYPE;
+    }
+
+    @Override
+    public String topic() {
+        return InventoryUpdated.TOPIC;
+    }
+
+    @Override
+    public Class<InventoryUpdatedEvent> type() {
+        return InventoryUpdatedEvent.class;
+    }
+
+    @Override
+    public void encode(InventoryUpdatedEvent event, BinaryWriter writer) {
+        writer.writeString(InventoryUpdated.ORDER_ID, event.getOrderId());
+        if (event.getInventoryStatus() != null) {
+            for (Map.Entry<String, Boolean> entry : event.getInventoryStatus().entrySet()) {
+                writer.writeMessage(InventoryUpdated.INVENTORY_STATUS, entry, InventoryUpdatedEventCodec::encodeStatus);
+            }
+        }
+        writer.writeBool(InventoryUpdated.ALL_PRODUCTS_AVAILABLE, event.getAllProductsAvailable());
+        writer.writeString(InventoryUpdated.ERROR_MESSAGE, event.getErrorMessage());
+        writer.writeTimestamp(InventoryUpdated.TIMESTAMP, event.getTimestamp());
+        writer.writeString(InventoryUpdated.EVENT_ID, event.getEventId());
+        writer.writeDecimal(InventoryUpdated.TOTAL_AMOUNT, event.getTotalAmount());
+    }
+
+    @Override
+    public InventoryUpdatedEvent decode(BinaryReader reader) {
+        InventoryUpdatedEvent event = new InventoryUpdatedEvent();
+        Map<String, Boolean> status = new LinkedHashMap<>();
+        int tag;
+        while ((tag = reader.readTag()) != 0) {
+            switch (BinaryReader.field(tag)) {
+                case InventoryUpdated.ORDER_ID -> event.setOrderId(reader.readString());
+                case InventoryUpdated.INVENTORY_STATUS -> decodeStatus(reader.readMessage(), status);
+                case InventoryUpdated.ALL_PRODUCTS_AVAILABLE -> event.setAllProductsAvailable(reader.readBool());
+                case InventoryUpdated.ERROR_MESSAGE -> event.setErrorMessage(reader.readString());
+                case InventoryUpdated.TIMESTAMP -> event.setTimestamp(reader.readTimestamp());
+                case InventoryUpdated.EVENT_ID -> event.setEventId(reader.readString());
+                case InventoryUpdated.TOTAL_AMOUNT -> event.setTotalAmount(reader.readDecimal());
+                default -> reader.skip(tag);
+            }
+        }
+        event.setInventoryStatus(status);
+        return event;
+    }
+
+    private static void encodeStatus(Map.Entry<String, Boolean> entry, BinaryWriter writer) {
+        writer.writeString(InventoryUpdated.STATUS_SKU, entry.getKey());
+        writer.writeBool(InventoryUpdated.STATUS_AVAILABLE, entry.getValue());
+    }
+
+    private static void decodeStatus(BinaryReader reader, Map<String, Boolean> status) {
+        String sku = null;
+        Boolean available = null;
+        int tag;
+        while ((tag = reader.readTag()) != 0) {
+            switch (BinaryReader.field(tag)) {
+                case InventoryUpdated.STATUS_SKU -> sku = reader.readString();
+                case InventoryUpdated.STATUS_AVAILABLE -> available = reader.readBool();
+                default -> reader.skip(tag);
+            }
+        }
+        status.put(sku, available);
+    }
+}
@@ -0,0 +1,88 @@
+package com.ecommerce.common.serialization.codec;
+
+import com.ecommerce.common.event.order.OrderCreatedEvent;
+import com.ecommerce.common.serialization.BinaryReader;
+import com.ecommerce.common.serialization.BinaryWriter;
+import com.ecommerce.common.serialization.EventCodec;
+import com.ecommerce.common.serialization.EventSchemas.OrderCreated;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class OrderCreatedEventCodec implements EventCodec<OrderCreatedEvent> {
+
+    @Override
+    public String eventType() {
+        return OrderCreated.TYPE;
+    }
+
+    @Override
+    public String topic() {
+        return OrderCreated.TOPIC;
+    }
+
+    @Override
+    public Class<OrderCreatedEvent> type() {
+        return OrderCreatedEvent.class;
+    }
+
+    @Override
+    public void encode(OrderCreatedEvent event, BinaryWriter writer) {
+        writer.writeString(OrderCreated.EVENT_ID, event.getEventId());
+        writer.writeString(OrderCreated.EVENT_TYPE, event.getEventType());
+        writer.writeString(OrderCreated.ORDER_ID, event.getOrderId());
+        writer.writeString(OrderCreated.CUSTOMER_ID, event.getCustomerId());
+        if (event.getItems() != null) {
+            for (OrderCreatedEvent.OrderItem item : event.getItems()) {
+                writer.writeMessage(OrderCreated.ITEMS, item, OrderCreatedEventCodec::encodeItem);
+            }
+        }
+        writer.writeDecimal(OrderCreated.TOTAL_AMOUNT, event.getTotalAmount());
+        writer.writeTimestamp(OrderCreated.ORDER_DATE, event.getOrderDate());
+        writer.writeTimestamp(OrderCreated.TIMESTAMP, event.getTimestamp());
+    }
+
+    @Override
+    public OrderCreatedEvent decode(BinaryReader reader) {
+        OrderCreatedEvent event = new OrderCreatedEvent();
+        List<OrderCreatedEvent.OrderItem> items = new ArrayList<>();
+        int tag;
+        while ((tag = reader.readTag()) != 0) {
+            switch (BinaryReader.field(tag)) {
+                case OrderCreated.EVENT_ID -> event.setEventId(reader.readString());
+                case OrderCreated.EVENT_TYPE -> event.setEventType(reader.readString());
+                case OrderCreated.ORDER_ID -> event.setOrderId(reader.readString());
+                case OrderCreated.CUSTOMER_ID -> event.setCustomerId(reader.readString());
+                case OrderCreated.ITEMS -> items.add(decodeItem(reader.readMessage()));
+                case OrderCreated.TOTAL_AMOUNT -> event.setTotalAmount(reader.readDecimal());
+                case OrderCreated.ORDER_DATE -> event.setOrderDate(reader.readTimestamp());
+                case OrderCreated.TIMESTAMP -> event.setTimestamp(reader.readTimestamp());
+                default -> reader.skip(tag);
+            }
+        }
+        event.setItems(items);
+        return event;
+    }
+
+    private static void encodeItem(OrderCreatedEvent.OrderItem item, BinaryWriter writer) {
+        writer.writeString(OrderCreated.ITEM_PRODUCT_ID, item.getProductId());
+        writer.writeInt(OrderCreated.ITEM_QUANTITY, item.getQuantity());
+        writer.writeDecimal(OrderCreated.ITEM_PRICE, item.getPrice());
+        writer.writeString(OrderCreated.ITEM_PRODUCT_NAME, item.getProductName());
+    }
+
+    private static OrderCreatedEvent.OrderItem decodeItem(BinaryReader reader) {
+        OrderCreatedEvent.OrderItem item = new OrderCreatedEvent.OrderItem();
+        int tag;
+        while ((tag = reader.readTag()) != 0) {
+            switch (BinaryReader.field(tag)) {
+                case OrderCreated.ITEM_PRODUCT_ID -> item.setProductId(reader.readString());
+                case OrderCreated.ITEM_QUANTITY -> item.setQuantity(reader.readInt());
+                case OrderCreated.ITEM_PRICE -> item.setPrice(reader.readDecimal());
+                case OrderCreated.ITEM_PRODUCT_NAME -> item.setProductName(reader.readString());
+                default -> reader.skip(tag);
+            }
+        }
+        return item;
+    }
+}
@@ -0,0 +1,57 @@
+package com.ecommerce.common.serialization.codec;
+
+import com.ecommerce.common.event.payment.PaymentProcessedEvent;
+import com.ecommerce.common.serialization.BinaryReader;
+import com.ecommerce.common.serialization.BinaryWriter;
+import com.ecommerce.common.serialization.EventCodec;
+import com.ecommerce.common.serialization.EventSchemas.PaymentProcessed;
+
+public class PaymentProcessedEventCodec implements EventCodec<PaymentProcessedEvent> {
+
+    @Override
+    public String eventType() {
+        return PaymentProcessed.TYPE;
+    }
+
+    @Override
+    public String topic() {
+        return PaymentProcessed.TOPIC;
+    }
+
+    @Override
+    public Class<PaymentProcessedEvent> type() {
+        return PaymentProcessedEvent.class;
+    }
+
+    @Override
+    public void encode(PaymentProcessedEvent event, BinaryWriter writer) {
+        writer.writeString(PaymentProcessed.ORDER_ID, event.getOrderId());
+        writer.writeString(PaymentProcessed.PAYMENT_ID, event.getPaymentId());
+        writer.writeString(PaymentProcessed.PAYMENT_STATUS, event.getPaymentStatus());
+        writer.writeString(PaymentProcessed.PAYMENT_METHOD, event.getPaymentMethod());
+        writer.writeDouble(PaymentProcessed.AMOUNT, event.getAmount());
+        writer.writeString(PaymentProcessed.ERROR_MESSAGE, event.getErrorMessage());
+        writer.writeTimestamp(PaymentProcessed.TIMESTAMP, event.getTimestamp());
+        writer.writeString(PaymentProcessed.EVENT_ID, event.getEventId());
+    }
+
+    @Override
+    public PaymentProcessedEvent decode(BinaryReader reader) {
+        PaymentProcessedEvent event = new PaymentProcessedEvent();
+        int tag;
+        while ((tag = reader.readTag()) != 0) {
+            switch (BinaryReader.field(tag)) {
+                case PaymentProcessed.ORDER_ID -> event.setOrderId(reader.readString());
+                case PaymentProcessed.PAYMENT_ID -> event.setPaymentId(reader.readString());
+                case PaymentProcessed.PAYMENT_STATUS -> event.setPaymentStatus(reader.readString());
+                case PaymentProcessed.PAYMENT_METHOD -> event.setPaymentMethod(reader.readString());
+                case PaymentProcessed.AMOUNT -> event.setAmount(reader.readDouble());
+                case PaymentProcessed.ERROR_MESSAGE -> event.setErrorMessage(reader.readString());
+                case PaymentProcessed.TIMESTAMP -> event.setTimestamp(reader.readTimestamp());
+                case PaymentProcessed.EVENT_ID -> event.setEventId(reader.readString());
+                default -> reader.skip(tag);
+            }
+        }
+        return event;
+    }
+}
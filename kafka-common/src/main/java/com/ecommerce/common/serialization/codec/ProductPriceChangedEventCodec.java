@@ -0,0 +1,51 @@
+package com.ecommerce.common.serialization.codec;
+
+import com.ecommerce.common.event.product.ProductPriceChangedEvent;
+import com.ecommerce.common.serialization.BinaryReader;
+import com.ecommerce.common.serialization.BinaryWriter;
+import com.ecommerce.common.serialization.EventCodec;
+import com.ecommerce.common.serialization.EventSchemas.ProductPriceChanged;
+
+public class ProductPriceChangedEventCodec implements EventCodec<ProductPriceChangedEvent> {
+
+    @Override
+    public String eventType() {
+        return ProductPriceChanged.TYPE;
+    }
+
+    @Override
+    public String topic() {
+        return ProductPriceChanged.TOPIC;
+    }
+
+    @Override
+    public Class<ProductPriceChangedEvent> type() {
+        return ProductPriceChangedEvent.class;
+    }
+
+    @Override
+    public void encode(ProductPriceChangedEvent event, BinaryWriter writer) {
+        writer.writeString(ProductPriceChanged.SKU, event.getSku());
+        writer.writeString(ProductPriceChanged.NAME, event.getName());
+        writer.writeDecimal(ProductPriceChanged.PRICE, event.getPrice());
+        writer.writeTimestamp(ProductPriceChanged.TIMESTAMP, event.getTimestamp());
+        writer.writeString(ProductPriceChanged.EVENT_ID, event.getEventId());
+    }
+
+    @Override
+    public ProductPriceChangedEvent decode(BinaryReader reader) {
+        ProductPriceChangedEvent event = new ProductPriceChangedEvent();
+        int tag;
+        while ((tag = reader.readTag()) != 0) {
+            switch (BinaryReader.field(tag)) {
+                case ProductPriceChanged.SKU -> event.setSku(reader.readString());
+                case ProductPriceChanged.NAME -> event.setName(reader.readString());
+                case ProductPriceChanged.PRICE -> event.setPrice(reader.readDecimal());
+                case ProductPriceChanged.TIMESTAMP -> event.setTimestamp(reader.readTimestamp());
+                case ProductPriceChanged.EVENT_ID -> event.setEventId(reader.readString());
+                default -> reader.skip(tag);
+            }
+        }
+        return event;
+    }
+}
@@ -0,0 +1,85 @@
+package com.ecommerce.common.tracing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Timers de la saga, con histograma y percentiles 50/95/99 visibles en /actuator/metrics:
+ * saga.stage.duration por etapa y topic del salto, y saga.end.to.end (solo en order-service)
+ * desde el alta de la orden hasta su estado final, por estado. La etapa publish es la
+ * métrica ecommerce.kafka.producer.send.latency del producer.
+ */
+public class SagaMetrics {
+
+    public static final String STAGE_TIMER = "saga.stage.duration";
+    public static final String END_TO_END_TIMER = "saga.end.to.end";
+
+    // Desde que el productor selló el registro hasta que llega al listener
+    public static final String LAG = "lag";
+    public static final String DESERIALIZE = "deserialize";
+    // Tiempo del listener con el registro (o el lote)
+    public static final String HANDLE = "handle";
+    public static final String DB = "db";
+    // Espera del evento en el outbox hasta su envío
+    public static final String OUTBOX = "outbox";
+    // Autorización en la pasarela de pagos
+    public static final String GATEWAY = "gateway";
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> stageTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> endToEndTimers = new ConcurrentHashMap<>();
+
+    public SagaMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void recordStage(String stage, String topic, long amount, TimeUnit unit) {
+        stageTimers.computeIfAbsent(stage + '|' + topic, key -> Timer.builder(STAGE_TIMER)
+                        .description("Duración de cada etapa de la saga")
+                        .tag("stage", stage)
+                        .tag("topic", topic)
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .publishPercentileHistogram()
+                        .register(registry))
+                .record(Math.max(0, amount), unit);
+    }
+
+    public <T> T timeStage(String stage, String topic, Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            recordStage(stage, topic, System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void timeStage(String stage, String topic, Runnable action) {
+        timeStage(stage, topic, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Registra la duración total de la saga de la traza; se ignora si no se conoce su inicio.
+     */
+    public void recordEndToEnd(SagaTrace trace, String outcome) {
+        if (trace == null || trace.getStartedAt() <= 0) {
+            return;
+        }
+        endToEndTimers.computeIfAbsent(outcome, key -> Timer.builder(END_TO_END_TIMER)
+                        .description("Desde el alta de la orden hasta su estado final")
+                        .tag("outcome", outcome)
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .publishPercentileHistogram()
+                        .maximumExpectedValue(Duration.ofMinutes(10))
+                        .register(registry))
+                .record(Math.max(0, System.currentTimeMillis() - trace.getStartedAt()), TimeUnit.MILLISECONDS);
+    }
+}
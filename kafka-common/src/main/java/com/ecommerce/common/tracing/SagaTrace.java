@@ -0,0 +1,99 @@
+package com.ecommerce.common.tracing;
+
+import com.ecommerce.common.serialization.EventHeaders;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Contexto de traza de una saga. Viaja en las cabeceras de cada mensaje: traceparent en
+ * formato W3C (el mismo traceId en todos los saltos, un spanId nuevo en cada envío) y
+ * saga-start con el instante, en milisegundos epoch, en que order-service creó la orden.
+ */
+public final class SagaTrace {
+
+    public static final String TRACEPARENT = "traceparent";
+    public static final String SAGA_START = "saga-start";
+
+    private static final String VERSION = "00";
+    private static final String SAMPLED = "01";
+    private static final int TRACEPARENT_LENGTH = 55;
+
+    private final String traceId;
+    private final String spanId;
+    private final long startedAt;
+
+    private SagaTrace(String traceId, String spanId, long startedAt) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.startedAt = startedAt;
+    }
+
+    public static SagaTrace start(long startedAt) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new SagaTrace(hex(random.nextLong()) + hex(random.nextLong()), hex(random.nextLong()), startedAt);
+    }
+
+    /**
+     * @return la traza de las cabeceras, o null si el mensaje no trae un traceparent válido
+     */
+    public static SagaTrace from(Headers headers) {
+        String traceparent = EventHeaders.lastValue(headers, TRACEPARENT);
+        if (traceparent == null || traceparent.length() != TRACEPARENT_LENGTH
+                || traceparent.charAt(2) != '-' || traceparent.charAt(35) != '-' || traceparent.charAt(52) != '-') {
+            return null;
+        }
+        long startedAt = -1;
+        String start = EventHeaders.lastValue(headers, SAGA_START);
+        if (start != null) {
+            try {
+                startedAt = Long.parseLong(start);
+            } catch (NumberFormatException e) {
+                // Sin inicio conocido la traza se propaga igual, solo no cuenta para la latencia total
+            }
+        }
+        return new SagaTrace(traceparent.substring(3, 35), traceparent.substring(36, 52), startedAt);
+    }
+
+    // Siguiente salto de la misma saga
+    public SagaTrace child() {
+        return new SagaTrace(traceId, hex(ThreadLocalRandom.current().nextLong()), startedAt);
+    }
+
+    public void writeTo(Headers headers) {
+        headers.remove(TRACEPARENT);
+        headers.remove(SAGA_START);
+        headers.add(TRACEPARENT, traceparent().getBytes(StandardCharsets.UTF_8));
+        if (startedAt > 0) {
+            headers.add(SAGA_START, Long.toString(startedAt).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    public String traceparent() {
+        return VERSION + '-' + traceId + '-' + spanId + '-' + SAMPLED;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    // Milisegundos epoch del alta de la orden, o -1 si no se conoce
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    private static String hex(long value) {
+        String digits = Long.toHexString(value);
+        return "0".repeat(16 - digits.length()) + digits;
+    }
+
+    @Override
+    public String toString() {
+        return traceparent();
+    }
+}
@@ -0,0 +1,59 @@
+package com.ecommerce.common.tracing;
+
+import org.slf4j.MDC;
+
+import java.util.function.Supplier;
+
+/**
+ * Traza de la saga que está procesando el hilo actual. El interceptor de los listeners la
+ * activa con cada registro y el interceptor del KafkaTemplate la copia en los mensajes que
+ * se envían desde ese hilo. El trabajo que sigue en otro hilo debe capturarla y activarla allí.
+ * El traceId queda también en el MDC de los logs.
+ */
+public final class SagaTraceContext {
+
+    public static final String MDC_KEY = "traceId";
+
+    private static final ThreadLocal<SagaTrace> CURRENT = new ThreadLocal<>();
+
+    private SagaTraceContext() {
+    }
+
+    public static SagaTrace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Activa la traza (o ninguna, con null) hasta cerrar el scope, que restaura la anterior.
+     */
+    public static Scope activate(SagaTrace trace) {
+        SagaTrace previous = CURRENT.get();
+        String previousMdc = MDC.get(MDC_KEY);
+        set(trace, trace == null ? null : trace.getTraceId());
+        return () -> set(previous, previousMdc);
+    }
+
+    public static <T> T callWith(SagaTrace trace, Supplier<T> action) {
+        try (Scope ignored = activate(trace)) {
+            return action.get();
+        }
+    }
+
+    private static void set(SagaTrace trace, String mdcValue) {
+        if (trace == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(trace);
+        }
+        if (mdcValue == null) {
+            MDC.remove(MDC_KEY);
+        } else {
+            MDC.put(MDC_KEY, mdcValue);
+        }
+    }
+
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,66 @@
+package com.ecommerce.common.tracing;
+
+import com.ecommerce.common.serialization.EventSerializationAutoConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaConsumerFactoryCustomizer;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.BatchInterceptor;
+import org.springframework.kafka.listener.RecordInterceptor;
+
+/**
+ * Traza de la saga y latencia por etapa en todos los servicios: el traceparent se propaga
+ * por cabeceras desde el outbox de order-service hasta el último listener, y cada salto
+ * mide su espera en el topic, deserialización y tiempo de listener con {@link SagaMetrics}.
+ */
+@AutoConfiguration(after = EventSerializationAutoConfiguration.class, before = KafkaAutoConfiguration.class)
+@ConditionalOnClass({KafkaTemplate.class, MeterRegistry.class})
+public class SagaTracingAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SagaMetrics sagaMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new SagaMetrics(meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    // Spring Boot lo aplica como RecordInterceptor y BatchInterceptor a las factories creadas con el configurer
+    @Bean
+    @ConditionalOnMissingBean({RecordInterceptor.class, BatchInterceptor.class})
+    public SagaTracingInterceptor sagaTracingInterceptor(SagaMetrics sagaMetrics) {
+        return new SagaTracingInterceptor(sagaMetrics);
+    }
+
+    @Bean
+    @SuppressWarnings("unchecked")
+    public DefaultKafkaConsumerFactoryCustomizer timedDeserializerCustomizer(SagaMetrics sagaMetrics) {
+        // Se aplica después del de EventSerializationAutoConfiguration y envuelve el deserializador que deja
+        return consumerFactory -> {
+            DefaultKafkaConsumerFactory<Object, Object> factory = (DefaultKafkaConsumerFactory<Object, Object>) consumerFactory;
+            if (factory.getValueDeserializer() != null) {
+                factory.setValueDeserializer(new TimedDeserializer<>(factory.getValueDeserializer(), sagaMetrics));
+            }
+        };
+    }
+
+    @Bean
+    public static BeanPostProcessor tracingKafkaTemplatePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof KafkaTemplate<?, ?> template) {
+                    ((KafkaTemplate<Object, Object>) template).setProducerInterceptor(new TracingProducerInterceptor());
+                }
+                return bean;
+            }
+        };
+    }
+}
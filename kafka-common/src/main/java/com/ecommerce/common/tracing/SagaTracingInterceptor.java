@@ -0,0 +1,108 @@
+package com.ecommerce.common.tracing;
+
+import com.ecommerce.common.logging.LogMarkers;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.springframework.kafka.listener.BatchInterceptor;
+import org.springframework.kafka.listener.RecordInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interceptor de todos los listeners. Por registro mide la espera en el topic y activa su
+ * traza mientras el listener lo procesa; en los lotes no hay una traza única y cada listener
+ * la lee de las cabeceras de sus registros. Con ecommerce.logging.payloads=true registra
+ * además el contenido de cada registro recibido.
+ */
+@Slf4j
+public class SagaTracingInterceptor implements RecordInterceptor<Object, Object>, BatchInterceptor<Object, Object> {
+
+    private final SagaMetrics sagaMetrics;
+    private final ThreadLocal<Long> handleStart = new ThreadLocal<>();
+    private final ThreadLocal<SagaTraceContext.Scope> scope = new ThreadLocal<>();
+
+    public SagaTracingInterceptor(SagaMetrics sagaMetrics) {
+        this.sagaMetrics = sagaMetrics;
+    }
+
+    @Override
+    public ConsumerRecord<Object, Object> intercept(ConsumerRecord<Object, Object> record, Consumer<Object, Object> consumer) {
+        recordLag(record);
+        closeScope();
+        scope.set(SagaTraceContext.activate(SagaTrace.from(record.headers())));
+        logPayload(record);
+        handleStart.set(System.nanoTime());
+        return record;
+    }
+
+    @Override
+    public void afterRecord(ConsumerRecord<Object, Object> record, Consumer<Object, Object> consumer) {
+        recordHandle(record.topic());
+        closeScope();
+    }
+
+    @Override
+    public ConsumerRecords<Object, Object> intercept(ConsumerRecords<Object, Object> records, Consumer<Object, Object> consumer) {
+        records.forEach(record -> {
+            recordLag(record);
+            logPayload(record);
+        });
+        handleStart.set(System.nanoTime());
+        return records;
+    }
+
+    @Override
+    public void success(ConsumerRecords<Object, Object> records, Consumer<Object, Object> consumer) {
+        recordBatchHandle(records);
+    }
+
+    @Override
+    public void failure(ConsumerRecords<Object, Object> records, Exception exception, Consumer<Object, Object> consumer) {
+        recordBatchHandle(records);
+    }
+
+    @Override
+    public void clearThreadState(Consumer<?, ?> consumer) {
+        handleStart.remove();
+        closeScope();
+    }
+
+    private void recordLag(ConsumerRecord<Object, Object> record) {
+        if (record.timestamp() > 0) {
+            sagaMetrics.recordStage(SagaMetrics.LAG, record.topic(),
+                    System.currentTimeMillis() - record.timestamp(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static void logPayload(ConsumerRecord<Object, Object> record) {
+        // El filtro descarta el marker antes de crear los argumentos
+        if (log.isInfoEnabled(LogMarkers.PAYLOAD)) {
+            log.info(LogMarkers.PAYLOAD, "📦 {}-{}@{}: {}", record.topic(), record.partition(), record.offset(), record.value());
+        }
+    }
+
+    private void recordBatchHandle(ConsumerRecords<Object, Object> records) {
+        // Cada listener por lotes consume un único topic
+        if (!records.isEmpty()) {
+            recordHandle(records.partitions().iterator().next().topic());
+        }
+    }
+
+    private void recordHandle(String topic) {
+        Long start = handleStart.get();
+        if (start != null) {
+            handleStart.remove();
+            sagaMetrics.recordStage(SagaMetrics.HANDLE, topic, System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void closeScope() {
+        SagaTraceContext.Scope current = scope.get();
+        if (current != null) {
+            scope.remove();
+            current.close();
+        }
+    }
+}
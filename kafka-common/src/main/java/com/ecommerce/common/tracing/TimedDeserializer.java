@@ -0,0 +1,55 @@
+package com.ecommerce.common.tracing;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Envuelve el deserializador de valores para medir la etapa deserialize por topic.
+ */
+public class TimedDeserializer<T> implements Deserializer<T> {
+
+    private final Deserializer<T> delegate;
+    private final SagaMetrics sagaMetrics;
+
+    public TimedDeserializer(Deserializer<T> delegate, SagaMetrics sagaMetrics) {
+        this.delegate = delegate;
+        this.sagaMetrics = sagaMetrics;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        delegate.configure(configs, isKey);
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        long start = System.nanoTime();
+        try {
+            return delegate.deserialize(topic, data);
+        } finally {
+            record(topic, start);
+        }
+    }
+
+    @Override
+    public T deserialize(String topic, Headers headers, byte[] data) {
+        long start = System.nanoTime();
+        try {
+            return delegate.deserialize(topic, headers, data);
+        } finally {
+            record(topic, start);
+        }
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    private void record(String topic, long start) {
+        sagaMetrics.recordStage(SagaMetrics.DESERIALIZE, topic, System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
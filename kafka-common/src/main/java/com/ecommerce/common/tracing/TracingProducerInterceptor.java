@@ -0,0 +1,35 @@
+package com.ecommerce.common.tracing;
+
+import org.apache.kafka.clients.producer.ProducerInterceptor;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+
+import java.util.Map;
+
+/**
+ * Copia la traza activa en el hilo en los mensajes que envía el KafkaTemplate, como un salto
+ * nuevo de la saga. Los mensajes que ya traen traceparent (outbox, reenvíos al DLT) no se tocan.
+ */
+public class TracingProducerInterceptor implements ProducerInterceptor<Object, Object> {
+
+    @Override
+    public ProducerRecord<Object, Object> onSend(ProducerRecord<Object, Object> record) {
+        SagaTrace trace = SagaTraceContext.current();
+        if (trace != null && record.headers().lastHeader(SagaTrace.TRACEPARENT) == null) {
+            trace.child().writeTo(record.headers());
+        }
+        return record;
+    }
+
+    @Override
+    public void onAcknowledgement(RecordMetadata metadata, Exception exception) {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+    }
+}
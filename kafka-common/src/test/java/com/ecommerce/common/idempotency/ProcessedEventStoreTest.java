@@ -0,0 +1,147 @@
+package com.ecommerce.common.idempotency;
+
+import com.ecommerce.common.idempotency.ProcessedEventStore.Claim;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+class ProcessedEventStoreTest {
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbcTemplate;
+
+    private ProcessedEventStore store;
+
+    @BeforeAll
+    static void startPostgres() throws IOException {
+        // initdb se niega a arrancar como root
+        assumeFalse("root".equals(System.getProperty("user.name")), "PostgreSQL embebido no arranca como root");
+        postgres = EmbeddedPostgres.builder().start();
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @BeforeEach
+    void dropTable() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS processed_events");
+    }
+
+    @AfterEach
+    void stopStore() {
+        if (store != null) {
+            store.destroy();
+        }
+    }
+
+    private void start() {
+        store = new ProcessedEventStore(jdbcTemplate, "payment-service", new IdempotencyProperties());
+        store.afterPropertiesSet();
+    }
+
+    // Como si quien reclamó el evento se hubiera caído hace una hora
+    private void expireClaim(String eventId) {
+        jdbcTemplate.update("UPDATE processed_events SET claimed_at = claimed_at - INTERVAL '1 hour' " +
+                "WHERE event_id = ?", eventId);
+    }
+
+    @Test
+    void secondClaimWaitsUntilTheFirstCompletes() {
+        start();
+
+        assertThat(store.tryClaim("E1")).isEqualTo(Claim.CLAIMED);
+        assertThat(store.tryClaim("E1")).isEqualTo(Claim.IN_PROGRESS);
+        assertThat(store.isProcessed("E1")).isFalse();
+
+        store.complete("E1");
+
+        assertThat(store.tryClaim("E1")).isEqualTo(Claim.PROCESSED);
+        assertThat(store.isProcessed("E1")).isTrue();
+    }
+
+    @Test
+    void releasedClaimCanBeClaimedAgain() {
+        start();
+        store.tryClaim("E1");
+
+        store.release("E1");
+
+        assertThat(store.tryClaim("E1")).isEqualTo(Claim.CLAIMED);
+    }
+
+    @Test
+    void expiredClaimIsTakenOver() {
+        start();
+        store.tryClaim("E1");
+
+        expireClaim("E1");
+
+        assertThat(store.tryClaim("E1")).isEqualTo(Claim.CLAIMED);
+        assertThat(store.tryClaim("E1")).isEqualTo(Claim.IN_PROGRESS);
+    }
+
+    @Test
+    void completedEventIsNeitherTakenOverNorReleased() {
+        start();
+        store.tryClaim("E1");
+        store.complete("E1");
+
+        expireClaim("E1");
+        store.release("E1");
+
+        assertThat(store.tryClaim("E1")).isEqualTo(Claim.PROCESSED);
+    }
+
+    @Test
+    void markProcessedCountsAsDone() {
+        start();
+
+        store.markProcessed("E1");
+
+        assertThat(store.tryClaim("E1")).isEqualTo(Claim.PROCESSED);
+    }
+
+    @Test
+    void purgeDropsOnlyEventsOutsideTheRetention() {
+        start();
+        store.markProcessed("OLD");
+        store.markProcessed("NEW");
+        jdbcTemplate.update("UPDATE processed_events SET processed_at = processed_at - INTERVAL '8 days' " +
+                "WHERE event_id = 'OLD'");
+
+        // El hilo de purga también arranca con el store: lo que se comprueba es lo que queda
+        store.purge();
+
+        assertThat(jdbcTemplate.queryForList("SELECT event_id FROM processed_events", String.class))
+                .containsExactly("NEW");
+    }
+
+    @Test
+    void rowsFromTheOldTableAreProcessed() {
+        jdbcTemplate.execute("CREATE TABLE processed_events (" +
+                "consumer VARCHAR(100) NOT NULL, " +
+                "event_id VARCHAR(64) NOT NULL, " +
+                "processed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+                "PRIMARY KEY (consumer, event_id))");
+        jdbcTemplate.update("INSERT INTO processed_events (consumer, event_id) VALUES ('payment-service', 'E1')");
+
+        start();
+
+        assertThat(store.isProcessed("E1")).isTrue();
+        assertThat(store.tryClaim("E1")).isEqualTo(Claim.PROCESSED);
+    }
+}
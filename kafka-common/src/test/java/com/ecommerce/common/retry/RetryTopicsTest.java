@@ -0,0 +1,41 @@
+package com.ecommerce.common.retry;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryTopicsTest {
+
+    @Test
+    void chainTopicsCarryTheGroup() {
+        assertThat(RetryTopics.retryTopic("payment-events", "order-service-group"))
+                .isEqualTo("payment-events.order-service-group-retry-0");
+        assertThat(RetryTopics.deadLetterTopic("payment-events", "product-service-group"))
+                .isEqualTo("payment-events.product-service-group-dlt");
+    }
+
+    @Test
+    void chainTopicsResolveToTheirMainTopicAndGroup() {
+        for (String topic : new String[]{"payment-events.order-service-group-retry-2",
+                "payment-events.order-service-group-retry", "payment-events.order-service-group-dlt"}) {
+            assertThat(RetryTopics.isChainTopic(topic)).isTrue();
+            assertThat(RetryTopics.mainTopic(topic)).isEqualTo("payment-events");
+            assertThat(RetryTopics.group(topic, "otro-grupo")).isEqualTo("order-service-group");
+        }
+    }
+
+    @Test
+    void deadLetterTopicOfAChainTopicStaysInItsGroup() {
+        assertThat(RetryTopics.deadLetterTopic("inventory-events.payment-service-group-retry-0",
+                "payment-service-group")).isEqualTo("inventory-events.payment-service-group-dlt");
+        assertThat(RetryTopics.isDeadLetterTopic("inventory-events.payment-service-group-dlt")).isTrue();
+        assertThat(RetryTopics.isDeadLetterTopic("inventory-events.payment-service-group-retry-0")).isFalse();
+    }
+
+    @Test
+    void mainTopicOutsideTheConsumerThreadUsesTheDefaultGroup() {
+        assertThat(RetryTopics.isChainTopic("inventory-events")).isFalse();
+        assertThat(RetryTopics.mainTopic("inventory-events")).isEqualTo("inventory-events");
+        assertThat(RetryTopics.group("inventory-events", "payment-service-group")).isEqualTo("payment-service-group");
+    }
+}
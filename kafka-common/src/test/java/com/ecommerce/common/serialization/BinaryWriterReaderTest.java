@@ -0,0 +1,187 @@
+package com.ecommerce.common.serialization;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryWriterReaderTest {
+
+    @Test
+    void enterosConSignoEnLosLimitesDelVarint() {
+        long[] values = {0, 1, -1, 63, -64, 64, -65, 8191, 8192, Integer.MAX_VALUE, Integer.MIN_VALUE,
+                Long.MAX_VALUE, Long.MIN_VALUE};
+        BinaryWriter writer = new BinaryWriter(4);
+        for (int i = 0; i < values.length; i++) {
+            writer.writeLong(i + 1, values[i]);
+        }
+        writer.writeInt(100, Integer.MIN_VALUE);
+
+        BinaryReader reader = new BinaryReader(writer.toByteArray());
+        for (int i = 0; i < values.length; i++) {
+            assertThat(BinaryReader.field(reader.readTag())).isEqualTo(i + 1);
+            assertThat(reader.readLong()).isEqualTo(values[i]);
+        }
+        assertThat(BinaryReader.field(reader.readTag())).isEqualTo(100);
+        assertThat(reader.readInt()).isEqualTo(Integer.MIN_VALUE);
+        assertThat(reader.readTag()).isZero();
+    }
+
+    @Test
+    void stringsAsciiUtf8YLargas() {
+        String[] values = {"", "SKU-001", "Cañón ñandú €", "x".repeat(127), "y".repeat(128), "ü".repeat(200)};
+        BinaryWriter writer = new BinaryWriter(8);
+        for (int i = 0; i < values.length; i++) {
+            writer.writeString(i + 1, values[i]);
+        }
+
+        BinaryReader reader = new BinaryReader(writer.toByteArray());
+        for (String value : values) {
+            reader.readTag();
+            assertThat(reader.readString()).isEqualTo(value);
+        }
+        assertThat(reader.readTag()).isZero();
+    }
+
+    @Test
+    void decimalesConservanEscalaYSigno() {
+        BigDecimal[] values = {new BigDecimal("0"), new BigDecimal("19.99"), new BigDecimal("-0.001"),
+                new BigDecimal("12345678901234567890.123456789"), new BigDecimal("1E+5")};
+        BinaryWriter writer = new BinaryWriter();
+        for (int i = 0; i < values.length; i++) {
+            writer.writeDecimal(i + 1, values[i]);
+        }
+
+        BinaryReader reader = new BinaryReader(writer.toByteArray());
+        for (BigDecimal value : values) {
+            reader.readTag();
+            BigDecimal read = reader.readDecimal();
+            assertThat(read).isEqualTo(value);
+            assertThat(read.scale()).isEqualTo(value.scale());
+        }
+    }
+
+    @Test
+    void timestampsConPrecisionDeMicrosegundos() {
+        LocalDateTime now = LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123_456_789);
+        LocalDateTime beforeEpoch = LocalDateTime.of(1969, 12, 31, 23, 59, 59, 500_000_000);
+        BinaryWriter writer = new BinaryWriter();
+        writer.writeTimestamp(1, now);
+        writer.writeTimestamp(2, beforeEpoch);
+
+        BinaryReader reader = new BinaryReader(writer.toByteArray());
+        reader.readTag();
+        assertThat(reader.readTimestamp()).isEqualTo(now.withNano(123_456_000));
+        reader.readTag();
+        assertThat(reader.readTimestamp()).isEqualTo(beforeEpoch);
+    }
+
+    @Test
+    void doublesYBooleanos() {
+        BinaryWriter writer = new BinaryWriter();
+        writer.writeDouble(1, -1234.5678);
+        writer.writeDouble(2, Double.NaN);
+        writer.writeBool(3, true);
+        writer.writeBool(4, false);
+
+        BinaryReader reader = new BinaryReader(writer.toByteArray());
+        reader.readTag();
+        assertThat(reader.readDouble()).isEqualTo(-1234.5678);
+        reader.readTag();
+        assertThat(reader.readDouble()).isNaN();
+        reader.readTag();
+        assertThat(reader.readBool()).isTrue();
+        reader.readTag();
+        assertThat(reader.readBool()).isFalse();
+    }
+
+    @Test
+    void camposNullNoSeEscriben() {
+        BinaryWriter writer = new BinaryWriter();
+        writer.writeString(1, null);
+        writer.writeInt(2, null);
+        writer.writeLong(3, null);
+        writer.writeBool(4, null);
+        writer.writeDouble(5, null);
+        writer.writeDecimal(6, null);
+        writer.writeTimestamp(7, null);
+        writer.writeMessage(8, null, (value, w) -> w.writeString(1, "x"));
+
+        assertThat(writer.size()).isZero();
+    }
+
+    @Test
+    void mensajeAnidadoQueNoCabeEnUnByteDeLongitud() {
+        // 300 bytes de contenido: la longitud ocupa dos bytes y el contenido se desplaza
+        String payload = "z".repeat(300);
+        BinaryWriter writer = new BinaryWriter(16);
+        writer.writeMessage(1, payload, (value, w) -> {
+            w.writeString(1, value);
+            w.writeInt(2, -7);
+        });
+        writer.writeInt(2, 42);
+
+        BinaryReader reader = new BinaryReader(writer.toByteArray());
+        assertThat(BinaryReader.field(reader.readTag())).isEqualTo(1);
+        BinaryReader nested = reader.readMessage();
+        nested.readTag();
+        assertThat(nested.readString()).isEqualTo(payload);
+        nested.readTag();
+        assertThat(nested.readInt()).isEqualTo(-7);
+        assertThat(nested.readTag()).isZero();
+
+        assertThat(BinaryReader.field(reader.readTag())).isEqualTo(2);
+        assertThat(reader.readInt()).isEqualTo(42);
+    }
+
+    @Test
+    void saltaCamposDesconocidosDeCadaWireType() {
+        BinaryWriter writer = new BinaryWriter();
+        writer.writeLong(10, 99L);
+        writer.writeDouble(11, 1.5);
+        writer.writeString(12, "ignorado");
+        writer.writeMessage(13, "x", (value, w) -> w.writeString(1, value));
+        writer.writeString(1, "conocido");
+
+        BinaryReader reader = new BinaryReader(writer.toByteArray());
+        String known = null;
+        int tag;
+        while ((tag = reader.readTag()) != 0) {
+            if (BinaryReader.field(tag) == 1) {
+                known = reader.readString();
+            } else {
+                reader.skip(tag);
+            }
+        }
+        assertThat(known).isEqualTo("conocido");
+    }
+
+    @Test
+    void payloadTruncadoFalla() {
+        BinaryWriter writer = new BinaryWriter();
+        writer.writeString(1, "abcdef");
+        byte[] bytes = writer.toByteArray();
+
+        BinaryReader reader = new BinaryReader(bytes, 0, bytes.length - 2);
+        reader.readTag();
+        assertThatThrownBy(reader::readString)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("truncado");
+    }
+
+    @Test
+    void resetReutilizaElBuffer() {
+        BinaryWriter writer = new BinaryWriter();
+        writer.writeString(1, "primero");
+        writer.reset();
+        writer.writeString(1, "b");
+
+        BinaryReader reader = new BinaryReader(writer.toByteArray());
+        reader.readTag();
+        assertThat(reader.readString()).isEqualTo("b");
+        assertThat(reader.readTag()).isZero();
+    }
+}
@@ -0,0 +1,198 @@
+package com.ecommerce.common.serialization;
+
+import com.ecommerce.common.event.order.OrderCreatedEvent;
+import com.ecommerce.common.event.payment.PaymentProcessedEvent;
+import com.ecommerce.common.event.product.InventoryUpdatedEvent;
+import com.ecommerce.common.event.product.ProductPriceChangedEvent;
+import com.ecommerce.common.serialization.codec.InventoryUpdatedEventCodec;
+import com.ecommerce.common.serialization.codec.OrderCreatedEventCodec;
+import com.ecommerce.common.serialization.codec.PaymentProcessedEventCodec;
+import com.ecommerce.common.serialization.codec.ProductPriceChangedEventCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventCodecRegistryTest {
+
+    // Microsegundos exactos: es la precisión del formato binario
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123_456_000);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().findAndRegisterModules();
+
+    private static List<EventCodec<?>> codecs() {
+        return List.of(new OrderCreatedEventCodec(), new InventoryUpdatedEventCodec(),
+                new PaymentProcessedEventCodec(), new ProductPriceChangedEventCodec());
+    }
+
+    private static EventCodecRegistry registry(PayloadFormat format) {
+        return new EventCodecRegistry(codecs(), MAPPER, format);
+    }
+
+    private static Object roundTrip(PayloadFormat format, Object event) {
+        EventCodecRegistry registry = registry(format);
+        EncodedEvent encoded = registry.encode(event);
+        assertThat(encoded.getFormat()).isEqualTo(format);
+        return registry.decode(null, encoded.getEventType(), encoded.getFormat(), encoded.getPayload());
+    }
+
+    @ParameterizedTest
+    @EnumSource(PayloadFormat.class)
+    void orderCreated(PayloadFormat format) {
+        OrderCreatedEvent event = OrderCreatedEvent.builder()
+                .eventType(OrderCreatedEvent.TYPE)
+                .timestamp(NOW)
+                .orderId("ORD-1")
+                .customerId("cliente-ñ")
+                .items(List.of(
+                        new OrderCreatedEvent.OrderItem("SKU-1", "Teclado", 2, new BigDecimal("49.90")),
+                        new OrderCreatedEvent.OrderItem("SKU-2", null, 1, new BigDecimal("-0.50"))))
+                .totalAmount(new BigDecimal("99.30"))
+                .orderDate(NOW.minusDays(1))
+                .build();
+
+        assertThat(roundTrip(format, event)).isEqualTo(event);
+    }
+
+    @ParameterizedTest
+    @EnumSource(PayloadFormat.class)
+    void inventoryUpdatedConservaElOrdenDeLosSkus(PayloadFormat format) {
+        Map<String, Boolean> status = new LinkedHashMap<>();
+        status.put("SKU-9", true);
+        status.put("SKU-1", false);
+        InventoryUpdatedEvent event = InventoryUpdatedEvent.builder()
+                .eventType(InventoryUpdatedEvent.TYPE)
+                .timestamp(NOW)
+                .orderId("ORD-2")
+                .inventoryStatus(status)
+                .allProductsAvailable(false)
+                .errorMessage("Stock insuficiente")
+                .totalAmount(new BigDecimal("10.00"))
+                .build();
+
+        InventoryUpdatedEvent decoded = (InventoryUpdatedEvent) roundTrip(format, event);
+        assertThat(decoded).isEqualTo(event);
+        assertThat(decoded.getInventoryStatus()).containsExactly(Map.entry("SKU-9", true), Map.entry("SKU-1", false));
+    }
+
+    @ParameterizedTest
+    @EnumSource(PayloadFormat.class)
+    void paymentProcessed(PayloadFormat format) {
+        PaymentProcessedEvent event = PaymentProcessedEvent.builder()
+                .eventType(PaymentProcessedEvent.TYPE)
+                .timestamp(NOW)
+                .orderId("ORD-3")
+                .paymentId("PAY-3")
+                .paymentStatus("APPROVED")
+                .paymentMethod("CARD")
+                .amount(123.45)
+                .build();
+
+        assertThat(roundTrip(format, event)).isEqualTo(event);
+    }
+
+    @ParameterizedTest
+    @EnumSource(PayloadFormat.class)
+    void productPriceChanged(PayloadFormat format) {
+        ProductPriceChangedEvent event = ProductPriceChangedEvent.builder()
+                .eventType(ProductPriceChangedEvent.TYPE)
+                .timestamp(NOW)
+                .sku("SKU-4")
+                .name("Ratón")
+                .price(new BigDecimal("15.0000"))
+                .build();
+
+        assertThat(roundTrip(format, event)).isEqualTo(event);
+    }
+
+    @Test
+    void sinCabeceraElTipoSaleDelTopic() {
+        EventCodecRegistry registry = registry(PayloadFormat.JSON);
+        PaymentProcessedEvent event = PaymentProcessedEvent.builder()
+                .eventType(PaymentProcessedEvent.TYPE).timestamp(NOW).orderId("ORD-5").build();
+        EncodedEvent encoded = registry.encode(event);
+
+        assertThat(registry.decode("payment-events", (byte[]) null, PayloadFormat.JSON, encoded.getPayload()))
+                .isEqualTo(event);
+    }
+
+    @Test
+    void tiposNoConsumidosNoSeDecodifican() {
+        EventCodecRegistry consumer = new EventCodecRegistry(codecs(), MAPPER, PayloadFormat.BINARY,
+                List.of(OrderCreatedEvent.TYPE));
+        EncodedEvent encoded = registry(PayloadFormat.BINARY).encode(
+                PaymentProcessedEvent.builder().timestamp(NOW).orderId("ORD-6").build());
+
+        byte[] eventType = encoded.getEventType().getBytes(StandardCharsets.UTF_8);
+        assertThat(consumer.decode("payment-events", eventType, PayloadFormat.BINARY, encoded.getPayload())).isNull();
+        assertThat(consumer.decode("payment-events", (byte[]) null, PayloadFormat.BINARY, encoded.getPayload())).isNull();
+    }
+
+    @Test
+    void versionBinariaDesconocidaFalla() {
+        EncodedEvent encoded = registry(PayloadFormat.BINARY).encode(
+                ProductPriceChangedEvent.builder().timestamp(NOW).sku("SKU-7").build());
+        byte[] payload = encoded.getPayload().clone();
+        payload[0] = 2;
+
+        assertThatThrownBy(() -> registry(PayloadFormat.BINARY)
+                .decode(null, encoded.getEventType(), PayloadFormat.BINARY, payload))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Versión");
+    }
+
+    @ParameterizedTest
+    @EnumSource(PayloadFormat.class)
+    void serializerYDeserializerPorCabeceras(PayloadFormat format) {
+        InventoryUpdatedEvent event = InventoryUpdatedEvent.builder()
+                .eventType(InventoryUpdatedEvent.TYPE)
+                .timestamp(NOW)
+                .orderId("ORD-8")
+                .inventoryStatus(Map.of("SKU-1", true))
+                .allProductsAvailable(true)
+                .build();
+        RecordHeaders headers = new RecordHeaders();
+
+        byte[] payload = new EventSerializer(registry(format)).serialize("inventory-events", headers, event);
+
+        assertThat(EventHeaders.lastValue(headers, EventHeaders.CONTENT_TYPE)).isEqualTo(format.getContentType());
+        assertThat(EventHeaders.lastValue(headers, EventHeaders.EVENT_TYPE)).isEqualTo(InventoryUpdatedEvent.TYPE);
+        // El consumidor lee cualquier formato, sea cual sea el que él produce
+        EventDeserializer deserializer = new EventDeserializer(registry(PayloadFormat.JSON));
+        assertThat(deserializer.deserialize("inventory-events", headers, payload)).isEqualTo(event);
+    }
+
+    @Test
+    void deserializerDevuelveSkippedEventParaTiposNoConsumidos() {
+        RecordHeaders headers = new RecordHeaders();
+        byte[] payload = new EventSerializer(registry(PayloadFormat.BINARY)).serialize("payment-events", headers,
+                PaymentProcessedEvent.builder().timestamp(NOW).orderId("ORD-9").build());
+        EventDeserializer deserializer = new EventDeserializer(new EventCodecRegistry(codecs(), MAPPER,
+                PayloadFormat.BINARY, List.of(OrderCreatedEvent.TYPE)));
+
+        assertThat(deserializer.deserialize("payment-events", headers, payload)).isSameAs(SkippedEvent.INSTANCE);
+    }
+
+    @Test
+    void deserializerEnvuelvePayloadsIlegibles() {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(EventHeaders.CONTENT_TYPE, PayloadFormat.BINARY.getContentType().getBytes(StandardCharsets.UTF_8));
+        headers.add(EventHeaders.EVENT_TYPE, OrderCreatedEvent.TYPE.getBytes(StandardCharsets.UTF_8));
+        EventDeserializer deserializer = new EventDeserializer(registry(PayloadFormat.BINARY));
+
+        assertThatThrownBy(() -> deserializer.deserialize("order-events", headers, new byte[]{1, 0x1A, 0x7F}))
+                .isInstanceOf(SerializationException.class);
+    }
+}
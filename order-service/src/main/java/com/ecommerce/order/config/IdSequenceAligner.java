@@ -0,0 +1,48 @@
+package com.ecommerce.order.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Los ids pasaron de IDENTITY a secuencias con asignación por bloques. En bases de datos
+ * que ya tenían órdenes, las secuencias recién creadas por Hibernate empiezan en 1: antes
+ * de aceptar tráfico se adelantan por encima del id máximo de su tabla.
+ */
+@Slf4j
+@Component
+public class IdSequenceAligner implements InitializingBean {
+
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "orders_seq", "orders",
+            "order_items_seq", "order_items",
+            "outbox_messages_seq", "outbox_messages");
+
+    // Igual que el allocationSize de las entidades
+    private static final int ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Depende del EntityManagerFactory para ejecutarse después de que Hibernate cree las secuencias
+    public IdSequenceAligner(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        SEQUENCES.forEach((sequence, table) -> {
+            // Solo se toca la secuencia si va por detrás: nunca retrocede con otra instancia ya en marcha
+            Long value = jdbcTemplate.queryForObject(
+                    "SELECT CASE WHEN t.max_id + " + ALLOCATION_SIZE + " > s.last_value " +
+                            "THEN setval('" + sequence + "', t.max_id + " + ALLOCATION_SIZE + ") " +
+                            "ELSE s.last_value END " +
+                            "FROM (SELECT COALESCE(MAX(id), 0) AS max_id FROM " + table + ") t, " + sequence + " s",
+                    Long.class);
+            log.debug("🔢 Secuencia {} en {}", sequence, value);
+        });
+    }
+}
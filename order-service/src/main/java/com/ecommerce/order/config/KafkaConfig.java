@@ -1,34 +1,57 @@
 package com.ecommerce.order.config;
 
-import org.apache.kafka.clients.producer.ProducerConfig;
-import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.kafka.core.DefaultKafkaProducerFactory;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.ContainerPostProcessor;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Properties;
 
 @Configuration
 public class KafkaConfig {
 
-    @Value("${spring.kafka.bootstrap-servers}")
-    private String bootstrapServers;
+    // Tamaño máximo del lote (max.poll.records)
+    @Value("${order.payment-batch.max-size:500}")
+    private int maxBatchSize;
+
+    // Espera máxima del broker para completar un fetch (fetch.max.wait.ms)
+    @Value("${order.payment-batch.max-wait-ms:100}")
+    private int maxWaitMs;
+
+    // Bytes mínimos que el broker acumula antes de responder (fetch.min.bytes). Con 1 responde
+    // en cuanto hay un mensaje y max-wait-ms no llega a esperar: el lote sería lo que haya en ese momento
+    @Value("${order.payment-batch.min-bytes:65536}")
+    private int minBytes;
+
+    // Sin mensajes durante este tiempo, el listener del catálogo de precios comprueba si ya llegó al final
+    @Value("${order.price-catalog.idle-interval-ms:2000}")
+    private long catalogIdleIntervalMs;
 
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
-        Map<String, Object> configProps = new HashMap<>();
-        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        return new DefaultKafkaProducerFactory<>(configProps);
+    public ContainerPostProcessor<Object, Object, AbstractMessageListenerContainer<Object, Object>>
+            priceCatalogContainerPostProcessor() {
+        return container -> container.getContainerProperties().setIdleEventInterval(catalogIdleIntervalMs);
     }
 
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> batchKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+
+        // Los overrides deben ser String para que DefaultKafkaConsumerFactory los aplique
+        Properties overrides = new Properties();
+        overrides.setProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(maxBatchSize));
+        overrides.setProperty(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, String.valueOf(maxWaitMs));
+        overrides.setProperty(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, String.valueOf(minBytes));
+        factory.getContainerProperties().setKafkaConsumerProperties(overrides);
+        return factory;
     }
 }
@@ -0,0 +1,46 @@
+package com.ecommerce.order.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Hilos que escriben en los streams SSE y completan los long-poll, fuera de los listeners
+ * de Kafka: un cliente lento bloquea su escritura, no el consumo de la partición.
+ */
+@Configuration
+public class OrderEventsConfig {
+
+    @Value("${order.events.notify-threads:4}")
+    private int notifyThreads;
+
+    @Value("${order.events.notify-queue-capacity:10000}")
+    private int queueCapacity;
+
+    // Con la cola llena notifica el propio hilo que publica: se frena el consumo en vez de perder el aviso
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor notificationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(notifyThreads);
+        executor.setMaxPoolSize(notifyThreads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("order-notify-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    @Bean(name = "notificationExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualNotificationExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("order-notify-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+}
@@ -0,0 +1,84 @@
+package com.ecommerce.order.config;
+
+import com.ecommerce.order.model.CodedEnum;
+import com.ecommerce.order.model.InventoryStatus;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.model.PaymentStatus;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * status, inventory_status y payment_status pasaron de varchar con el nombre del enum a
+ * smallint con su código, y ddl-auto=update no cambia tipos de columna. En bases de datos
+ * anteriores se convierten al arrancar, antes de aceptar tráfico.
+ *
+ * <p>Las instancias con la versión anterior escriben nombres: no pueden convivir con esta.
+ */
+@Slf4j
+@Component
+public class StatusColumnMigrator implements InitializingBean {
+
+    private static final Map<String, Class<? extends CodedEnum>> COLUMNS = Map.of(
+            "status", OrderStatus.class,
+            "inventory_status", InventoryStatus.class,
+            "payment_status", PaymentStatus.class);
+
+    private static final String PENDING_COLUMNS_SQL =
+            "SELECT column_name FROM information_schema.columns " +
+            "WHERE table_schema = current_schema() AND table_name = 'orders' " +
+            "AND column_name IN ('status', 'inventory_status', 'payment_status') AND data_type <> 'smallint'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Depende del EntityManagerFactory para ejecutarse después de que Hibernate cree la tabla
+    public StatusColumnMigrator(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (jdbcTemplate.queryForList(PENDING_COLUMNS_SQL, String.class).isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(tx -> {
+            // Con varias instancias arrancando a la vez solo una convierte: el resto ve smallint al volver a mirar
+            jdbcTemplate.execute("LOCK TABLE orders IN ACCESS EXCLUSIVE MODE");
+            for (String column : jdbcTemplate.queryForList(PENDING_COLUMNS_SQL, String.class)) {
+                migrate(column, COLUMNS.get(column).getEnumConstants());
+            }
+        });
+    }
+
+    private void migrate(String column, CodedEnum[] values) {
+        String names = Stream.of(values)
+                .map(value -> "'" + ((Enum<?>) value).name() + "'")
+                .collect(Collectors.joining(", "));
+        // Un valor fuera del enum se quedaría en NULL: mejor no arrancar que perder el estado
+        List<String> unknown = jdbcTemplate.queryForList(
+                "SELECT DISTINCT " + column + " FROM orders WHERE " + column + " NOT IN (" + names + ")",
+                String.class);
+        if (!unknown.isEmpty()) {
+            throw new IllegalStateException("Valores de orders." + column + " sin código: " + unknown);
+        }
+
+        StringBuilder cases = new StringBuilder("(CASE " + column);
+        for (CodedEnum value : values) {
+            cases.append(" WHEN '").append(((Enum<?>) value).name()).append("' THEN ").append(value.getCode());
+        }
+        cases.append(" END)::smallint");
+        jdbcTemplate.execute("ALTER TABLE orders ALTER COLUMN " + column + " TYPE smallint USING " + cases);
+        log.info("🔄 Columna orders.{} convertida a smallint", column);
+    }
+}
@@ -1,14 +1,32 @@
 package com.ecommerce.order.controller;
 
+import com.ecommerce.common.logging.LogMarkers;
 import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.repository.OrderFilter;
+import com.ecommerce.order.service.BatchOrderResponse;
+import com.ecommerce.order.service.BulkOrderService;
+import com.ecommerce.order.service.InvalidOrderException;
+import com.ecommerce.order.service.OrderAdmissionControl;
+import com.ecommerce.order.service.OrderPage;
+import com.ecommerce.order.service.OrderQueryService;
 import com.ecommerce.order.service.OrderService;
 import com.ecommerce.order.service.CreateOrderRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 
 @Slf4j
 @RestController
@@ -17,21 +35,77 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderQueryService orderQueryService;
+    private final BulkOrderService bulkOrderService;
+    private final OrderAdmissionControl admissionControl;
 
     @PostMapping
     public ResponseEntity<Order> createOrder(@RequestBody CreateOrderRequest request) {
-        log.info("📝 Creando nueva orden para cliente: {}", request.getCustomerId());
-        
-        Order order = orderService.createOrder(request);
-        
-        log.info("✅ Orden creada exitosamente: {}", order.getOrderNumber());
+        // Una orden mal formada se rechaza antes de ocupar plaza en el límite
+        String error = orderService.validate(request);
+        if (error != null) {
+            throw new InvalidOrderException(error);
+        }
+
+        // Sobre el límite se rechaza sin tocar la BD: mejor un 503 rápido que un timeout
+        OrderAdmissionControl.Permit permit = admissionControl.tryAcquire();
+        if (permit == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, admissionControl.retryAfterSeconds())
+                    .build();
+        }
+
+        Order order;
+        try {
+            order = orderService.createOrder(request);
+        } catch (DataAccessException | TransactionException e) {
+            // BD caída, sin conexiones o timeouts (QueryTimeoutException, TransactionTimedOutException): sobrecarga
+            permit.dropped();
+            throw e;
+        } catch (Throwable e) {
+            // Producto desconocido, catálogo cargándose, errores de programación...: nada que ver con la carga
+            permit.ignore();
+            throw e;
+        }
+        permit.success();
+        log.info(LogMarkers.SAMPLED, "✅ Orden {} creada para cliente {}", order.getOrderNumber(), request.getCustomerId());
         return ResponseEntity.ok(order);
     }
 
+    /**
+     * Alta masiva: un array JSON o NDJSON (una orden por línea). Responde con el resultado
+     * de cada orden en el mismo orden de la petición.
+     */
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BatchOrderResponse> createOrders(InputStream body) throws IOException {
+        BatchOrderResponse response = bulkOrderService.createOrders(body);
+        log.info("✅ Alta masiva procesada: {} órdenes creadas", response.getCreated());
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping
-    public ResponseEntity<List<Order>> getAllOrders() {
-        List<Order> orders = orderService.getAllOrders();
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<OrderPage> getOrders(
+            @RequestParam(required = false) String customerId,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        OrderFilter filter = new OrderFilter(customerId, status, from, to);
+        return ResponseEntity.ok(orderQueryService.findOrders(filter, after, limit));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) String customerId,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        OrderFilter filter = new OrderFilter(customerId, status, from, to);
+        log.info("📤 Exportando órdenes: {}", filter);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> orderQueryService.exportOrders(filter, out));
     }
 
     @GetMapping("/{orderNumber}")
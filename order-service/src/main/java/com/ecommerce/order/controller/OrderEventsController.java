@@ -0,0 +1,124 @@
+package com.ecommerce.order.controller;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.service.OrderService;
+import com.ecommerce.order.service.OrderStatusNotifier;
+import com.ecommerce.order.service.OrderStatusUpdate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Espera del final de la saga sin sondear. Ambos endpoints usan peticiones asíncronas del
+ * servlet: mientras esperan no ocupan ningún hilo, solo la suscripción en
+ * {@link OrderStatusNotifier}.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/orders")
+public class OrderEventsController {
+
+    private final OrderService orderService;
+    private final OrderStatusNotifier orderStatusNotifier;
+    private final Duration sseTimeout;
+    private final Duration maxWait;
+
+    public OrderEventsController(OrderService orderService,
+                                 OrderStatusNotifier orderStatusNotifier,
+                                 @Value("${order.events.sse-timeout:5m}") Duration sseTimeout,
+                                 @Value("${order.events.max-wait:60s}") Duration maxWait) {
+        this.orderService = orderService;
+        this.orderStatusNotifier = orderStatusNotifier;
+        this.sseTimeout = sseTimeout;
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * Envía el estado actual y cada cambio posterior como evento "status"; cierra el stream
+     * cuando la orden llega a un estado final.
+     */
+    @GetMapping(value = "/{orderNumber}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents(@PathVariable String orderNumber) {
+        Optional<Order> order = orderService.getOrderByNumber(orderNumber);
+        if (order.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        OrderStatusUpdate current = OrderStatusUpdate.of(order.get());
+        SseEmitter emitter = new SseEmitter(sseTimeout.toMillis());
+        send(emitter, current);
+        if (current.getStatus().isTerminal()) {
+            return ResponseEntity.ok(emitter);
+        }
+
+        Runnable unsubscribe = orderStatusNotifier.subscribe(current, update -> send(emitter, update));
+        emitter.onCompletion(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * Long-poll: responde en cuanto la orden está en {@code waitFor} (o en un estado final desde
+     * el que ya no llegará) o, pasados {@code timeout} segundos, con el estado que tenga.
+     */
+    @GetMapping(value = "/{orderNumber}/events", params = "waitFor")
+    public DeferredResult<ResponseEntity<OrderStatusUpdate>> awaitStatus(
+            @PathVariable String orderNumber,
+            @RequestParam OrderStatus waitFor,
+            @RequestParam(defaultValue = "30") long timeout) {
+        long timeoutMs = Math.min(Duration.ofSeconds(Math.max(timeout, 0)).toMillis(), maxWait.toMillis());
+        Optional<Order> order = orderService.getOrderByNumber(orderNumber);
+        if (order.isEmpty()) {
+            DeferredResult<ResponseEntity<OrderStatusUpdate>> notFound = new DeferredResult<>();
+            notFound.setResult(ResponseEntity.notFound().build());
+            return notFound;
+        }
+
+        OrderStatusUpdate current = OrderStatusUpdate.of(order.get());
+        DeferredResult<ResponseEntity<OrderStatusUpdate>> result = new DeferredResult<>(timeoutMs, () ->
+                ResponseEntity.ok(Objects.requireNonNullElse(orderStatusNotifier.current(orderNumber), current)));
+        if (reached(current, waitFor)) {
+            result.setResult(ResponseEntity.ok(current));
+            return result;
+        }
+
+        Runnable unsubscribe = orderStatusNotifier.subscribe(current, update -> {
+            if (reached(update, waitFor)) {
+                result.setResult(ResponseEntity.ok(update));
+            }
+        });
+        result.onCompletion(unsubscribe);
+        return result;
+    }
+
+    private static boolean reached(OrderStatusUpdate update, OrderStatus waitFor) {
+        return update.getStatus() == waitFor || update.getStatus().isTerminal();
+    }
+
+    // Desde el notifier se llama en notificationExecutor: un cliente lento no frena a los consumidores de Kafka
+    private static void send(SseEmitter emitter, OrderStatusUpdate update) {
+        try {
+            emitter.send(SseEmitter.event().name("status").data(update, MediaType.APPLICATION_JSON));
+            if (update.getStatus().isTerminal()) {
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectado o stream ya cerrado
+            log.debug("SSE de orden {} cerrado: {}", update.getOrderNumber(), e.getMessage());
+            emitter.completeWithError(e);
+        }
+    }
+}
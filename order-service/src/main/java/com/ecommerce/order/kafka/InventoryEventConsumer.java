@@ -0,0 +1,57 @@
+package com.ecommerce.order.kafka;
+
+import com.ecommerce.common.event.product.InventoryUpdatedEvent;
+import com.ecommerce.common.idempotency.ProcessedEventStore;
+import com.ecommerce.common.logging.LogMarkers;
+import com.ecommerce.common.tracing.SagaMetrics;
+import com.ecommerce.common.tracing.SagaTraceContext;
+import com.ecommerce.order.model.InventoryStatus;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.service.OrderCache;
+import com.ecommerce.order.service.OrderStateMachine;
+import com.ecommerce.order.service.OrderStatusNotifier;
+import com.ecommerce.order.service.OrderStatusUpdate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Registra el resultado del inventario; sin stock la orden pasa a REJECTED,
+ * porque payment-service no emite evento para esas órdenes. Un fallo de BD se reintenta
+ * en inventory-events.order-service-group-retry-N sin frenar la partición. Una orden rechazada
+ * cierra su saga y cuenta en saga.end.to.end.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InventoryEventConsumer {
+
+    private final OrderStateMachine orderStateMachine;
+    private final OrderCache orderCache;
+    private final OrderStatusNotifier orderStatusNotifier;
+    private final ProcessedEventStore processedEventStore;
+    private final SagaMetrics sagaMetrics;
+
+    @KafkaListener(topics = "inventory-events", groupId = "order-service-group")
+    public void consumeInventoryEvent(InventoryUpdatedEvent inventoryEvent) {
+        if (processedEventStore.isProcessed(inventoryEvent.getEventId())) {
+            log.info(LogMarkers.SAMPLED, "⏭️  Inventario ya registrado para orden: {}", inventoryEvent.getOrderId());
+            return;
+        }
+        InventoryStatus inventoryStatus = Boolean.TRUE.equals(inventoryEvent.getAllProductsAvailable())
+                ? InventoryStatus.AVAILABLE : InventoryStatus.UNAVAILABLE;
+        boolean applied = sagaMetrics.timeStage(SagaMetrics.DB, "inventory-events",
+                () -> orderStateMachine.onInventory(inventoryEvent.getOrderId(), inventoryStatus));
+        if (applied) {
+            orderCache.invalidate(inventoryEvent.getOrderId());
+            OrderStatus status = OrderStateMachine.statusAfter(inventoryStatus);
+            // Con stock la orden sigue PENDING y el notificador lo descarta por repetido
+            orderStatusNotifier.publish(new OrderStatusUpdate(inventoryEvent.getOrderId(), status, null, null));
+            if (status.isTerminal()) {
+                sagaMetrics.recordEndToEnd(SagaTraceContext.current(), status.name());
+            }
+        }
+        processedEventStore.markProcessed(inventoryEvent.getEventId());
+    }
+}
@@ -0,0 +1,133 @@
+package com.ecommerce.order.kafka;
+
+import com.ecommerce.common.logging.LogMarkers;
+import com.ecommerce.common.serialization.EventHeaders;
+import com.ecommerce.common.tracing.SagaMetrics;
+import com.ecommerce.common.tracing.SagaTrace;
+import com.ecommerce.order.model.OutboxEvent;
+import com.ecommerce.order.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publica los eventos del outbox en lotes grandes: envía todo el lote, deja que el
+ * producer agrupe y comprima los mensajes, y borra en bloque los que el broker confirmó.
+ * Cada evento abre la traza de su saga, que arranca en el alta de la orden.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SagaMetrics sagaMetrics;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+
+    // Alta del evento más antiguo del lote en curso, o 0 con el outbox vacío
+    private volatile long oldestPendingAt;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, Object> kafkaTemplate,
+                       TransactionTemplate transactionTemplate,
+                       SagaMetrics sagaMetrics,
+                       @Value("${outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${outbox.relay.send-timeout-ms:30000}") long sendTimeoutMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.sagaMetrics = sagaMetrics;
+        this.batchSize = batchSize;
+        this.sendTimeoutMs = sendTimeoutMs;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval-ms:100}")
+    public void relay() {
+        Integer relayed;
+        do {
+            relayed = transactionTemplate.execute(status -> relayBatch());
+        } while (relayed != null && relayed == batchSize);
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(batchSize);
+        if (batch.isEmpty()) {
+            oldestPendingAt = 0;
+            return 0;
+        }
+        oldestPendingAt = epochMillis(batch.get(0).getCreatedAt());
+
+        List<CompletableFuture<SendResult<String, Object>>> futures = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            futures.add(kafkaTemplate.send(toRecord(event)));
+        }
+
+        // Solo se borran los eventos confirmados; el resto se reintenta en el siguiente ciclo
+        List<Long> published = new ArrayList<>(batch.size());
+        long deadline = System.currentTimeMillis() + sendTimeoutMs;
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                futures.get(i).get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                published.add(batch.get(i).getId());
+            } catch (ExecutionException | TimeoutException e) {
+                log.error("❌ Error publicando evento {} del outbox: {}", batch.get(i).getId(), e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        if (!published.isEmpty()) {
+            outboxEventRepository.deleteByIdIn(published);
+        }
+
+        log.info(LogMarkers.SAMPLED, "📤 Outbox: publicados {} de {} eventos", published.size(), batch.size());
+        return published.size();
+    }
+
+    /**
+     * Cuánto lleva esperando el evento más antiguo que el relay tiene entre manos. Crece
+     * mientras Kafka no confirma los envíos, aunque el relay siga bloqueado en ellos.
+     */
+    public long backlogMillis() {
+        long oldest = oldestPendingAt;
+        return oldest == 0 ? 0 : System.currentTimeMillis() - oldest;
+    }
+
+    private ProducerRecord<String, Object> toRecord(OutboxEvent event) {
+        ProducerRecord<String, Object> record =
+                new ProducerRecord<>(event.getTopic(), event.getAggregateId(), event.getPayload());
+        long createdAt = epochMillis(event.getCreatedAt());
+        sagaMetrics.recordStage(SagaMetrics.OUTBOX, event.getTopic(),
+                System.currentTimeMillis() - createdAt, TimeUnit.MILLISECONDS);
+        SagaTrace.start(createdAt).writeTo(record.headers());
+        record.headers().add(EventHeaders.CONTENT_TYPE, event.getContentType().getBytes(StandardCharsets.UTF_8));
+        if (event.getEventType() != null) {
+            record.headers().add(EventHeaders.EVENT_TYPE, event.getEventType().getBytes(StandardCharsets.UTF_8));
+        }
+        return record;
+    }
+
+    private static long epochMillis(LocalDateTime createdAt) {
+        return createdAt == null
+                ? System.currentTimeMillis()
+                : createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
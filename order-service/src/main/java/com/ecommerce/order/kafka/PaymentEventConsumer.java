@@ -1,77 +1,134 @@
 package com.ecommerce.order.kafka;
 
-import com.ecommerce.order.dto.PaymentProcessedEvent;
-import com.ecommerce.order.model.Order;
-import com.ecommerce.order.repository.OrderRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ecommerce.common.event.payment.PaymentProcessedEvent;
+import com.ecommerce.common.idempotency.ProcessedEventStore;
+import com.ecommerce.common.logging.LogMarkers;
+import com.ecommerce.common.tracing.SagaMetrics;
+import com.ecommerce.common.tracing.SagaTrace;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.model.PaymentStatus;
+import com.ecommerce.order.repository.OrderQueryRepository;
+import com.ecommerce.order.service.OrderCache;
+import com.ecommerce.order.service.OrderStateMachine;
+import com.ecommerce.order.service.OrderStatusNotifier;
+import com.ecommerce.order.service.OrderStatusUpdate;
+import com.ecommerce.order.service.OrderStateMachine.PaymentResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+/**
+ * Aplica los resultados de pago de todo un poll con un único batch UPDATE.
+ * Si la BD falla, la excepción llega al contenedor y el lote se reintenta:
+ * las transiciones condicionadas al estado hacen que reaplicarlo sea seguro.
+ * Las órdenes del lote se invalidan en {@link OrderCache} una vez aplicado, y las
+ * transiciones aplicadas se notifican a quien espera la orden. Los eventos ya registrados
+ * en {@link ProcessedEventStore} se descartan sin llegar a la BD. Un pago que no se puede
+ * aplicar (ilegible o de una orden que aún no existe) se señala con
+ * {@link BatchListenerFailedException}: se reintenta unas pocas veces y acaba en
+ * payment-events.order-service-group-dlt; el replay de ese DLT llega por su topic de reintento.
+ * Cada pago aplicado cierra su saga: la duración desde el alta de la orden, que viaja en la
+ * traza del mensaje, se registra en saga.end.to.end.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PaymentEventConsumer {
 
-    private final OrderRepository orderRepository;
-    private final ObjectMapper objectMapper;
+    private final OrderStateMachine orderStateMachine;
+    private final OrderCache orderCache;
+    private final OrderStatusNotifier orderStatusNotifier;
+    private final ProcessedEventStore processedEventStore;
+    private final OrderQueryRepository orderQueryRepository;
+    private final SagaMetrics sagaMetrics;
 
-    @KafkaListener(topics = "payment-events", groupId = "order-service-group")
-    public void consumePaymentEvent(String message) {
-        try {
-            log.info("💰 Recibido PaymentProcessedEvent: {}", message);
-            
-            PaymentProcessedEvent paymentEvent = objectMapper.readValue(message, PaymentProcessedEvent.class);
-            
-            log.info("🎯 Actualizando orden: {} con estado de pago: {}", 
-                    paymentEvent.getOrderId(), paymentEvent.getPaymentStatus());
-            
-            updateOrderStatus(paymentEvent);
-            
-        } catch (Exception e) {
-            log.error("❌ Error procesando mensaje de pago: {}", e.getMessage());
+    @KafkaListener(topics = {"payment-events", "payment-events.order-service-group-retry-0"},
+            groupId = "order-service-group",
+            containerFactory = "batchKafkaListenerContainerFactory")
+    public void consumePaymentEvents(List<ConsumerRecord<String, Object>> records) {
+        log.info(LogMarkers.SAMPLED, "💰 Lote de {} PaymentProcessedEvent recibido", records.size());
+
+        List<PaymentResult> results = new ArrayList<>(records.size());
+        List<ConsumerRecord<String, Object>> resultRecords = new ArrayList<>(records.size());
+        Set<ConsumerRecord<String, Object>> failed = new HashSet<>();
+        Map<String, SagaTrace> traces = new HashMap<>();
+        for (ConsumerRecord<String, Object> record : records) {
+            // null: payload ilegible (el deserializador deja el error en una cabecera)
+            if (!(record.value() instanceof PaymentProcessedEvent paymentEvent)) {
+                log.warn("⏭️  Mensaje no reconocido en payment-events: {}-{}@{}",
+                        record.topic(), record.partition(), record.offset());
+                failed.add(record);
+                continue;
+            }
+            if (processedEventStore.isProcessed(paymentEvent.getEventId())) {
+                log.info(LogMarkers.SAMPLED, "⏭️  Pago ya aplicado para orden: {}", paymentEvent.getOrderId());
+                continue;
+            }
+            try {
+                results.add(new PaymentResult(paymentEvent.getOrderId(),
+                        PaymentStatus.valueOf(paymentEvent.getPaymentStatus()), paymentEvent.getPaymentId()));
+                resultRecords.add(record);
+                traces.put(paymentEvent.getOrderId(), SagaTrace.from(record.headers()));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                log.error("❌ Estado de pago desconocido para orden {}: {}",
+                        paymentEvent.getOrderId(), paymentEvent.getPaymentStatus());
+                failed.add(record);
+            }
         }
-    }
 
-    private void updateOrderStatus(PaymentProcessedEvent paymentEvent) {
-        try {
-            // Buscar la orden por orderNumber (que es el orderId en el evento)
-            Order order = orderRepository.findByOrderNumber(paymentEvent.getOrderId())
-                    .orElseThrow(() -> new RuntimeException("Orden no encontrada: " + paymentEvent.getOrderId()));
+        if (!results.isEmpty()) {
+            List<PaymentResult> applied = sagaMetrics.timeStage(SagaMetrics.DB, "payment-events",
+                    () -> orderStateMachine.onPayments(results));
+            // Tras el commit: la siguiente consulta de estado lee la orden ya actualizada
+            orderCache.invalidateAll(results.stream().map(PaymentResult::orderNumber).toList());
+            for (PaymentResult result : applied) {
+                OrderStatus status = OrderStateMachine.statusAfter(result.paymentStatus());
+                orderStatusNotifier.publish(new OrderStatusUpdate(result.orderNumber(), status,
+                        result.paymentStatus(), result.paymentId()));
+                sagaMetrics.recordEndToEnd(traces.get(result.orderNumber()), status.name());
+            }
+
+            Set<String> missing = missingOrders(results, applied);
+            List<String> eventIds = new ArrayList<>(results.size());
+            for (int i = 0; i < results.size(); i++) {
+                if (missing.contains(results.get(i).orderNumber())) {
+                    failed.add(resultRecords.get(i));
+                } else {
+                    eventIds.add(((PaymentProcessedEvent) resultRecords.get(i).value()).getEventId());
+                }
+            }
+            processedEventStore.markProcessed(eventIds);
+        }
 
-            // Actualizar información de pago
-            order.setPaymentStatus(paymentEvent.getPaymentStatus());
-            order.setPaymentId(paymentEvent.getPaymentId());
-            
-            // Determinar el estado final de la orden basado en el pago
-            String finalStatus = determineFinalOrderStatus(order, paymentEvent);
-            order.setStatus(finalStatus);
-            
-            // Guardar la orden actualizada
-            orderRepository.save(order);
-            
-            log.info("✅ Orden actualizada: {} - Estado: {} - Pago: {}", 
-                    order.getOrderNumber(), order.getStatus(), order.getPaymentStatus());
-                    
-        } catch (Exception e) {
-            log.error("❌ Error actualizando estado de orden: {}", e.getMessage());
+        // Se confirma lo anterior al primer fallo; el resto del lote se vuelve a entregar y lo ya
+        // aplicado se descarta por repetido. El fallido se reintenta y, si sigue fallando, va al DLT
+        for (ConsumerRecord<String, Object> record : records) {
+            if (failed.contains(record)) {
+                throw new BatchListenerFailedException("Pago no aplicable de momento", record);
+            }
         }
     }
 
-    private String determineFinalOrderStatus(Order order, PaymentProcessedEvent paymentEvent) {
-        // Lógica para determinar el estado final basado en inventory y payment
-        if ("APPROVED".equals(paymentEvent.getPaymentStatus())) {
-            return "COMPLETED";
-        } else if ("REJECTED".equals(paymentEvent.getPaymentStatus())) {
-            return "CANCELLED";
-        } else if ("FAILED".equals(paymentEvent.getPaymentStatus())) {
-            return "FAILED";
+    // Transiciones rechazadas cuya orden aún no existe (las demás llegaron tarde y se descartan)
+    private Set<String> missingOrders(List<PaymentResult> results, List<PaymentResult> applied) {
+        Set<String> rejected = new HashSet<>();
+        results.forEach(result -> rejected.add(result.orderNumber()));
+        applied.forEach(result -> rejected.remove(result.orderNumber()));
+        if (rejected.isEmpty()) {
+            return rejected;
         }
-        
-        return "PENDING";
+        orderQueryRepository.findStatuses(new ArrayList<>(rejected))
+                .forEach(order -> rejected.remove(order.getOrderNumber()));
+        return rejected;
     }
 }
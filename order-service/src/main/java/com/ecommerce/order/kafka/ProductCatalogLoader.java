@@ -0,0 +1,144 @@
+package com.ecommerce.order.kafka;
+
+import com.ecommerce.order.service.ProductPriceCatalog;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Particiones de product-events y offsets finales de cada una al arrancar, leídos de los
+ * metadatos del topic. {@link ProductEventConsumer} se asigna esas particiones y le avisa de
+ * lo que aplica: cuando todas llegan al offset capturado el catálogo queda cargado.
+ *
+ * <p>Las particiones que se añadan al topic después del arranque no se leen hasta reiniciar.
+ */
+@Slf4j
+@Component
+public class ProductCatalogLoader implements InitializingBean {
+
+    static final String TOPIC = "product-events";
+
+    private final KafkaAdmin kafkaAdmin;
+    private final ProductPriceCatalog priceCatalog;
+    private final int defaultPartitions;
+    private final long timeoutMs;
+
+    // Partición -> offset final capturado, solo las que aún no se han leído hasta ahí
+    private final Map<Integer, Long> pending = new ConcurrentHashMap<>();
+    private List<Integer> partitions;
+
+    public ProductCatalogLoader(KafkaAdmin kafkaAdmin,
+                                ProductPriceCatalog priceCatalog,
+                                @Value("${ecommerce.kafka.topics.partitions:6}") int defaultPartitions,
+                                @Value("${order.price-catalog.metadata-timeout-ms:30000}") long timeoutMs) {
+        this.kafkaAdmin = kafkaAdmin;
+        this.priceCatalog = priceCatalog;
+        this.defaultPartitions = defaultPartitions;
+        this.timeoutMs = timeoutMs;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        try (AdminClient admin = AdminClient.create(kafkaAdmin.getConfigurationProperties())) {
+            TopicDescription description = describe(admin);
+            if (description == null) {
+                // Aún no existe: kafka-common lo crea con ecommerce.kafka.topics.partitions y vacío
+                partitions = IntStream.range(0, defaultPartitions).boxed().toList();
+            } else {
+                partitions = description.partitions().stream().map(TopicPartitionInfo::partition).toList();
+                Map<TopicPartition, OffsetSpec> latest = partitions.stream()
+                        .collect(Collectors.toMap(p -> new TopicPartition(TOPIC, p), p -> OffsetSpec.latest()));
+                Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> offsets =
+                        admin.listOffsets(latest).all().get(timeoutMs, TimeUnit.MILLISECONDS);
+                offsets.forEach((tp, info) -> {
+                    if (info.offset() > 0) {
+                        pending.put(tp.partition(), info.offset());
+                    }
+                });
+            }
+        }
+        log.info("🏷️ Catálogo de precios: {} particiones de {}, offsets finales {}",
+                partitions.size(), TOPIC, pending);
+        checkLoaded();
+    }
+
+    private TopicDescription describe(AdminClient admin) throws InterruptedException, TimeoutException {
+        try {
+            return admin.describeTopics(List.of(TOPIC)).allTopicNames()
+                    .get(timeoutMs, TimeUnit.MILLISECONDS).get(TOPIC);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UnknownTopicOrPartitionException) {
+                return null;
+            }
+            throw new IllegalStateException("No se pudo leer la descripción de " + TOPIC, e.getCause());
+        }
+    }
+
+    /**
+     * Particiones que asigna el listener de {@link ProductEventConsumer}.
+     */
+    public List<Integer> getPartitions() {
+        return partitions;
+    }
+
+    /**
+     * El registro en {@code offset} de la partición ya está en el catálogo.
+     */
+    public void applied(int partition, long offset) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Long end = pending.get(partition);
+        if (end != null && offset + 1 >= end) {
+            pending.remove(partition);
+            checkLoaded();
+        }
+    }
+
+    /**
+     * El consumer no ha recibido nada en un rato: todo lo que leyó está aplicado. Cubre las
+     * particiones cuyos últimos offsets ya no existen (tombstones eliminados por la compactación),
+     * donde ningún registro llega al offset final.
+     */
+    public void idle(Consumer<?, ?> consumer, Collection<TopicPartition> assigned) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<Integer, TopicPartition> byPartition = assigned.stream()
+                .collect(Collectors.toMap(TopicPartition::partition, Function.identity()));
+        pending.forEach((partition, end) -> {
+            TopicPartition tp = byPartition.get(partition);
+            if (tp != null && consumer.position(tp) >= end) {
+                pending.remove(partition);
+            }
+        });
+        checkLoaded();
+    }
+
+    private void checkLoaded() {
+        if (pending.isEmpty()) {
+            priceCatalog.markLoaded();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.ecommerce.order.kafka;
+
+import com.ecommerce.common.event.product.ProductPriceChangedEvent;
+import com.ecommerce.order.service.ProductPriceCatalog;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.PartitionOffset;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.stereotype.Service;
+
+/**
+ * Mantiene el {@link ProductPriceCatalog} al día. Cada instancia necesita todos los precios,
+ * así que no reparte particiones con un consumer group: se asigna todas las de product-events
+ * y las relee desde el principio al arrancar. Al ser un topic compactado, eso es como mucho
+ * unos pocos mensajes por SKU. {@link ProductCatalogLoader} marca el catálogo como cargado
+ * cuando la relectura llega a los offsets finales que había al arrancar.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductEventConsumer {
+
+    private final ProductPriceCatalog priceCatalog;
+    private final ProductCatalogLoader catalogLoader;
+
+    // Las particiones salen de los metadatos del topic; el post-procesador activa los eventos de inactividad
+    @KafkaListener(id = "price-catalog", groupId = "order-service-price-catalog",
+            containerPostProcessor = "priceCatalogContainerPostProcessor",
+            topicPartitions = @TopicPartition(topic = ProductCatalogLoader.TOPIC,
+                    partitions = "#{@productCatalogLoader.partitions}",
+                    partitionOffsets = @PartitionOffset(partition = "*", initialOffset = "0")))
+    public void consumeProductEvent(ConsumerRecord<String, Object> record) {
+        if (record.value() == null) {
+            // Tombstone: el producto se retiró del catálogo
+            priceCatalog.remove(record.key());
+            log.info("🏷️ Producto {} retirado del catálogo de precios", record.key());
+        } else if (record.value() instanceof ProductPriceChangedEvent priceEvent) {
+            priceCatalog.update(priceEvent.getSku(), priceEvent.getPrice());
+            log.debug("🏷️ Precio de {}: ${}", priceEvent.getSku(), priceEvent.getPrice());
+        } else {
+            log.warn("⚠️ Mensaje de producto no reconocido: {}-{}@{}",
+                    record.topic(), record.partition(), record.offset());
+        }
+        catalogLoader.applied(record.partition(), record.offset());
+    }
+
+    @EventListener(condition = "event.listenerId.startsWith('price-catalog-')")
+    public void onIdle(ListenerContainerIdleEvent event) {
+        // Se publica en el hilo del consumer: puede consultar sus posiciones
+        catalogLoader.idle(event.getConsumer(), event.getTopicPartitions());
+    }
+}
@@ -0,0 +1,10 @@
+package com.ecommerce.order.model;
+
+/**
+ * Enum persistido como SMALLINT con un código fijo: reordenar o añadir
+ * constantes no cambia el significado de las filas existentes.
+ */
+public interface CodedEnum {
+
+    short getCode();
+}
@@ -0,0 +1,42 @@
+package com.ecommerce.order.model;
+
+import jakarta.persistence.AttributeConverter;
+
+import java.lang.reflect.Array;
+
+/**
+ * Convierte un {@link CodedEnum} a su código y de vuelta con una tabla indexada por código.
+ */
+public abstract class CodedEnumConverter<E extends Enum<E> & CodedEnum> implements AttributeConverter<E, Short> {
+
+    private final E[] byCode;
+
+    @SuppressWarnings("unchecked")
+    protected CodedEnumConverter(Class<E> type) {
+        E[] values = type.getEnumConstants();
+        int max = 0;
+        for (E value : values) {
+            max = Math.max(max, value.getCode());
+        }
+        byCode = (E[]) Array.newInstance(type, max + 1);
+        for (E value : values) {
+            byCode[value.getCode()] = value;
+        }
+    }
+
+    @Override
+    public Short convertToDatabaseColumn(E attribute) {
+        return attribute == null ? null : attribute.getCode();
+    }
+
+    @Override
+    public E convertToEntityAttribute(Short code) {
+        if (code == null) {
+            return null;
+        }
+        if (code < 0 || code >= byCode.length || byCode[code] == null) {
+            throw new IllegalArgumentException("Código desconocido: " + code);
+        }
+        return byCode[code];
+    }
+}
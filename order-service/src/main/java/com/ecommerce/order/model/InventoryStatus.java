@@ -0,0 +1,20 @@
+package com.ecommerce.order.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum InventoryStatus implements CodedEnum {
+    AVAILABLE((short) 0),
+    UNAVAILABLE((short) 1);
+
+    private final short code;
+
+    @jakarta.persistence.Converter
+    public static class Converter extends CodedEnumConverter<InventoryStatus> {
+        public Converter() {
+            super(InventoryStatus.class);
+        }
+    }
+}
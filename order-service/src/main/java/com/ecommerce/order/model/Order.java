@@ -15,15 +15,24 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        // Listado por keyset: WHERE <filtro> AND id < :cursor ORDER BY id DESC
+        @Index(name = "idx_orders_customer_id", columnList = "customer_id, id"),
+        @Index(name = "idx_orders_status_id", columnList = "status, id"),
+        @Index(name = "idx_orders_created_at", columnList = "created_at")
+})
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
     
+    @Column(unique = true)
     private String orderNumber;
     private String customerId;
-    private String status; // PENDING, COMPLETED, CANCELLED, REJECTED
+    @Convert(converter = OrderStatus.Converter.class)
+    @Column(columnDefinition = "smallint")
+    private OrderStatus status;
     private BigDecimal totalAmount;
     
     @Column(name = "created_at")
@@ -32,20 +41,26 @@ public class Order {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
-    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    @JoinColumn(name = "order_id")
+    // El lado propietario es OrderItem.order: los items se insertan con order_id, sin UPDATE posterior
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<OrderItem> items;
     
     // Nuevos campos para tracking de la saga
-    private String inventoryStatus;
-    private String paymentStatus;
+    @Convert(converter = InventoryStatus.Converter.class)
+    @Column(columnDefinition = "smallint")
+    private InventoryStatus inventoryStatus;
+
+    @Convert(converter = PaymentStatus.Converter.class)
+    @Column(columnDefinition = "smallint")
+    private PaymentStatus paymentStatus;
+
     private String paymentId;
     
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
-        status = "PENDING";
+        status = OrderStatus.PENDING;
     }
     
     @PreUpdate
@@ -0,0 +1,28 @@
+package com.ecommerce.order.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum OrderStatus implements CodedEnum {
+    PENDING((short) 0),
+    COMPLETED((short) 1),
+    CANCELLED((short) 2),
+    FAILED((short) 3),
+    REJECTED((short) 4);
+
+    private final short code;
+
+    // Solo PENDING puede cambiar; el resto son estados finales de la saga
+    public boolean isTerminal() {
+        return this != PENDING;
+    }
+
+    @jakarta.persistence.Converter
+    public static class Converter extends CodedEnumConverter<OrderStatus> {
+        public Converter() {
+            super(OrderStatus.class);
+        }
+    }
+}
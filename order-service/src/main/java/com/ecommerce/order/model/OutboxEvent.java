@@ -0,0 +1,52 @@
+package com.ecommerce.order.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento pendiente de publicar. Se escribe en la misma transacción que la orden
+ * y el {@link com.ecommerce.order.kafka.OutboxRelay} lo envía a Kafka y lo borra.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "outbox_messages")
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_messages_seq")
+    @SequenceGenerator(name = "outbox_messages_seq", sequenceName = "outbox_messages_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String topic;
+
+    // Clave del mensaje en Kafka (número de orden)
+    @Column(name = "aggregate_id", nullable = false)
+    private String aggregateId;
+
+    @Column(name = "event_type")
+    private String eventType;
+
+    // Formato del payload (cabecera content-type del mensaje)
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    // Payload ya codificado, se envía tal cual
+    @Column(nullable = false, columnDefinition = "bytea")
+    private byte[] payload;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
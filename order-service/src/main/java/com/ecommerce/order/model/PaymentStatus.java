@@ -0,0 +1,21 @@
+package com.ecommerce.order.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum PaymentStatus implements CodedEnum {
+    APPROVED((short) 0),
+    REJECTED((short) 1),
+    FAILED((short) 2);
+
+    private final short code;
+
+    @jakarta.persistence.Converter
+    public static class Converter extends CodedEnumConverter<PaymentStatus> {
+        public Converter() {
+            super(PaymentStatus.class);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.order.repository;
+
+import com.ecommerce.order.model.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filtros opcionales del listado de órdenes; null = sin filtrar por ese campo.
+ * El rango de fechas es [from, to) sobre created_at.
+ */
+public record OrderFilter(String customerId, OrderStatus status, LocalDateTime from, LocalDateTime to) {
+}
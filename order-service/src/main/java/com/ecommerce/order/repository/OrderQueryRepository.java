@@ -0,0 +1,180 @@
+package com.ecommerce.order.repository;
+
+import com.ecommerce.order.model.InventoryStatus;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderItem;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.model.PaymentStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Consultas de listado sobre orders con JDBC: paginación por keyset (id descendente,
+ * sin OFFSET) y un cursor de servidor para exportar sin cargar el resultado en memoria.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderQueryRepository {
+
+    private static final String EXPORT_COLUMNS = "SELECT o.id, o.order_number, o.customer_id, o.status, " +
+            "o.total_amount, o.created_at, o.updated_at, o.inventory_status, o.payment_status, o.payment_id, " +
+            "i.id AS item_id, i.product_id, i.quantity, i.price " +
+            "FROM orders o LEFT JOIN order_items i ON i.order_id = o.id";
+
+    private static final OrderStatus.Converter ORDER_STATUS = new OrderStatus.Converter();
+    private static final InventoryStatus.Converter INVENTORY_STATUS = new InventoryStatus.Converter();
+    private static final PaymentStatus.Converter PAYMENT_STATUS = new PaymentStatus.Converter();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Ids de la página siguiente a {@code afterId} (exclusivo), de la más reciente a la más antigua.
+     */
+    public List<Long> findPageIds(OrderFilter filter, Long afterId, int limit) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT o.id FROM orders o");
+        appendWhere(sql, args, filter, afterId);
+        sql.append(" ORDER BY o.id DESC LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.queryForList(sql.toString(), Long.class, args.toArray());
+    }
+
+    /**
+     * Recorre las órdenes que cumplen el filtro con sus items en una sola consulta JOIN,
+     * leyendo de {@code fetchSize} en {@code fetchSize} filas. Las filas de una orden llegan
+     * seguidas, así que solo hay una orden en memoria a la vez. En PostgreSQL el cursor
+     * solo se usa dentro de una transacción (autocommit desactivado).
+     */
+    public void streamWithItems(OrderFilter filter, int fetchSize, Consumer<Order> consumer) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(EXPORT_COLUMNS);
+        appendWhere(sql, args, filter, null);
+        sql.append(" ORDER BY o.id DESC, i.id");
+
+        OrderAssembler assembler = new OrderAssembler(consumer);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            new ArgumentPreparedStatementSetter(args.toArray()).setValues(ps);
+            return ps;
+        }, assembler);
+        assembler.flush();
+    }
+
+    /**
+     * Estado actual de las órdenes indicadas (solo las columnas de la saga).
+     */
+    public List<Order> findStatuses(List<String> orderNumbers) {
+        String placeholders = String.join(", ", Collections.nCopies(orderNumbers.size(), "?"));
+        return jdbcTemplate.query("SELECT order_number, status, payment_status, payment_id FROM orders " +
+                        "WHERE order_number IN (" + placeholders + ")",
+                (rs, rowNum) -> Order.builder()
+                        .orderNumber(rs.getString("order_number"))
+                        .status(ORDER_STATUS.convertToEntityAttribute(code(rs, "status")))
+                        .paymentStatus(PAYMENT_STATUS.convertToEntityAttribute(code(rs, "payment_status")))
+                        .paymentId(rs.getString("payment_id"))
+                        .build(),
+                orderNumbers.toArray());
+    }
+
+    private static Short code(ResultSet rs, String column) throws SQLException {
+        short code = rs.getShort(column);
+        return rs.wasNull() ? null : code;
+    }
+
+    private static void appendWhere(StringBuilder sql, List<Object> args, OrderFilter filter, Long afterId) {
+        List<String> conditions = new ArrayList<>();
+        if (filter.customerId() != null) {
+            conditions.add("o.customer_id = ?");
+            args.add(filter.customerId());
+        }
+        if (filter.status() != null) {
+            conditions.add("o.status = ?");
+            args.add(filter.status().getCode());
+        }
+        if (filter.from() != null) {
+            conditions.add("o.created_at >= ?");
+            args.add(Timestamp.valueOf(filter.from()));
+        }
+        if (filter.to() != null) {
+            conditions.add("o.created_at < ?");
+            args.add(Timestamp.valueOf(filter.to()));
+        }
+        if (afterId != null) {
+            conditions.add("o.id < ?");
+            args.add(afterId);
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+    }
+
+    /**
+     * Agrupa las filas consecutivas de una misma orden y la entrega al cambiar de id.
+     */
+    private static final class OrderAssembler implements RowCallbackHandler {
+
+        private final Consumer<Order> consumer;
+        private Order current;
+
+        private OrderAssembler(Consumer<Order> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong("id");
+            if (current == null || current.getId() != id) {
+                flush();
+                current = mapOrder(rs, id);
+            }
+            long itemId = rs.getLong("item_id");
+            if (!rs.wasNull()) {
+                current.getItems().add(OrderItem.builder()
+                        .id(itemId)
+                        .productId(rs.getString("product_id"))
+                        .quantity(rs.getInt("quantity"))
+                        .price(rs.getBigDecimal("price"))
+                        .build());
+            }
+        }
+
+        private void flush() {
+            if (current != null) {
+                consumer.accept(current);
+                current = null;
+            }
+        }
+
+        private static Order mapOrder(ResultSet rs, long id) throws SQLException {
+            Timestamp createdAt = rs.getTimestamp("created_at");
+            Timestamp updatedAt = rs.getTimestamp("updated_at");
+            return Order.builder()
+                    .id(id)
+                    .orderNumber(rs.getString("order_number"))
+                    .customerId(rs.getString("customer_id"))
+                    .status(ORDER_STATUS.convertToEntityAttribute(code(rs, "status")))
+                    .totalAmount(rs.getBigDecimal("total_amount"))
+                    .createdAt(createdAt == null ? null : createdAt.toLocalDateTime())
+                    .updatedAt(updatedAt == null ? null : updatedAt.toLocalDateTime())
+                    .inventoryStatus(INVENTORY_STATUS.convertToEntityAttribute(code(rs, "inventory_status")))
+                    .paymentStatus(PAYMENT_STATUS.convertToEntityAttribute(code(rs, "payment_status")))
+                    .paymentId(rs.getString("payment_id"))
+                    .items(new ArrayList<>())
+                    .build();
+        }
+    }
+}
@@ -1,12 +1,37 @@
 package com.ecommerce.order.repository;
 
+import com.ecommerce.order.model.InventoryStatus;
 import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     Optional<Order> findByOrderNumber(String orderNumber);
+
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.items WHERE o.orderNumber = :orderNumber")
+    Optional<Order> findWithItemsByOrderNumber(@Param("orderNumber") String orderNumber);
+
+    // Carga una página de órdenes con sus items en una sola consulta (sin N+1 al serializar)
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id IN :ids ORDER BY o.id DESC")
+    List<Order> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Transición condicionada al estado esperado: 0 filas = evento obsoleto, repetido o fuera de orden
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :to, o.inventoryStatus = :inventoryStatus, o.updatedAt = :now " +
+            "WHERE o.orderNumber = :orderNumber AND o.status = :from")
+    int transitionOnInventory(@Param("orderNumber") String orderNumber,
+                              @Param("from") OrderStatus from,
+                              @Param("to") OrderStatus to,
+                              @Param("inventoryStatus") InventoryStatus inventoryStatus,
+                              @Param("now") LocalDateTime now);
 }
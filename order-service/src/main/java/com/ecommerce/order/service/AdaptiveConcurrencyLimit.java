@@ -0,0 +1,122 @@
+package com.ecommerce.order.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Límite de concurrencia adaptativo por gradiente, como el Gradient de Netflix
+ * concurrency-limits. Compara la latencia reciente con la mínima observada (la del sistema
+ * sin cola): si la reciente la supera en más de {@code TOLERANCE}, el sistema está haciendo
+ * cola y el límite baja; si no, crece poco a poco. Una ventana con caídas (error o
+ * sobrecarga) recorta el límite un 10%.
+ */
+final class AdaptiveConcurrencyLimit {
+
+    private static final double TOLERANCE = 2.0;
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final int PROBE_WINDOWS = 600;
+    private static final int WINDOW_SAMPLES = 10;
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // Protegidos por this
+    private double estimatedLimit;
+    private double minRtt;
+    private int windowsSinceProbe;
+    private long windowStart;
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    private boolean windowDropped;
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+        this.windowStart = System.nanoTime();
+    }
+
+    /**
+     * @return las peticiones en curso contando esta, o -1 si el límite está lleno
+     */
+    int tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                return -1;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return current + 1;
+    }
+
+    /** Libera sin muestra: la petición falló por algo que no dice nada de la carga. */
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /** Libera y cuenta la latencia de la petición y las que había en curso al empezar. */
+    void release(long rttNanos, int inFlightAtStart, boolean dropped) {
+        inFlight.decrementAndGet();
+        sample(rttNanos, inFlightAtStart, dropped, System.nanoTime());
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    // Las muestras se agrupan en ventanas cortas: una petición lenta suelta no mueve el límite
+    private synchronized void sample(long rttNanos, int inFlightAtStart, boolean dropped, long now) {
+        windowRttSum += rttNanos;
+        windowSamples++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtStart);
+        windowDropped |= dropped;
+        if (windowSamples < WINDOW_SAMPLES || now - windowStart < WINDOW_NANOS) {
+            return;
+        }
+
+        update((double) windowRttSum / windowSamples, windowMaxInFlight, windowDropped);
+        windowStart = now;
+        windowRttSum = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+        windowDropped = false;
+    }
+
+    private void update(double shortRtt, int maxInFlight, boolean dropped) {
+        if (dropped) {
+            estimatedLimit = Math.max(minLimit, estimatedLimit * BACKOFF_RATIO);
+            limit = (int) estimatedLimit;
+            return;
+        }
+
+        // La mínima se vuelve a tomar de vez en cuando: si la latencia base sube (BD más
+        // lenta, órdenes más grandes) el límite no se queda anclado a la antigua
+        if (minRtt == 0 || shortRtt < minRtt || ++windowsSinceProbe >= PROBE_WINDOWS) {
+            minRtt = shortRtt;
+            windowsSinceProbe = 0;
+        }
+
+        // Sin usar ni la mitad del límite no hay información para subirlo
+        if (maxInFlight < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * minRtt / shortRtt));
+        double queueSize = Math.sqrt(estimatedLimit);
+        double newLimit = estimatedLimit * gradient + queueSize;
+        newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+}
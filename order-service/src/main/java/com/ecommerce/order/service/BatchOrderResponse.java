@@ -0,0 +1,17 @@
+package com.ecommerce.order.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOrderResponse {
+    private int created;
+    private int rejected;
+    private int failed;
+    private List<BatchOrderResult> results;
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.order.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOrderResult {
+
+    public enum Status {
+        CREATED,    // guardada; el OrderCreatedEvent sale por el outbox
+        REJECTED,   // petición inválida, no se guardó
+        FAILED      // error al guardar su bloque, no se guardó
+    }
+
+    // Posición de la orden en la petición (desde 0)
+    private int index;
+    private String orderNumber;
+    private Status status;
+    private String error;
+}
@@ -0,0 +1,131 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.model.Order;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Alta masiva de órdenes. Lee la petición en streaming (array JSON o NDJSON), valida cada
+ * orden y guarda las válidas en bloques de {@code chunk-size}, cada uno en su transacción:
+ * un bloque que falla no deshace los anteriores y el resultado se informa orden a orden.
+ */
+@Slf4j
+@Service
+public class BulkOrderService {
+
+    private final OrderService orderService;
+    private final ProductPriceCatalog priceCatalog;
+    private final ObjectReader requestReader;
+    private final int chunkSize;
+    private final int maxOrders;
+
+    public BulkOrderService(OrderService orderService,
+                            ProductPriceCatalog priceCatalog,
+                            ObjectMapper objectMapper,
+                            @Value("${order.bulk.chunk-size:500}") int chunkSize,
+                            @Value("${order.bulk.max-orders:10000}") int maxOrders) {
+        this.orderService = orderService;
+        this.priceCatalog = priceCatalog;
+        this.requestReader = objectMapper.readerFor(CreateOrderRequest.class);
+        this.chunkSize = chunkSize;
+        this.maxOrders = maxOrders;
+    }
+
+    public BatchOrderResponse createOrders(InputStream body) throws IOException {
+        // Antes de leer nada: si no, cada orden se rechazaría como producto sin precio
+        priceCatalog.requireLoaded();
+        List<BatchOrderResult> results = new ArrayList<>();
+        List<CreateOrderRequest> chunk = new ArrayList<>(chunkSize);
+        List<Integer> chunkIndexes = new ArrayList<>(chunkSize);
+
+        // readValues recorre tanto los elementos de un array como valores separados por líneas
+        try (MappingIterator<CreateOrderRequest> requests = requestReader.readValues(body)) {
+            for (int index = 0; ; index++) {
+                CreateOrderRequest request;
+                try {
+                    if (!requests.hasNextValue()) {
+                        break;
+                    }
+                    request = requests.nextValue();
+                } catch (JsonProcessingException e) {
+                    // Tras un error de sintaxis no se puede saber dónde empieza la siguiente orden
+                    results.add(new BatchOrderResult(index, null, BatchOrderResult.Status.REJECTED,
+                            "JSON inválido: " + e.getOriginalMessage()));
+                    break;
+                }
+                if (index >= maxOrders) {
+                    results.add(new BatchOrderResult(index, null, BatchOrderResult.Status.REJECTED,
+                            "Se admiten como máximo " + maxOrders + " órdenes por petición"));
+                    break;
+                }
+
+                String error = validate(request);
+                if (error != null) {
+                    results.add(new BatchOrderResult(index, null, BatchOrderResult.Status.REJECTED, error));
+                    continue;
+                }
+                chunk.add(request);
+                chunkIndexes.add(index);
+                if (chunk.size() == chunkSize) {
+                    persist(chunk, chunkIndexes, results);
+                }
+            }
+        }
+        persist(chunk, chunkIndexes, results);
+
+        results.sort(Comparator.comparingInt(BatchOrderResult::getIndex));
+        int created = count(results, BatchOrderResult.Status.CREATED);
+        int rejected = count(results, BatchOrderResult.Status.REJECTED);
+        int failed = count(results, BatchOrderResult.Status.FAILED);
+        log.info("📦 Alta masiva: {} creadas, {} rechazadas, {} fallidas", created, rejected, failed);
+        return new BatchOrderResponse(created, rejected, failed, results);
+    }
+
+    private void persist(List<CreateOrderRequest> chunk, List<Integer> chunkIndexes, List<BatchOrderResult> results) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            List<Order> orders = orderService.createOrders(chunk);
+            for (int i = 0; i < orders.size(); i++) {
+                results.add(new BatchOrderResult(chunkIndexes.get(i), orders.get(i).getOrderNumber(),
+                        BatchOrderResult.Status.CREATED, null));
+            }
+        } catch (RuntimeException e) {
+            log.error("❌ Error guardando bloque de {} órdenes: {}", chunk.size(), e.getMessage());
+            for (Integer index : chunkIndexes) {
+                results.add(new BatchOrderResult(index, null, BatchOrderResult.Status.FAILED, e.getMessage()));
+            }
+        }
+        chunk.clear();
+        chunkIndexes.clear();
+    }
+
+    private String validate(CreateOrderRequest request) {
+        String error = orderService.validate(request);
+        if (error != null) {
+            return error;
+        }
+        for (CreateOrderRequest.OrderItemRequest item : request.getItems()) {
+            if (priceCatalog.price(item.getProductId()) == null) {
+                return "Producto sin precio en el catálogo: " + item.getProductId();
+            }
+        }
+        return null;
+    }
+
+    private static int count(List<BatchOrderResult> results, BatchOrderResult.Status status) {
+        return (int) results.stream().filter(result -> result.getStatus() == status).count();
+    }
+}
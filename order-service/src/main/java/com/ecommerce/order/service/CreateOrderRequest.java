@@ -5,7 +5,6 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.util.List;
 
 @Data
@@ -23,6 +22,6 @@ public class CreateOrderRequest {
     public static class OrderItemRequest {
         private String productId;
         private Integer quantity;
-        private BigDecimal price;
+        // Sin precio: lo pone order-service con su ProductPriceCatalog
     }
 }
@@ -0,0 +1,15 @@
+package com.ecommerce.order.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * La orden no pasa {@link OrderService#validate}: falta el cliente, los items o una cantidad válida.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidOrderException extends RuntimeException {
+
+    public InvalidOrderException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,120 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.kafka.OutboxRelay;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Control de admisión de POST /api/orders. Cuando Postgres o Kafka van lentos, las altas
+ * se acumulan esperando conexión o commit hasta agotar los hilos de Tomcat; con un
+ * {@link AdaptiveConcurrencyLimit} sobre el alta, lo que pase del límite se rechaza al
+ * momento con 503 y la latencia de las que entran se mantiene acotada.
+ *
+ * <p>El alta no llama a Kafka (escribe en el outbox), así que la presión de Kafka llega
+ * por el {@link OutboxRelay}: si su retraso supera {@code order.admission.max-outbox-lag},
+ * cada alta cuenta como caída y el límite baja aunque la BD responda bien.
+ */
+@Slf4j
+@Component
+public class OrderAdmissionControl {
+
+    private final AdaptiveConcurrencyLimit limit;
+    private final OutboxRelay outboxRelay;
+    private final long maxOutboxLagMs;
+    private final String retryAfterSeconds;
+    private final Counter accepted;
+    private final Counter rejected;
+
+    public OrderAdmissionControl(OutboxRelay outboxRelay,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${order.admission.initial-limit:20}") int initialLimit,
+                                 @Value("${order.admission.min-limit:4}") int minLimit,
+                                 @Value("${order.admission.max-limit:100}") int maxLimit,
+                                 @Value("${order.admission.max-outbox-lag:5s}") Duration maxOutboxLag,
+                                 @Value("${order.admission.retry-after:1s}") Duration retryAfter) {
+        this.limit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit);
+        this.outboxRelay = outboxRelay;
+        this.maxOutboxLagMs = maxOutboxLag.toMillis();
+        this.retryAfterSeconds = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+        Gauge.builder("order.admission.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Altas de órdenes admitidas a la vez")
+                .register(meterRegistry);
+        Gauge.builder("order.admission.inflight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Altas de órdenes en curso")
+                .register(meterRegistry);
+        this.accepted = counter(meterRegistry, "accepted");
+        this.rejected = counter(meterRegistry, "rejected");
+    }
+
+    /**
+     * @return el permiso para crear la orden, o null si hay que rechazarla
+     */
+    public Permit tryAcquire() {
+        int inFlight = limit.tryAcquire();
+        if (inFlight < 0) {
+            rejected.increment();
+            log.debug("🚧 Alta rechazada: {} en curso con límite {}", limit.getInFlight(), limit.getLimit());
+            return null;
+        }
+        accepted.increment();
+        return new Permit(inFlight, System.nanoTime());
+    }
+
+    /** Valor de Retry-After para las altas rechazadas. */
+    public String retryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("order.admission.requests")
+                .description("Altas de órdenes por decisión del control de admisión")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Plaza de una alta en curso. Se libera una sola vez, con el resultado de la petición.
+     */
+    public final class Permit {
+
+        private final int inFlight;
+        private final long startNanos;
+        private boolean released;
+
+        private Permit(int inFlight, long startNanos) {
+            this.inFlight = inFlight;
+            this.startNanos = startNanos;
+        }
+
+        /** La orden se creó: su latencia cuenta para el límite. */
+        public void success() {
+            release(outboxRelay.backlogMillis() > maxOutboxLagMs);
+        }
+
+        /** Error de infraestructura (BD, timeout): el límite baja. */
+        public void dropped() {
+            release(true);
+        }
+
+        /** Error de la petición (producto desconocido...): no dice nada de la carga. */
+        public void ignore() {
+            if (!released) {
+                released = true;
+                limit.release();
+            }
+        }
+
+        private void release(boolean dropped) {
+            if (!released) {
+                released = true;
+                limit.release(System.nanoTime() - startNanos, inFlight, dropped);
+            }
+        }
+    }
+}
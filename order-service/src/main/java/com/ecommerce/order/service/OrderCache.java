@@ -0,0 +1,75 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.model.Order;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Caché en proceso de las órdenes (con items) por número de orden, para las consultas de
+ * estado que hacen los clientes mientras termina la saga. Las órdenes en estado final no
+ * vuelven a cambiar y se guardan más tiempo; las PENDING caducan pronto, lo que acota lo
+ * desactualizada que puede estar una instancia que no consume el evento que la cambia.
+ * Los consumidores de la saga invalidan la entrada en cuanto actualizan la orden.
+ */
+@Slf4j
+@Component
+public class OrderCache {
+
+    private final Cache<String, Order> cache;
+
+    public OrderCache(MeterRegistry meterRegistry,
+                      @Value("${order.cache.max-size:100000}") long maxSize,
+                      @Value("${order.cache.pending-ttl:2s}") Duration pendingTtl,
+                      @Value("${order.cache.terminal-ttl:10m}") Duration terminalTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Order>() {
+                    @Override
+                    public long expireAfterCreate(String orderNumber, Order order, long currentTime) {
+                        boolean terminal = order.getStatus() != null && order.getStatus().isTerminal();
+                        return (terminal ? terminalTtl : pendingTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String orderNumber, Order order, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(orderNumber, order, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String orderNumber, Order order, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        // cache.gets{result=hit|miss}, cache.evictions, cache.size... en /actuator/metrics
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "orders");
+    }
+
+    public Optional<Order> get(String orderNumber, Function<String, Optional<Order>> loader) {
+        // Lo que no existe no se guarda: la orden puede aparecer justo después
+        return Optional.ofNullable(cache.get(orderNumber, key -> loader.apply(key).orElse(null)));
+    }
+
+    public void invalidate(String orderNumber) {
+        cache.invalidate(orderNumber);
+    }
+
+    public void invalidateAll(Collection<String> orderNumbers) {
+        cache.invalidateAll(orderNumbers);
+        log.debug("🧹 {} órdenes invalidadas en caché", orderNumbers.size());
+    }
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.model.Order;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderPage {
+    private List<Order> orders;
+    // Id de la última orden de la página; se pasa como ?after= para pedir la siguiente (null = no hay más)
+    private Long nextCursor;
+}
@@ -0,0 +1,102 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.repository.OrderFilter;
+import com.ecommerce.order.repository.OrderQueryRepository;
+import com.ecommerce.order.repository.OrderRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Listado de órdenes en memoria constante: páginas por keyset con los items cargados en
+ * un único JOIN FETCH, y exportación NDJSON que escribe cada orden según sale del cursor.
+ */
+@Slf4j
+@Service
+public class OrderQueryService {
+
+    private final OrderRepository orderRepository;
+    private final OrderQueryRepository orderQueryRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter lineWriter;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int defaultLimit;
+    private final int maxLimit;
+    private final int exportFetchSize;
+
+    public OrderQueryService(OrderRepository orderRepository,
+                             OrderQueryRepository orderQueryRepository,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${order.query.default-limit:50}") int defaultLimit,
+                             @Value("${order.query.max-limit:500}") int maxLimit,
+                             @Value("${order.query.export-fetch-size:1000}") int exportFetchSize) {
+        this.orderRepository = orderRepository;
+        this.orderQueryRepository = orderQueryRepository;
+        this.objectMapper = objectMapper;
+        // Sin flush por orden: el generador y el buffer del servlet agrupan las escrituras
+        this.lineWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+        this.exportFetchSize = exportFetchSize;
+    }
+
+    @Transactional(readOnly = true)
+    public OrderPage findOrders(OrderFilter filter, Long after, Integer limit) {
+        int pageSize = limit == null ? defaultLimit : Math.max(1, Math.min(limit, maxLimit));
+        // Un id de más indica si hay página siguiente sin contar filas
+        List<Long> ids = orderQueryRepository.findPageIds(filter, after, pageSize + 1);
+        Long nextCursor = null;
+        if (ids.size() > pageSize) {
+            ids = ids.subList(0, pageSize);
+            nextCursor = ids.get(pageSize - 1);
+        }
+        if (ids.isEmpty()) {
+            return new OrderPage(List.of(), null);
+        }
+        return new OrderPage(orderRepository.findWithItemsByIdIn(ids), nextCursor);
+    }
+
+    /**
+     * Escribe una orden JSON por línea. Se ejecuta en el hilo de la respuesta, dentro de su
+     * propia transacción de solo lectura para que PostgreSQL mantenga el cursor abierto.
+     */
+    public void exportOrders(OrderFilter filter, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.setRootValueSeparator(null);
+        long[] exported = {0};
+        try {
+            readOnlyTransaction.executeWithoutResult(status ->
+                    orderQueryRepository.streamWithItems(filter, exportFetchSize, order -> {
+                        try {
+                            lineWriter.writeValue(generator, order);
+                            generator.writeRaw('\n');
+                            exported[0]++;
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }));
+        } catch (UncheckedIOException e) {
+            // Normalmente el cliente cerró la conexión: se corta la consulta y se libera el cursor
+            log.warn("⚠️ Exportación interrumpida tras {} órdenes: {}", exported[0], e.getMessage());
+            throw e.getCause();
+        }
+        generator.flush();
+        log.info("📤 Exportadas {} órdenes", exported[0]);
+    }
+}
@@ -1,19 +1,23 @@
 package com.ecommerce.order.service;
 
-import com.ecommerce.order.dto.OrderCreatedEvent;
+import com.ecommerce.common.serialization.EncodedEvent;
+import com.ecommerce.common.serialization.EventCodecRegistry;
+import com.ecommerce.common.event.order.OrderCreatedEvent;
+import com.ecommerce.common.logging.LogMarkers;
 import com.ecommerce.order.model.Order;
 import com.ecommerce.order.model.OrderItem;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.model.OutboxEvent;
 import com.ecommerce.order.repository.OrderRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ecommerce.order.repository.OutboxEventRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -25,83 +29,125 @@ import java.util.stream.Collectors;
 public class OrderService {
 
     private final OrderRepository orderRepository;
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final OutboxEventRepository outboxEventRepository;
+    private final EventCodecRegistry eventCodecRegistry;
+    private final OrderCache orderCache;
+    private final ProductPriceCatalog priceCatalog;
+
+    /**
+     * Comprueba los campos de la orden, sin mirar el catálogo de precios.
+     *
+     * @return el motivo del rechazo, o null si la orden está completa
+     */
+    public String validate(CreateOrderRequest request) {
+        if (request == null || request.getCustomerId() == null || request.getCustomerId().isBlank()) {
+            return "customerId es obligatorio";
+        }
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            return "La orden no contiene items";
+        }
+        for (CreateOrderRequest.OrderItemRequest item : request.getItems()) {
+            if (item == null || item.getProductId() == null) {
+                return "productId es obligatorio en cada item";
+            }
+            if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                return "Cantidad inválida para " + item.getProductId();
+            }
+        }
+        return null;
+    }
 
     @Transactional
     public Order createOrder(CreateOrderRequest request) {
+        Order savedOrder = orderRepository.save(buildOrder(request));
+
+        // Registrar el evento en el outbox, en la misma transacción que la orden
+        outboxEventRepository.save(orderCreatedOutboxEvent(savedOrder));
+        log.info(LogMarkers.SAMPLED, "💾 Orden {} guardada con su OrderCreatedEvent en outbox - Total: ${}",
+                savedOrder.getOrderNumber(), savedOrder.getTotalAmount());
+
+        return savedOrder;
+    }
+
+    /**
+     * Guarda un bloque de órdenes y sus eventos en una sola transacción. Con ids de secuencia
+     * y hibernate.jdbc.batch_size, Hibernate agrupa los INSERT de órdenes, items y outbox en
+     * batches JDBC; el {@link com.ecommerce.order.kafka.OutboxRelay} publica después los eventos
+     * en lote, sin esperar a cada envío.
+     */
+    @Transactional
+    public List<Order> createOrders(List<CreateOrderRequest> requests) {
+        List<Order> orders = orderRepository.saveAll(requests.stream().map(this::buildOrder).toList());
+        outboxEventRepository.saveAll(orders.stream().map(this::orderCreatedOutboxEvent).toList());
+        log.info("💾 Lote de {} órdenes guardado con sus eventos en outbox", orders.size());
+        return orders;
+    }
+
+    private Order buildOrder(CreateOrderRequest request) {
+        // Con el catálogo a medio cargar un SKU podría tarificarse con un precio antiguo
+        priceCatalog.requireLoaded();
+
         // Generar número de orden único
         String orderNumber = "ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-        
-        // Calcular total
-        BigDecimal totalAmount = request.getItems().stream()
-                .map(item -> item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
 
         // Crear orden
         Order order = Order.builder()
                 .orderNumber(orderNumber)
                 .customerId(request.getCustomerId())
-                .totalAmount(totalAmount)
-                .status("PENDING")
+                .status(OrderStatus.PENDING)
                 .build();
 
-        // Crear items
-        List<OrderItem> orderItems = request.getItems().stream()
-                .map(item -> OrderItem.builder()
-                        .productId(item.getProductId())
-                        .quantity(item.getQuantity())
-                        .price(item.getPrice())
-                        .order(order)
-                        .build())
-                .collect(Collectors.toList());
+        // Tarificar con el catálogo de precios: items y total en una sola pasada
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        List<OrderItem> orderItems = new ArrayList<>(request.getItems().size());
+        for (CreateOrderRequest.OrderItemRequest item : request.getItems()) {
+            BigDecimal price = priceCatalog.price(item.getProductId());
+            if (price == null) {
+                throw new UnknownProductException(item.getProductId());
+            }
+            totalAmount = totalAmount.add(price.multiply(BigDecimal.valueOf(item.getQuantity())));
+            orderItems.add(OrderItem.builder()
+                    .productId(item.getProductId())
+                    .quantity(item.getQuantity())
+                    .price(price)
+                    .order(order)
+                    .build());
+        }
 
+        order.setTotalAmount(totalAmount);
         order.setItems(orderItems);
-
-        // Guardar orden
-        Order savedOrder = orderRepository.save(order);
-        
-        log.info("💾 Orden guardada en BD: {} - Total: ${}", savedOrder.getOrderNumber(), savedOrder.getTotalAmount());
-        
-        // Enviar evento a Kafka
-        sendOrderCreatedEvent(savedOrder);
-        
-        return savedOrder;
+        return order;
     }
 
-    private void sendOrderCreatedEvent(Order order) {
-        try {
-            OrderCreatedEvent event = OrderCreatedEvent.builder()
-                    .eventId(UUID.randomUUID().toString())
-                    .eventType("ORDER_CREATED")
-                    .orderId(order.getOrderNumber())
-                    .customerId(order.getCustomerId())
-                    .totalAmount(order.getTotalAmount())
-                    .orderDate(LocalDateTime.now())
-                    .items(order.getItems().stream()
-                            .map(item -> OrderCreatedEvent.OrderItem.builder()
-                                    .productId(item.getProductId())
-                                    .quantity(item.getQuantity())
-                                    .price(item.getPrice())
-                                    .build())
-                            .collect(Collectors.toList()))
-                    .build();
-
-            String message = objectMapper.writeValueAsString(event);
-            kafkaTemplate.send("order-events", order.getOrderNumber(), message);
-            
-            log.info("📤 Enviado OrderCreatedEvent para orden: {}", order.getOrderNumber());
-            
-        } catch (JsonProcessingException e) {
-            log.error("❌ Error enviando OrderCreatedEvent: {}", e.getMessage());
-        }
-    }
+    private OutboxEvent orderCreatedOutboxEvent(Order order) {
+        OrderCreatedEvent event = OrderCreatedEvent.builder()
+                .eventType(OrderCreatedEvent.TYPE)
+                .orderId(order.getOrderNumber())
+                .customerId(order.getCustomerId())
+                .totalAmount(order.getTotalAmount())
+                .orderDate(LocalDateTime.now())
+                .items(order.getItems().stream()
+                        .map(item -> OrderCreatedEvent.OrderItem.builder()
+                                .productId(item.getProductId())
+                                .quantity(item.getQuantity())
+                                .price(item.getPrice())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
 
-    public List<Order> getAllOrders() {
-        return orderRepository.findAll();
+        // Se guarda ya codificado; si falla la serialización, sin evento no hay saga y se hace rollback
+        EncodedEvent encoded = eventCodecRegistry.encode(event);
+        return OutboxEvent.builder()
+                .topic("order-events")
+                .aggregateId(order.getOrderNumber())
+                .eventType(encoded.getEventType())
+                .contentType(encoded.getFormat().getContentType())
+                .payload(encoded.getPayload())
+                .build();
     }
 
     public Optional<Order> getOrderByNumber(String orderNumber) {
-        return orderRepository.findByOrderNumber(orderNumber);
+        // Con los items ya cargados: la instancia cacheada se serializa fuera de su sesión
+        return orderCache.get(orderNumber, orderRepository::findWithItemsByOrderNumber);
     }
 }
@@ -0,0 +1,160 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.common.logging.LogMarkers;
+import com.ecommerce.order.model.InventoryStatus;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.model.PaymentStatus;
+import com.ecommerce.order.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Máquina de estados de la saga. Cada evento de la saga es un trigger con una única
+ * transición válida; se aplica con un UPDATE condicionado al estado de origen, sin leer
+ * la orden antes. Si no se actualiza ninguna fila, el evento es obsoleto, está repetido
+ * o llegó fuera de orden, y se descarta.
+ *
+ * <p>Los resultados de pago llegan por lotes de Kafka y se aplican todos en un único
+ * batch JDBC de ese UPDATE, dentro de una transacción por lote.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderStateMachine {
+
+    public enum Trigger {
+        INVENTORY_AVAILABLE,
+        INVENTORY_UNAVAILABLE,
+        PAYMENT_APPROVED,
+        PAYMENT_REJECTED,
+        PAYMENT_FAILED
+    }
+
+    public record Transition(OrderStatus from, OrderStatus to) {
+    }
+
+    public record PaymentResult(String orderNumber, PaymentStatus paymentStatus, String paymentId) {
+    }
+
+    private static final Map<Trigger, Transition> TRANSITIONS = new EnumMap<>(Trigger.class);
+
+    static {
+        TRANSITIONS.put(Trigger.INVENTORY_AVAILABLE, new Transition(OrderStatus.PENDING, OrderStatus.PENDING));
+        TRANSITIONS.put(Trigger.INVENTORY_UNAVAILABLE, new Transition(OrderStatus.PENDING, OrderStatus.REJECTED));
+        TRANSITIONS.put(Trigger.PAYMENT_APPROVED, new Transition(OrderStatus.PENDING, OrderStatus.COMPLETED));
+        TRANSITIONS.put(Trigger.PAYMENT_REJECTED, new Transition(OrderStatus.PENDING, OrderStatus.CANCELLED));
+        TRANSITIONS.put(Trigger.PAYMENT_FAILED, new Transition(OrderStatus.PENDING, OrderStatus.FAILED));
+    }
+
+    private static final String PAYMENT_TRANSITION_SQL =
+            "UPDATE orders SET status = ?, payment_status = ?, payment_id = ?, updated_at = ? " +
+            "WHERE order_number = ? AND status = ?";
+
+    private final OrderRepository orderRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Aplica los resultados de pago de un lote con un único batch UPDATE por order_number
+     * (índice único). Si una orden aparece varias veces solo cuenta el primer evento: los
+     * siguientes serían rechazados igualmente porque la orden ya salió de PENDING.
+     *
+     * @return los resultados que se aplicaron
+     */
+    @Transactional
+    public List<PaymentResult> onPayments(List<PaymentResult> results) {
+        Map<String, PaymentResult> byOrder = new LinkedHashMap<>();
+        for (PaymentResult result : results) {
+            byOrder.putIfAbsent(result.orderNumber(), result);
+        }
+        List<PaymentResult> batch = new ArrayList<>(byOrder.values());
+        LocalDateTime now = LocalDateTime.now();
+
+        int[] counts = jdbcTemplate.batchUpdate(PAYMENT_TRANSITION_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                PaymentResult result = batch.get(i);
+                Transition transition = TRANSITIONS.get(paymentTrigger(result.paymentStatus()));
+                ps.setShort(1, transition.to().getCode());
+                ps.setShort(2, result.paymentStatus().getCode());
+                ps.setString(3, result.paymentId());
+                ps.setTimestamp(4, Timestamp.valueOf(now));
+                ps.setString(5, result.orderNumber());
+                ps.setShort(6, transition.from().getCode());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return batch.size();
+            }
+        });
+
+        List<PaymentResult> applied = new ArrayList<>(batch.size());
+        for (int i = 0; i < counts.length; i++) {
+            PaymentResult result = batch.get(i);
+            Trigger trigger = paymentTrigger(result.paymentStatus());
+            // SUCCESS_NO_INFO: el driver no informa filas, se da por aplicada
+            int updated = counts[i] == Statement.SUCCESS_NO_INFO ? 1 : counts[i];
+            if (applied(result.orderNumber(), trigger, TRANSITIONS.get(trigger), updated)) {
+                applied.add(result);
+            }
+        }
+        log.info(LogMarkers.SAMPLED, "💾 Lote de pagos: {} órdenes actualizadas de {} eventos ({} órdenes distintas)",
+                applied.size(), results.size(), batch.size());
+        return applied;
+    }
+
+    @Transactional
+    public boolean onInventory(String orderNumber, InventoryStatus inventoryStatus) {
+        Trigger trigger = inventoryTrigger(inventoryStatus);
+        Transition transition = TRANSITIONS.get(trigger);
+        int updated = orderRepository.transitionOnInventory(orderNumber, transition.from(), transition.to(),
+                inventoryStatus, LocalDateTime.now());
+        return applied(orderNumber, trigger, transition, updated);
+    }
+
+    public static OrderStatus statusAfter(InventoryStatus inventoryStatus) {
+        return TRANSITIONS.get(inventoryTrigger(inventoryStatus)).to();
+    }
+
+    public static OrderStatus statusAfter(PaymentStatus paymentStatus) {
+        return TRANSITIONS.get(paymentTrigger(paymentStatus)).to();
+    }
+
+    private static Trigger inventoryTrigger(InventoryStatus inventoryStatus) {
+        return inventoryStatus == InventoryStatus.AVAILABLE
+                ? Trigger.INVENTORY_AVAILABLE : Trigger.INVENTORY_UNAVAILABLE;
+    }
+
+    private static Trigger paymentTrigger(PaymentStatus paymentStatus) {
+        return switch (paymentStatus) {
+            case APPROVED -> Trigger.PAYMENT_APPROVED;
+            case REJECTED -> Trigger.PAYMENT_REJECTED;
+            case FAILED -> Trigger.PAYMENT_FAILED;
+        };
+    }
+
+    private boolean applied(String orderNumber, Trigger trigger, Transition transition, int updated) {
+        if (updated == 0) {
+            log.warn(LogMarkers.SAMPLED, "⏭️  Transición {} rechazada para orden {}: no existe o ya no está en {}",
+                    trigger, orderNumber, transition.from());
+            return false;
+        }
+        log.info(LogMarkers.SAMPLED, "✅ Orden {}: {} -> {} ({})", orderNumber, transition.from(), transition.to(), trigger);
+        return true;
+    }
+}
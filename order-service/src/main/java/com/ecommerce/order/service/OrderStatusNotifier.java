@@ -0,0 +1,130 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.repository.OrderQueryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Registro en memoria de quién espera cambios de estado de cada orden (SSE y long-poll).
+ * Los consumidores de la saga publican aquí las transiciones que aplican. Como solo ven las
+ * particiones que tienen asignadas, cada instancia repasa además periódicamente, con una
+ * consulta por bloque, el estado en BD de las órdenes que tiene vigiladas.
+ *
+ * <p>Los listeners se llaman en notificationExecutor, nunca en el hilo que publica (un listener
+ * de Kafka): escribir en un SSE puede bloquear. Cada orden tiene su cola y se entrega en orden.
+ */
+@Slf4j
+@Component
+public class OrderStatusNotifier {
+
+    private static final int RECONCILE_CHUNK = 500;
+
+    private final OrderQueryRepository orderQueryRepository;
+    private final Executor notificationExecutor;
+    private final ConcurrentMap<String, Watch> watches = new ConcurrentHashMap<>();
+
+    private static final class Watch {
+        private final Set<Consumer<OrderStatusUpdate>> listeners = ConcurrentHashMap.newKeySet();
+        private volatile OrderStatusUpdate last;
+        // Protegidos por el propio Watch
+        private final Queue<OrderStatusUpdate> pending = new ArrayDeque<>();
+        private boolean draining;
+    }
+
+    public OrderStatusNotifier(OrderQueryRepository orderQueryRepository,
+                               @Qualifier("notificationExecutor") Executor notificationExecutor) {
+        this.orderQueryRepository = orderQueryRepository;
+        this.notificationExecutor = notificationExecutor;
+    }
+
+    /**
+     * @param current estado leído justo antes de suscribirse
+     * @return acción que cancela la suscripción
+     */
+    public Runnable subscribe(OrderStatusUpdate current, Consumer<OrderStatusUpdate> listener) {
+        String orderNumber = current.getOrderNumber();
+        watches.compute(orderNumber, (key, watch) -> {
+            Watch target = watch != null ? watch : new Watch();
+            if (target.last == null) {
+                target.last = current;
+            }
+            target.listeners.add(listener);
+            return target;
+        });
+        return () -> watches.computeIfPresent(orderNumber, (key, watch) -> {
+            watch.listeners.remove(listener);
+            return watch.listeners.isEmpty() ? null : watch;
+        });
+    }
+
+    public OrderStatusUpdate current(String orderNumber) {
+        Watch watch = watches.get(orderNumber);
+        return watch == null ? null : watch.last;
+    }
+
+    public void publish(OrderStatusUpdate update) {
+        Watch watch = watches.get(update.getOrderNumber());
+        if (watch == null) {
+            return;
+        }
+        synchronized (watch) {
+            // Repetido, o una lectura atrasada de una orden que ya llegó a un estado final
+            if (update.equals(watch.last) || (watch.last != null && watch.last.getStatus().isTerminal())) {
+                return;
+            }
+            watch.last = update;
+            watch.pending.add(update);
+            if (watch.draining) {
+                return;
+            }
+            watch.draining = true;
+        }
+        notificationExecutor.execute(() -> drain(watch));
+    }
+
+    // Un solo drain por orden a la vez: los cambios se entregan en el orden en que se publicaron
+    private void drain(Watch watch) {
+        while (true) {
+            OrderStatusUpdate update;
+            synchronized (watch) {
+                update = watch.pending.poll();
+                if (update == null) {
+                    watch.draining = false;
+                    return;
+                }
+            }
+            for (Consumer<OrderStatusUpdate> listener : watch.listeners) {
+                try {
+                    listener.accept(update);
+                } catch (Exception e) {
+                    log.warn("⚠️ Error notificando orden {}: {}", update.getOrderNumber(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.events.reconcile-interval-ms:1000}")
+    public void reconcile() {
+        if (watches.isEmpty()) {
+            return;
+        }
+        List<String> orderNumbers = new ArrayList<>(watches.keySet());
+        for (int from = 0; from < orderNumbers.size(); from += RECONCILE_CHUNK) {
+            List<String> chunk = orderNumbers.subList(from, Math.min(from + RECONCILE_CHUNK, orderNumbers.size()));
+            orderQueryRepository.findStatuses(chunk).forEach(order -> publish(OrderStatusUpdate.of(order)));
+        }
+        log.debug("🔄 Estado de {} órdenes vigiladas revisado", orderNumbers.size());
+    }
+}
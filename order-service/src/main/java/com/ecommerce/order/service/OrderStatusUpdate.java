@@ -0,0 +1,23 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.model.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusUpdate {
+    private String orderNumber;
+    private OrderStatus status;
+    private PaymentStatus paymentStatus;
+    private String paymentId;
+
+    public static OrderStatusUpdate of(Order order) {
+        return new OrderStatusUpdate(order.getOrderNumber(), order.getStatus(),
+                order.getPaymentStatus(), order.getPaymentId());
+    }
+}
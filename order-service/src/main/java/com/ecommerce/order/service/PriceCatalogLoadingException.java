@@ -0,0 +1,16 @@
+package com.ecommerce.order.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * El {@link ProductPriceCatalog} aún se está cargando tras el arranque: la orden se puede
+ * reintentar en unos segundos.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class PriceCatalogLoadingException extends RuntimeException {
+
+    public PriceCatalogLoadingException() {
+        super("Catálogo de precios cargándose");
+    }
+}
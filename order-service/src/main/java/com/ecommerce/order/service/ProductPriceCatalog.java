@@ -0,0 +1,77 @@
+package com.ecommerce.order.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precio vigente de cada SKU, replicado en memoria desde el changelog compactado
+ * product-events (ver {@link com.ecommerce.order.kafka.ProductEventConsumer}). Tarificar una
+ * orden son lecturas de este mapa: sin llamada síncrona a product-service y sin usar
+ * precios que mande el cliente.
+ *
+ * <p>Al arrancar está vacío y, mientras se relee el topic, puede tener precios antiguos de un
+ * SKU: hasta que la relectura llega al final no se tarifica nada y la instancia no está lista
+ * (grupo readiness de /actuator/health).
+ */
+@Slf4j
+@Component
+public class ProductPriceCatalog implements HealthIndicator {
+
+    private final Map<String, BigDecimal> prices = new ConcurrentHashMap<>();
+
+    private volatile boolean loaded;
+
+    public ProductPriceCatalog(MeterRegistry meterRegistry) {
+        Gauge.builder("order.price.catalog.size", prices, Map::size)
+                .description("SKUs con precio en el catálogo")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return el precio del SKU, o null si el catálogo no lo conoce
+     */
+    public BigDecimal price(String sku) {
+        return sku == null ? null : prices.get(sku);
+    }
+
+    public void update(String sku, BigDecimal price) {
+        prices.put(sku, price);
+    }
+
+    public void remove(String sku) {
+        prices.remove(sku);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * @throws PriceCatalogLoadingException si todavía se está releyendo product-events
+     */
+    public void requireLoaded() {
+        if (!loaded) {
+            throw new PriceCatalogLoadingException();
+        }
+    }
+
+    public void markLoaded() {
+        if (!loaded) {
+            loaded = true;
+            log.info("🏷️ Catálogo de precios cargado: {} SKUs", prices.size());
+        }
+    }
+
+    @Override
+    public Health health() {
+        return (loaded ? Health.up() : Health.outOfService()).withDetail("skus", prices.size()).build();
+    }
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.order.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * La orden incluye un SKU sin precio en el {@link ProductPriceCatalog}: no se puede tarificar.
+ */
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class UnknownProductException extends RuntimeException {
+
+    public UnknownProductException(String sku) {
+        super("Producto sin precio en el catálogo: " + sku);
+    }
+}
@@ -0,0 +1,93 @@
+package com.ecommerce.payment.config;
+
+import com.ecommerce.common.idempotency.ProcessedEventStore;
+import com.ecommerce.payment.service.PaymentPipeline;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Collection;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class KafkaConfig {
+
+    @Value("${payment.pipeline.executor-threads:16}")
+    private int executorThreads;
+
+    @Value("${payment.pipeline.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${payment.pipeline.drain-timeout-ms:10000}")
+    private long drainTimeoutMs;
+
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor paymentExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(executorThreads);
+        executor.setMaxPoolSize(executorThreads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("payment-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * Con hilos virtuales, un hilo por pago sin pool ni cola: la concurrencia ya la acota
+     * payment.pipeline.max-in-flight-per-partition.
+     */
+    @Bean(name = "paymentExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualPaymentExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("payment-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    /**
+     * Factory para el pipeline de pagos: ack manual y asíncrono, el contenedor confirma
+     * cada offset cuando todos los anteriores de la partición están confirmados.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> paymentKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            PaymentPipeline paymentPipeline,
+            ProcessedEventStore processedEventStore) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        // Los registros descartados por el filtro también se confirman, o bloquearían los acks asíncronos
+        factory.setAckDiscarded(true);
+
+        ContainerProperties containerProperties = factory.getContainerProperties();
+        containerProperties.setAckMode(ContainerProperties.AckMode.MANUAL);
+        containerProperties.setAsyncAcks(true);
+        containerProperties.setConsumerRebalanceListener(new ConsumerAwareRebalanceListener() {
+            @Override
+            public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+                paymentPipeline.drain(partitions, drainTimeoutMs);
+            }
+
+            @Override
+            public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+                // Lo que otra instancia procesó en estas particiones entra en el filtro antes del primer poll
+                if (!partitions.isEmpty()) {
+                    processedEventStore.refresh();
+                }
+            }
+        });
+        return factory;
+    }
+}
@@ -1,112 +1,114 @@
 package com.ecommerce.payment.kafka;
 
-import com.ecommerce.payment.dto.InventoryUpdatedEvent;
-import com.ecommerce.payment.dto.PaymentProcessedEvent;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ecommerce.common.event.product.InventoryUpdatedEvent;
+import com.ecommerce.common.idempotency.ClaimInProgressException;
+import com.ecommerce.common.idempotency.ProcessedEventStore;
+import com.ecommerce.common.logging.LogMarkers;
+import com.ecommerce.payment.service.PaymentPipeline;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.util.UUID;
-
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class InventoryEventConsumer {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final PaymentPipeline paymentPipeline;
+    private final ProcessedEventStore processedEventStore;
+    private final DeadLetterPublishingRecoverer deadLetterRecoverer;
 
-    @KafkaListener(topics = "inventory-events", groupId = "payment-service-group")
-    public void consumeInventoryEvent(String message) {
-        try {
-            log.info("💰 Recibido InventoryUpdatedEvent: {}", message);
-            
-            InventoryUpdatedEvent inventoryEvent = objectMapper.readValue(message, InventoryUpdatedEvent.class);
-            
-            // Solo procesar si el inventario está disponible
-            if (Boolean.TRUE.equals(inventoryEvent.getAllProductsAvailable())) {
-                log.info("🎯 Procesando pago para orden: {}", inventoryEvent.getOrderId());
-                processPayment(inventoryEvent);
-            } else {
-                log.warn("⏭️  Inventario insuficiente, saltando procesamiento de pago para orden: {}", 
-                        inventoryEvent.getOrderId());
-            }
-            
-        } catch (Exception e) {
-            log.error("❌ Error procesando mensaje de inventario: {}", e.getMessage());
+    // El topic de reintento del grupo solo recibe los replays de su DLT
+    @KafkaListener(topics = {"inventory-events", "inventory-events.payment-service-group-retry-0"},
+            groupId = "payment-service-group",
+            containerFactory = "paymentKafkaListenerContainerFactory")
+    public void consumeInventoryEvent(ConsumerRecord<String, Object> record, Acknowledgment acknowledgment)
+            throws InterruptedException {
+        if (!(record.value() instanceof InventoryUpdatedEvent inventoryEvent)) {
+            log.error("❌ Mensaje de inventario no reconocido: {}-{}@{}",
+                    record.topic(), record.partition(), record.offset());
+            deadLetterRecoverer.accept(record, new IllegalArgumentException("Mensaje de inventario no reconocido"));
+            acknowledgment.acknowledge();
+            return;
         }
-    }
-
-    private void processPayment(InventoryUpdatedEvent inventoryEvent) {
-        try {
-            // Simular procesamiento de pago (80% aprobado, 20% rechazado)
-            boolean isPaymentApproved = Math.random() > 0.2;
-            String paymentStatus = isPaymentApproved ? "APPROVED" : "REJECTED";
-            String paymentId = "PAY-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-
-            log.info("💳 Procesando pago {} - Status: {}", paymentId, paymentStatus);
 
-            // Simular delay de procesamiento
-            Thread.sleep(1000);
-
-            // Crear evento de pago procesado
-            PaymentProcessedEvent paymentEvent = PaymentProcessedEvent.builder()
-                    .orderId(inventoryEvent.getOrderId())
-                    .paymentId(paymentId)
-                    .paymentStatus(paymentStatus)
-                    .paymentMethod("CREDIT_CARD")
-                    .amount(calculateOrderAmount(inventoryEvent)) // En un caso real, esto vendría de la orden
-                    .errorMessage(isPaymentApproved ? null : "Fondos insuficientes")
-                    .timestamp(LocalDateTime.now())
-                    .build();
-
-            sendPaymentEvent(paymentEvent);
-
-        } catch (Exception e) {
-            log.error("❌ Error en procesamiento de pago: {}", e.getMessage());
-            sendFailedPaymentEvent(inventoryEvent, e.getMessage());
+        // Solo procesar si el inventario está disponible
+        if (Boolean.TRUE.equals(inventoryEvent.getAllProductsAvailable())) {
+            // El evento se reclama antes de cobrar: una reentrega que llegue con el pago aún en
+            // curso (rebalanceo, reintento) no cobra otra vez con un PAY- nuevo
+            switch (processedEventStore.tryClaim(inventoryEvent.getEventId())) {
+                case PROCESSED -> {
+                    log.info(LogMarkers.SAMPLED, "⏭️  Pago ya procesado para orden: {}",
+                            inventoryEvent.getOrderId());
+                    acknowledgment.acknowledge();
+                    return;
+                }
+                case IN_PROGRESS -> {
+                    // El manejador de errores lo reintenta hasta que el otro termine o venza su concesión
+                    log.info(LogMarkers.SAMPLED, "⏳ Pago en curso en otra entrega para orden: {}",
+                            inventoryEvent.getOrderId());
+                    throw new ClaimInProgressException(inventoryEvent.getEventId(),
+                            processedEventStore.getClaimLease());
+                }
+                case CLAIMED -> log.info(LogMarkers.SAMPLED, "🎯 Procesando pago para orden: {}",
+                        inventoryEvent.getOrderId());
+            }
+            // El offset se confirma cuando el PaymentProcessedEvent está publicado, y solo entonces el
+            // evento pasa a procesado. Si no se pudo publicar, se libera el evento y va a
+            // inventory-events.payment-service-group-dlt: la partición sigue avanzando y el pago se
+            // repite al republicarlo
+            try {
+                paymentPipeline.submit(new TopicPartition(record.topic(), record.partition()),
+                        inventoryEvent, error -> {
+                            if (error == null) {
+                                complete(inventoryEvent);
+                            } else {
+                                release(inventoryEvent);
+                                try {
+                                    deadLetterRecoverer.accept(record, error instanceof Exception e
+                                            ? e : new IllegalStateException(error));
+                                } catch (RuntimeException e) {
+                                    // Sin el ack se bloquearían los offsets posteriores de la partición
+                                    log.error("❌ No se pudo enviar al DLT el evento de la orden {}: {}",
+                                            inventoryEvent.getOrderId(), e.getMessage());
+                                }
+                            }
+                            acknowledgment.acknowledge();
+                        });
+            } catch (InterruptedException | RuntimeException e) {
+                // No llegó a encolarse: el contenedor lo vuelve a entregar y debe poder cobrarse
+                release(inventoryEvent);
+                throw e;
+            }
+        } else {
+            log.warn(LogMarkers.SAMPLED, "⏭️  Inventario insuficiente, saltando procesamiento de pago para orden: {}",
+                    inventoryEvent.getOrderId());
+            acknowledgment.acknowledge();
         }
     }
 
-    private Double calculateOrderAmount(InventoryUpdatedEvent inventoryEvent) {
-        // En un caso real, esto vendría de la base de datos o del evento de orden
-        // Por ahora simulamos un monto fijo basado en la orden
-        return 100.0 + (Math.random() * 200); // Monto entre 100 y 300
-    }
-
-    private void sendPaymentEvent(PaymentProcessedEvent paymentEvent) {
+    private void complete(InventoryUpdatedEvent inventoryEvent) {
         try {
-            String message = objectMapper.writeValueAsString(paymentEvent);
-            kafkaTemplate.send("payment-events", message);
-            log.info("📤 Enviado PaymentProcessedEvent para orden: {} - Status: {}", 
-                    paymentEvent.getOrderId(), paymentEvent.getPaymentStatus());
-        } catch (JsonProcessingException e) {
-            log.error("❌ Error enviando PaymentProcessedEvent: {}", e.getMessage());
+            processedEventStore.complete(inventoryEvent.getEventId());
+        } catch (RuntimeException e) {
+            // Sigue reclamado: una reentrega posterior a la concesión cobraría otra vez
+            log.error("❌ No se pudo marcar como procesado el evento de la orden {}: {}",
+                    inventoryEvent.getOrderId(), e.getMessage());
         }
     }
 
-    private void sendFailedPaymentEvent(InventoryUpdatedEvent inventoryEvent, String error) {
+    private void release(InventoryUpdatedEvent inventoryEvent) {
         try {
-            PaymentProcessedEvent failedEvent = PaymentProcessedEvent.builder()
-                    .orderId(inventoryEvent.getOrderId())
-                    .paymentId("PAY-FAILED")
-                    .paymentStatus("FAILED")
-                    .paymentMethod("CREDIT_CARD")
-                    .amount(0.0)
-                    .errorMessage(error)
-                    .timestamp(LocalDateTime.now())
-                    .build();
-            
-            String message = objectMapper.writeValueAsString(failedEvent);
-            kafkaTemplate.send("payment-events", message);
-            log.warn("📤 Enviado PaymentProcessedEvent con error para orden: {}", inventoryEvent.getOrderId());
-        } catch (JsonProcessingException e) {
-            log.error("❌ Error enviando evento de pago fallido: {}", e.getMessage());
+            processedEventStore.release(inventoryEvent.getEventId());
+        } catch (RuntimeException e) {
+            // Sigue reclamado: al republicarlo desde el DLT se reintenta hasta que venza la concesión
+            log.error("❌ No se pudo liberar el evento de la orden {}, el reintento esperará a la concesión: {}",
+                    inventoryEvent.getOrderId(), e.getMessage());
         }
     }
 }
@@ -0,0 +1,45 @@
+package com.ecommerce.payment.kafka;
+
+import com.ecommerce.common.event.payment.PaymentProcessedEvent;
+import com.ecommerce.common.logging.LogMarkers;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PaymentEventPublisher {
+
+    private static final String TOPIC = "payment-events";
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    /**
+     * Publica el evento; el future se completa cuando el broker confirma la escritura.
+     */
+    public CompletableFuture<Void> publish(PaymentProcessedEvent paymentEvent) {
+        CompletableFuture<SendResult<String, Object>> sent;
+        try {
+            // Clave = número de orden: todos los eventos de una orden van a la misma partición
+            sent = kafkaTemplate.send(TOPIC, paymentEvent.getOrderId(), paymentEvent);
+        } catch (Exception e) {
+            // Errores de serialización se lanzan de forma síncrona en send()
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return sent
+                .thenAccept(result -> {
+                    if ("FAILED".equals(paymentEvent.getPaymentStatus())) {
+                        log.warn(LogMarkers.SAMPLED, "📤 Enviado PaymentProcessedEvent con error para orden: {}", paymentEvent.getOrderId());
+                    } else {
+                        log.info(LogMarkers.SAMPLED, "📤 Enviado PaymentProcessedEvent para orden: {} - Status: {}",
+                                paymentEvent.getOrderId(), paymentEvent.getPaymentStatus());
+                    }
+                });
+    }
+}
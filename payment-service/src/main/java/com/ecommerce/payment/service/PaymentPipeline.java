@@ -0,0 +1,124 @@
+package com.ecommerce.payment.service;
+
+import com.ecommerce.common.event.product.InventoryUpdatedEvent;
+import com.ecommerce.common.tracing.SagaMetrics;
+import com.ecommerce.common.tracing.SagaTrace;
+import com.ecommerce.common.tracing.SagaTraceContext;
+import com.ecommerce.payment.kafka.PaymentEventPublisher;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Pipeline de pagos: el listener entrega el trabajo y vuelve a hacer poll sin esperar.
+ * Cada partición tiene una ventana acotada de pagos en vuelo, los pagos de una misma
+ * orden se encadenan para conservar su orden y el callback de confirmación solo se
+ * invoca cuando el PaymentProcessedEvent ya está publicado o ha fallado definitivamente.
+ * La traza del listener se captura al encolar y se reactiva en el hilo que publica.
+ */
+@Slf4j
+@Component
+public class PaymentPipeline {
+
+    private final PaymentProcessor paymentProcessor;
+    private final PaymentEventPublisher paymentEventPublisher;
+    private final Executor paymentExecutor;
+    private final SagaMetrics sagaMetrics;
+    private final int maxInFlightPerPartition;
+
+    private final Map<TopicPartition, Semaphore> windows = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+
+    public PaymentPipeline(PaymentProcessor paymentProcessor,
+                           PaymentEventPublisher paymentEventPublisher,
+                           @Qualifier("paymentExecutor") Executor paymentExecutor,
+                           SagaMetrics sagaMetrics,
+                           @Value("${payment.pipeline.max-in-flight-per-partition:64}") int maxInFlightPerPartition) {
+        this.paymentProcessor = paymentProcessor;
+        this.paymentEventPublisher = paymentEventPublisher;
+        this.paymentExecutor = paymentExecutor;
+        this.sagaMetrics = sagaMetrics;
+        this.maxInFlightPerPartition = maxInFlightPerPartition;
+    }
+
+    /**
+     * Encola el pago. Bloquea al llamador solo si la ventana de la partición está llena.
+     *
+     * @param onComplete recibe null cuando el resultado está publicado, o el error si no se pudo publicar
+     */
+    public void submit(TopicPartition partition, InventoryUpdatedEvent inventoryEvent,
+                       Consumer<Throwable> onComplete) throws InterruptedException {
+        Semaphore window = windows.computeIfAbsent(partition, p -> new Semaphore(maxInFlightPerPartition));
+        window.acquire();
+
+        String orderId = inventoryEvent.getOrderId();
+        SagaTrace trace = SagaTraceContext.current();
+        // Un pago anterior fallido no detiene la cadena de la orden
+        CompletableFuture<Void> next = tails.compute(orderId, (id, tail) -> tail == null
+                ? process(inventoryEvent, trace)
+                : tail.exceptionally(error -> null).thenCompose(ignored -> process(inventoryEvent, trace)));
+
+        // El callback escribe en BD y puede publicar en el DLT esperando el envío: fuera del hilo del producer.
+        // La ventana se libera después: drain() no vuelve hasta que los acks de la partición están encolados
+        next.whenCompleteAsync((ignored, error) -> {
+            tails.remove(orderId, next);
+            try {
+                onComplete.accept(error instanceof CompletionException ? error.getCause() : error);
+            } finally {
+                window.release();
+            }
+        }, paymentExecutor);
+    }
+
+    /**
+     * Espera a que terminen los pagos en vuelo de las particiones revocadas, para que sus
+     * offsets se confirmen antes de que otro consumidor las reciba.
+     */
+    public void drain(Collection<TopicPartition> partitions, long timeoutMs) {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        for (TopicPartition partition : partitions) {
+            Semaphore window = windows.remove(partition);
+            if (window == null) {
+                continue;
+            }
+            try {
+                long remaining = Math.max(0, deadline - System.currentTimeMillis());
+                if (!window.tryAcquire(maxInFlightPerPartition, remaining, TimeUnit.MILLISECONDS)) {
+                    log.warn("⚠️ Pagos aún en vuelo al revocar {}", partition);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // Un fallo del cobro se convierte en evento FAILED; solo termina con excepción si no se pudo publicar
+    private CompletableFuture<Void> process(InventoryUpdatedEvent inventoryEvent, SagaTrace trace) {
+        long start = System.nanoTime();
+        return paymentProcessor.process(inventoryEvent)
+                .whenComplete((ignored, e) -> sagaMetrics.recordStage(SagaMetrics.GATEWAY, "inventory-events",
+                        System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                .exceptionally(e -> paymentProcessor.failed(inventoryEvent, e.getMessage()))
+                .thenCompose(paymentEvent -> SagaTraceContext.callWith(trace,
+                        () -> paymentEventPublisher.publish(paymentEvent)))
+                .whenComplete((ignored, e) -> {
+                    if (e != null) {
+                        log.error("❌ Error enviando PaymentProcessedEvent para orden {}: {}",
+                                inventoryEvent.getOrderId(), e.getMessage());
+                    }
+                });
+    }
+}
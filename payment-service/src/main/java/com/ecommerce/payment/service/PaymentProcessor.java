@@ -0,0 +1,79 @@
+package com.ecommerce.payment.service;
+
+import com.ecommerce.common.event.product.InventoryUpdatedEvent;
+import com.ecommerce.common.event.payment.PaymentProcessedEvent;
+import com.ecommerce.common.logging.LogMarkers;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+public class PaymentProcessor {
+
+    private final Executor paymentExecutor;
+    private final long simulatedLatencyMs;
+
+    public PaymentProcessor(@Qualifier("paymentExecutor") Executor paymentExecutor,
+                            @Value("${payment.processing.simulated-latency-ms:1000}") long simulatedLatencyMs) {
+        this.paymentExecutor = paymentExecutor;
+        this.simulatedLatencyMs = simulatedLatencyMs;
+    }
+
+    /**
+     * Procesa el pago de forma asíncrona. La latencia de la pasarela se simula con un
+     * executor diferido, sin bloquear ningún hilo mientras tanto.
+     */
+    public CompletableFuture<PaymentProcessedEvent> process(InventoryUpdatedEvent inventoryEvent) {
+        Executor gateway = simulatedLatencyMs > 0
+                ? CompletableFuture.delayedExecutor(simulatedLatencyMs, TimeUnit.MILLISECONDS, paymentExecutor)
+                : paymentExecutor;
+        return CompletableFuture.supplyAsync(() -> authorize(inventoryEvent), gateway);
+    }
+
+    private PaymentProcessedEvent authorize(InventoryUpdatedEvent inventoryEvent) {
+        if (inventoryEvent.getTotalAmount() == null) {
+            // Evento de un product-service anterior al importe en la saga: no hay qué cobrar
+            return failed(inventoryEvent, "Importe de la orden desconocido");
+        }
+
+        // Simular procesamiento de pago (80% aprobado, 20% rechazado)
+        boolean isPaymentApproved = Math.random() > 0.2;
+        String paymentStatus = isPaymentApproved ? "APPROVED" : "REJECTED";
+        String paymentId = "PAY-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+
+        log.info(LogMarkers.SAMPLED, "💳 Procesando pago {} - Status: {}", paymentId, paymentStatus);
+
+        return PaymentProcessedEvent.builder()
+                .eventType(PaymentProcessedEvent.TYPE)
+                .orderId(inventoryEvent.getOrderId())
+                .paymentId(paymentId)
+                .paymentStatus(paymentStatus)
+                .paymentMethod("CREDIT_CARD")
+                .amount(inventoryEvent.getTotalAmount().doubleValue())
+                .errorMessage(isPaymentApproved ? null : "Fondos insuficientes")
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    public PaymentProcessedEvent failed(InventoryUpdatedEvent inventoryEvent, String error) {
+        log.error("❌ Error en procesamiento de pago: {}", error);
+        return PaymentProcessedEvent.builder()
+                .eventType(PaymentProcessedEvent.TYPE)
+                .orderId(inventoryEvent.getOrderId())
+                .paymentId("PAY-FAILED")
+                .paymentStatus("FAILED")
+                .paymentMethod("CREDIT_CARD")
+                .amount(0.0)
+                .errorMessage(error)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,46 @@
+package com.ecommerce.product.config;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+
+import java.util.Properties;
+
+@Configuration
+public class KafkaConfig {
+
+    // Tamaño máximo del lote (max.poll.records)
+    @Value("${inventory.batch.max-size:500}")
+    private int maxBatchSize;
+
+    // Espera máxima del broker para completar un fetch (fetch.max.wait.ms)
+    @Value("${inventory.batch.max-wait-ms:100}")
+    private int maxWaitMs;
+
+    // Bytes mínimos que el broker acumula antes de responder (fetch.min.bytes). Con 1 responde
+    // en cuanto hay un mensaje y max-wait-ms no llega a esperar: el lote sería lo que haya en ese momento
+    @Value("${inventory.batch.min-bytes:65536}")
+    private int minBytes;
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> batchKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory) {
+        // El configurer aplica lo mismo que a la factory por defecto (rebalance listener, error handler...)
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+
+        // Los overrides deben ser String para que DefaultKafkaConsumerFactory los aplique
+        Properties overrides = new Properties();
+        overrides.setProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(maxBatchSize));
+        overrides.setProperty(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, String.valueOf(maxWaitMs));
+        overrides.setProperty(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, String.valueOf(minBytes));
+        factory.getContainerProperties().setKafkaConsumerProperties(overrides);
+        return factory;
+    }
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.product.controller;
+
+import com.ecommerce.product.model.Product;
+import com.ecommerce.product.service.ProductPriceService;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+
+@RestController
+@RequestMapping("/api/products")
+@RequiredArgsConstructor
+public class ProductController {
+
+    private final ProductPriceService productPriceService;
+
+    @PutMapping("/{sku}/price")
+    public ResponseEntity<Product> updatePrice(@PathVariable String sku, @RequestBody PriceUpdateRequest request) {
+        if (request.getPrice() == null || request.getPrice().signum() < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return productPriceService.updatePrice(sku, request.getPrice())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Data
+    public static class PriceUpdateRequest {
+        private BigDecimal price;
+    }
+}
@@ -1,32 +0,0 @@
-package com.ecommerce.product.dto;
-
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-import java.math.BigDecimal;
-import java.util.List;
-
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
-public class OrderCreatedEvent {
-    private String eventId;
-    private String eventType;
-    private String orderId;
-    private String customerId;
-    private List<OrderItem> items;
-    private BigDecimal totalAmount;
-
-    @Data
-    @Builder
-    @NoArgsConstructor
-    @AllArgsConstructor
-    public static class OrderItem {
-        private String productId;
-        private Integer quantity;
-        private BigDecimal price;
-    }
-}
@@ -0,0 +1,83 @@
+package com.ecommerce.product.kafka;
+
+import com.ecommerce.common.event.product.InventoryUpdatedEvent;
+import com.ecommerce.common.logging.LogMarkers;
+import com.ecommerce.common.tracing.SagaTrace;
+import com.ecommerce.common.tracing.SagaTraceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InventoryEventPublisher {
+
+    private static final String TOPIC = "inventory-events";
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    /**
+     * Envía el evento y espera la confirmación del broker. Si el envío falla se lanza la
+     * excepción: el evento de la orden no se marca como procesado y se reintenta.
+     */
+    public void publish(InventoryUpdatedEvent inventoryEvent) {
+        await(send(inventoryEvent), "InventoryUpdatedEvent de la orden " + inventoryEvent.getOrderId());
+    }
+
+    /**
+     * Envía todos los eventos del lote y espera a que el producer los despache juntos,
+     * de modo que los offsets del lote solo se confirman después de publicar. Si algún envío
+     * falla se lanza la excepción: el lote se vuelve a entregar en vez de perder eventos.
+     *
+     * @param traces traza de la saga de cada orden, por número de orden
+     */
+    public void publishAll(List<InventoryUpdatedEvent> inventoryEvents, Map<String, SagaTrace> traces) {
+        List<CompletableFuture<SendResult<String, Object>>> sends = new ArrayList<>(inventoryEvents.size());
+        for (InventoryUpdatedEvent inventoryEvent : inventoryEvents) {
+            try (SagaTraceContext.Scope ignored = SagaTraceContext.activate(traces.get(inventoryEvent.getOrderId()))) {
+                sends.add(send(inventoryEvent));
+            }
+        }
+        kafkaTemplate.flush();
+        for (CompletableFuture<SendResult<String, Object>> sent : sends) {
+            await(sent, "lote de InventoryUpdatedEvent");
+        }
+        log.info(LogMarkers.SAMPLED, "📤 Publicado lote de {} InventoryUpdatedEvent", inventoryEvents.size());
+    }
+
+    private static void await(CompletableFuture<SendResult<String, Object>> sent, String what) {
+        try {
+            sent.get();
+        } catch (ExecutionException e) {
+            throw new KafkaException("Error publicando " + what, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KafkaException("Interrumpido publicando " + what, e);
+        }
+    }
+
+    private CompletableFuture<SendResult<String, Object>> send(InventoryUpdatedEvent inventoryEvent) {
+        // Clave = número de orden: todos los eventos de una orden van a la misma partición
+        CompletableFuture<SendResult<String, Object>> sent = kafkaTemplate.send(TOPIC, inventoryEvent.getOrderId(), inventoryEvent);
+
+        if (inventoryEvent.getErrorMessage() != null) {
+            log.warn(LogMarkers.SAMPLED, "📤 Enviado InventoryUpdatedEvent con error para orden: {}", inventoryEvent.getOrderId());
+        } else {
+            log.info(LogMarkers.SAMPLED, "📤 Enviado InventoryUpdatedEvent para orden: {} - Status: {}",
+                    inventoryEvent.getOrderId(),
+                    Boolean.TRUE.equals(inventoryEvent.getAllProductsAvailable()) ? "APPROVED" : "REJECTED");
+            log.info(LogMarkers.PAYLOAD, "📊 Resumen inventario: {}", inventoryEvent.getInventoryStatus());
+        }
+        return sent;
+    }
+}
@@ -0,0 +1,105 @@
+package com.ecommerce.product.kafka;
+
+import com.ecommerce.common.event.product.InventoryUpdatedEvent;
+import com.ecommerce.common.event.order.OrderCreatedEvent;
+import com.ecommerce.common.idempotency.ProcessedEventStore;
+import com.ecommerce.common.logging.LogMarkers;
+import com.ecommerce.common.tracing.SagaMetrics;
+import com.ecommerce.common.tracing.SagaTrace;
+import com.ecommerce.product.service.InventoryService;
+import com.ecommerce.product.service.StockLedgerOwnedException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Variante por lotes de {@link OrderEventConsumer}: recibe todo un poll de order-events,
+ * verifica el stock de todas las órdenes con una sola consulta y publica los resultados juntos.
+ * Las órdenes ya procesadas (reentregas) se descartan antes de la verificación. Cada
+ * resultado se publica con la traza del evento de su orden. Un mensaje ilegible se señala con
+ * {@link BatchListenerFailedException} después de publicar el resto: el error handler lo manda
+ * al DLT del grupo, y el replay llega por order-events.product-service-group-retry-0 (el mismo
+ * topic que usa {@link OrderEventConsumer} como primer reintento). Se activa con
+ * inventory.batch.enabled=true.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "inventory.batch", name = "enabled", havingValue = "true")
+public class OrderEventBatchConsumer {
+
+    private final InventoryService inventoryService;
+    private final InventoryEventPublisher inventoryEventPublisher;
+    private final ProcessedEventStore processedEventStore;
+    private final SagaMetrics sagaMetrics;
+
+    @KafkaListener(topics = {"order-events", "order-events.product-service-group-retry-0"},
+            groupId = "product-service-group",
+            containerFactory = "batchKafkaListenerContainerFactory")
+    public void consumeOrderEvents(List<ConsumerRecord<String, Object>> records) {
+        log.info(LogMarkers.SAMPLED, "📥 Lote recibido en product-service: {} mensajes", records.size());
+
+        List<OrderCreatedEvent> orderEvents = new ArrayList<>(records.size());
+        Map<String, SagaTrace> traces = new HashMap<>();
+        ConsumerRecord<String, Object> unreadable = null;
+        for (ConsumerRecord<String, Object> record : records) {
+            // Los tipos no consumidos ya se filtraron por cabecera; aquí solo quedan
+            // los mensajes ilegibles (null), que no deben tumbar el resto del lote
+            if (record.value() instanceof OrderCreatedEvent orderEvent) {
+                if (processedEventStore.isProcessed(orderEvent.getEventId())) {
+                    log.info(LogMarkers.SAMPLED, "⏭️  ORDER_CREATED ya procesado para orden: {}", orderEvent.getOrderId());
+                } else {
+                    orderEvents.add(orderEvent);
+                    traces.put(orderEvent.getOrderId(), SagaTrace.from(record.headers()));
+                }
+            } else {
+                log.warn("⏭️  Mensaje no reconocido en order-events: {}-{}@{}",
+                        record.topic(), record.partition(), record.offset());
+                if (unreadable == null) {
+                    unreadable = record;
+                }
+            }
+        }
+
+        if (!orderEvents.isEmpty()) {
+            process(orderEvents, traces);
+        }
+        // Spring no comprueba la cabecera de error del deserializador en los listeners por lotes.
+        // Los registros anteriores se confirman; los posteriores se vuelven a entregar y se descartan
+        // como ya procesados
+        if (unreadable != null) {
+            throw new BatchListenerFailedException("Mensaje ilegible en order-events", unreadable);
+        }
+    }
+
+    private void process(List<OrderCreatedEvent> orderEvents, Map<String, SagaTrace> traces) {
+        List<InventoryUpdatedEvent> inventoryEvents;
+        try {
+            inventoryEvents = sagaMetrics.timeStage(SagaMetrics.DB, "order-events",
+                    () -> inventoryService.checkInventory(orderEvents));
+        } catch (StockLedgerOwnedException | DataAccessException | TransactionException e) {
+            // Se reintenta el lote entero: las órdenes ya reservadas reutilizan su reserva
+            throw e;
+        } catch (Exception e) {
+            log.error("❌ Error en verificación de inventario del lote: {}", e.getMessage());
+            inventoryEvents = orderEvents.stream()
+                    .map(orderEvent -> inventoryService.failedEvent(orderEvent.getOrderId(), e.getMessage()))
+                    .collect(Collectors.toList());
+        }
+
+        inventoryEventPublisher.publishAll(inventoryEvents, traces);
+        processedEventStore.markProcessed(orderEvents.stream().map(OrderCreatedEvent::getEventId).toList());
+    }
+}
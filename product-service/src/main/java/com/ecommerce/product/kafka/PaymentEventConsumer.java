@@ -0,0 +1,32 @@
+package com.ecommerce.product.kafka;
+
+import com.ecommerce.common.event.payment.PaymentProcessedEvent;
+import com.ecommerce.common.logging.LogMarkers;
+import com.ecommerce.common.tracing.SagaMetrics;
+import com.ecommerce.product.service.StockReservationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Compensación de la saga: libera el stock reservado cuando el pago es rechazado o falla.
+ * Si la liberación falla, el evento se reintenta en payment-events.product-service-group-retry-N.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PaymentEventConsumer {
+
+    private final StockReservationService reservationService;
+    private final SagaMetrics sagaMetrics;
+
+    @KafkaListener(topics = "payment-events", groupId = "product-service-group")
+    public void consumePaymentEvent(PaymentProcessedEvent paymentEvent) {
+        if ("REJECTED".equals(paymentEvent.getPaymentStatus()) || "FAILED".equals(paymentEvent.getPaymentStatus())) {
+            log.info(LogMarkers.SAMPLED, "↩️ Pago {} para orden {}, liberando stock", paymentEvent.getPaymentStatus(), paymentEvent.getOrderId());
+            sagaMetrics.timeStage(SagaMetrics.DB, "payment-events",
+                    () -> reservationService.release(paymentEvent.getOrderId()));
+        }
+    }
+}
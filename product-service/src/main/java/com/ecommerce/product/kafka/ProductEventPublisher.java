@@ -0,0 +1,36 @@
+package com.ecommerce.product.kafka;
+
+import com.ecommerce.common.event.product.ProductPriceChangedEvent;
+import com.ecommerce.common.serialization.EventSchemas;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publica los precios en el changelog compactado product-events, con clave = SKU.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductEventPublisher {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    public void publish(ProductPriceChangedEvent priceEvent) {
+        kafkaTemplate.send(EventSchemas.ProductPriceChanged.TOPIC, priceEvent.getSku(), priceEvent)
+                .whenComplete((result, error) -> {
+                    if (error != null) {
+                        log.error("❌ Error publicando precio de {}: {}", priceEvent.getSku(), error.getMessage());
+                    }
+                });
+    }
+
+    public void publishAll(List<ProductPriceChangedEvent> priceEvents) {
+        priceEvents.forEach(this::publish);
+        kafkaTemplate.flush();
+        log.info("🏷️ Publicados {} precios en {}", priceEvents.size(), EventSchemas.ProductPriceChanged.TOPIC);
+    }
+}
@@ -0,0 +1,54 @@
+package com.ecommerce.product.kafka;
+
+import com.ecommerce.common.idempotency.ProcessedEventStore;
+import com.ecommerce.product.service.StockLedger;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Sincroniza el ledger de stock, si esta instancia lo tiene activo, con las asignaciones de
+ * order-events: vuelca los deltas pendientes al perder particiones y reconstruye desde
+ * BD + changelog al recibirlas.
+ * Sustituye al rebalance listener de kafka-common, así que también refresca el registro
+ * de eventos procesados.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "inventory.ledger", name = "enabled", havingValue = "true")
+public class StockLedgerRebalanceListener implements ConsumerAwareRebalanceListener {
+
+    private static final String TOPIC = "order-events";
+
+    private final StockLedger stockLedger;
+    private final ProcessedEventStore processedEventStore;
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (containsOrderEvents(partitions)) {
+            stockLedger.flush();
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (containsOrderEvents(partitions)) {
+            log.info("📒 Particiones asignadas: {}, reconstruyendo ledger", partitions);
+            stockLedger.rebuild();
+        }
+        if (!partitions.isEmpty()) {
+            processedEventStore.refresh();
+        }
+    }
+
+    private static boolean containsOrderEvents(Collection<TopicPartition> partitions) {
+        return partitions.stream().anyMatch(partition -> TOPIC.equals(partition.topic()));
+    }
+}
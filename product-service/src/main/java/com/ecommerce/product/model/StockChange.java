@@ -0,0 +1,39 @@
+package com.ecommerce.product.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Changelog del ledger de stock en memoria: cada reserva/liberación deja aquí su delta
+ * hasta que el flush periódico lo aplica a products.stock y borra la fila. Las filas
+ * {@code remote} son liberaciones de otras instancias que el ledger aún no tiene en memoria.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "stock_changelog", indexes = @Index(name = "idx_stock_changelog_sku", columnList = "sku"))
+public class StockChange {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String sku;
+
+    @Column(nullable = false)
+    private Integer delta;
+
+    // Con default para que ddl-auto pueda añadir la columna a un changelog con filas
+    @Column(nullable = false, columnDefinition = "boolean not null default false")
+    private boolean remote;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
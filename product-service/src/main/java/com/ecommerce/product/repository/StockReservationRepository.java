@@ -0,0 +1,18 @@
+package com.ecommerce.product.repository;
+
+import com.ecommerce.product.model.StockReservation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+    List<StockReservation> findByOrderId(String orderId);
+
+    // SELECT ... FOR UPDATE: serializa liberaciones concurrentes de la misma orden
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<StockReservation> findByOrderIdAndStatus(String orderId, StockReservation.Status status);
+}
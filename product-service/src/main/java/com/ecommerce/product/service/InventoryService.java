@@ -0,0 +1,144 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.common.event.product.InventoryUpdatedEvent;
+import com.ecommerce.common.event.order.OrderCreatedEvent;
+import com.ecommerce.common.logging.LogMarkers;
+import com.ecommerce.product.model.Product;
+import com.ecommerce.product.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InventoryService {
+
+    private final ProductRepository productRepository;
+    private final StockReservationService reservationService;
+    private final Optional<StockLedger> stockLedger;
+
+    public InventoryUpdatedEvent checkInventory(OrderCreatedEvent orderEvent) {
+        return checkInventory(List.of(orderEvent)).get(0);
+    }
+
+    /**
+     * Verifica el inventario de varias órdenes con una sola consulta a la BD:
+     * se cargan todos los SKUs del lote con findBySkuIn y el stock se compara en memoria.
+     * Esa lectura solo descarta rápido las órdenes sin stock; las que pasan se reservan
+     * con decrementos condicionales atómicos en {@link StockReservationService}.
+     */
+    public List<InventoryUpdatedEvent> checkInventory(List<OrderCreatedEvent> orderEvents) {
+        Set<String> skus = new HashSet<>();
+        for (OrderCreatedEvent orderEvent : orderEvents) {
+            if (orderEvent.getItems() != null) {
+                orderEvent.getItems().forEach(item -> skus.add(item.getProductId()));
+            }
+        }
+
+        // Los SKUs calientes se leen del ledger en memoria, sin pasar por la BD
+        Map<String, Integer> stockBySku = new HashMap<>();
+        stockLedger.ifPresent(ledger -> skus.removeIf(sku -> {
+            if (!ledger.covers(sku)) {
+                return false;
+            }
+            stockBySku.put(sku, ledger.available(sku));
+            return true;
+        }));
+
+        stockBySku.putAll(skus.isEmpty()
+                ? Map.of()
+                : productRepository.findBySkuIn(skus).stream()
+                        .filter(product -> product.getStock() != null)
+                        .collect(Collectors.toMap(Product::getSku, Product::getStock, (a, b) -> a)));
+
+        log.debug("🔍 Verificando inventario de {} órdenes ({} SKUs distintos)", orderEvents.size(), stockBySku.size());
+
+        return orderEvents.stream()
+                .map(orderEvent -> reserve(orderEvent, evaluate(orderEvent, stockBySku::get)))
+                .collect(Collectors.toList());
+    }
+
+    private InventoryUpdatedEvent reserve(OrderCreatedEvent orderEvent, InventoryUpdatedEvent inventoryEvent) {
+        if (!Boolean.TRUE.equals(inventoryEvent.getAllProductsAvailable())) {
+            return inventoryEvent;
+        }
+
+        try {
+            Map<String, Boolean> reserved = reservationService.reserve(orderEvent.getOrderId(), orderEvent.getItems());
+            inventoryEvent.setInventoryStatus(reserved);
+            inventoryEvent.setAllProductsAvailable(!reserved.containsValue(false));
+            return inventoryEvent;
+        } catch (StockLedgerOwnedException e) {
+            // No es un fallo de la orden: el evento se reintenta hasta que el ledger la pueda atender
+            throw e;
+        } catch (Exception e) {
+            return failedEvent(orderEvent.getOrderId(), "Error reservando stock: " + e.getMessage());
+        }
+    }
+
+    private InventoryUpdatedEvent evaluate(OrderCreatedEvent orderEvent, Function<String, Integer> stockLookup) {
+        log.info(LogMarkers.SAMPLED, "🔍 Verificando inventario para orden: {}", orderEvent.getOrderId());
+
+        if (orderEvent.getItems() == null || orderEvent.getItems().isEmpty()) {
+            return failedEvent(orderEvent.getOrderId(), "La orden no contiene items");
+        }
+
+        Map<String, Boolean> inventoryStatus = new HashMap<>();
+        boolean allProductsAvailable = true;
+
+        // Verificar stock para cada item (productId es el SKU)
+        for (OrderCreatedEvent.OrderItem item : orderEvent.getItems()) {
+            String productId = item.getProductId();
+            Integer quantity = item.getQuantity();
+
+            Integer stock = stockLookup.apply(productId);
+            if (stock == null) {
+                return failedEvent(orderEvent.getOrderId(), "Producto no encontrado: " + productId);
+            }
+
+            boolean isAvailable = stock >= Objects.requireNonNullElse(quantity, 0);
+            inventoryStatus.put(productId, isAvailable);
+
+            if (!isAvailable) {
+                allProductsAvailable = false;
+                log.warn(LogMarkers.SAMPLED, "⚠️ Stock insuficiente para Producto: {}. Stock actual: {}, Requerido: {}",
+                        productId, stock, quantity);
+            } else {
+                log.debug("✅ Stock suficiente para Producto: {} - Stock: {}", productId, stock);
+            }
+        }
+
+        return InventoryUpdatedEvent.builder()
+                .eventType(InventoryUpdatedEvent.TYPE)
+                .orderId(orderEvent.getOrderId())
+                .inventoryStatus(inventoryStatus)
+                .allProductsAvailable(allProductsAvailable)
+                .totalAmount(orderEvent.getTotalAmount())
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    public InventoryUpdatedEvent failedEvent(String orderId, String error) {
+        log.error("❌ Error en verificación de inventario para orden {}: {}", orderId, error);
+        return InventoryUpdatedEvent.builder()
+                .eventType(InventoryUpdatedEvent.TYPE)
+                .orderId(orderId)
+                .inventoryStatus(new HashMap<>())
+                .allProductsAvailable(false)
+                .errorMessage(error)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
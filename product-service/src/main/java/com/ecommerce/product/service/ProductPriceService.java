@@ -0,0 +1,74 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.common.event.product.ProductPriceChangedEvent;
+import com.ecommerce.product.kafka.ProductEventPublisher;
+import com.ecommerce.product.model.Product;
+import com.ecommerce.product.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * Fuente de los precios que usa order-service para tarificar: cada cambio de precio se
+ * publica en product-events. Al arrancar se republica el catálogo completo, así el topic
+ * compactado tiene el precio de los productos cargados por data.sql o cambiados a mano en la BD.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductPriceService {
+
+    private final ProductRepository productRepository;
+    private final ProductEventPublisher productEventPublisher;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void publishCatalog() {
+        productEventPublisher.publishAll(productRepository.findAll().stream()
+                .filter(product -> product.getPrice() != null)
+                .map(ProductPriceService::priceEvent)
+                .toList());
+    }
+
+    /**
+     * Cambia el precio y lo publica cuando la transacción confirma: order-service nunca ve
+     * un precio que luego se deshace.
+     *
+     * @return el producto actualizado, o vacío si el SKU no existe
+     */
+    @Transactional
+    public Optional<Product> updatePrice(String sku, BigDecimal price) {
+        return productRepository.findBySku(sku).map(product -> {
+            if (product.getPrice() != null && BigDecimal.valueOf(product.getPrice()).compareTo(price) == 0) {
+                return product;
+            }
+            product.setPrice(price.doubleValue());
+            Product saved = productRepository.save(product);
+            ProductPriceChangedEvent priceEvent = priceEvent(saved);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    productEventPublisher.publish(priceEvent);
+                }
+            });
+            log.info("🏷️ Precio de {} actualizado a ${}", sku, price);
+            return saved;
+        });
+    }
+
+    private static ProductPriceChangedEvent priceEvent(Product product) {
+        return ProductPriceChangedEvent.builder()
+                .eventType(ProductPriceChangedEvent.TYPE)
+                .sku(product.getSku())
+                .name(product.getName())
+                .price(BigDecimal.valueOf(product.getPrice()))
+                .build();
+    }
+}
@@ -0,0 +1,242 @@
+package com.ecommerce.product.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ledger de stock en memoria para los SKUs calientes. Los decrementos se hacen con CAS
+ * sobre un AtomicIntegerArray (un slot por SKU, separados para evitar false sharing) y
+ * los cambios llegan a products.stock en batch mediante stock_changelog (write-behind).
+ *
+ * <p>El ledger es de todo el proceso: order-events se particiona por número de orden, así
+ * que un mismo SKU llega por todas las particiones. Solo está activo mientras esta instancia
+ * tiene el {@link StockLedgerLease}; inactivo no cubre ningún SKU y todo va por el UPDATE
+ * condicional. Las liberaciones que hacen otras instancias sobre sus SKUs llegan como filas
+ * {@code remote} del changelog y se suman en memoria al volcarlas.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "inventory.ledger", name = "enabled", havingValue = "true")
+public class StockLedger {
+
+    // 16 ints = 64 bytes: cada SKU en su propia línea de caché
+    private static final int STRIDE = 16;
+
+    // Las filas remote aún no están en memoria: se suman cuando el flush las aplica
+    private static final String REBUILD_SQL =
+            "SELECT p.sku, p.stock + COALESCE((SELECT SUM(c.delta) FROM stock_changelog c " +
+            "WHERE c.sku = p.sku AND NOT c.remote), 0) " +
+            "FROM products p WHERE p.stock IS NOT NULL";
+    private static final String FLUSH_SQL =
+            "WITH drained AS (DELETE FROM stock_changelog RETURNING sku, delta, remote), " +
+            "applied AS (UPDATE products p SET stock = p.stock + d.delta, updated_at = now() " +
+            "FROM (SELECT sku, SUM(delta) AS delta FROM drained GROUP BY sku) d " +
+            "WHERE p.sku = d.sku) " +
+            "SELECT sku, SUM(delta) FROM drained WHERE remote GROUP BY sku";
+    private static final String APPEND_SQL =
+            "INSERT INTO stock_changelog (sku, delta, remote, created_at) VALUES (?, ?, false, now())";
+
+    private static final Snapshot EMPTY = new Snapshot(Map.of(), new AtomicIntegerArray(0));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Set<String> hotSkus;
+
+    // Las reservas toman el read lock hasta que su transacción termina; rebuild toma el write lock
+    private final ReentrantReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+    private volatile Snapshot snapshot = EMPTY;
+    private volatile boolean active;
+
+    public StockLedger(JdbcTemplate jdbcTemplate, @Value("${inventory.ledger.skus:}") List<String> hotSkus) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.hotSkus = new HashSet<>(hotSkus);
+    }
+
+    /**
+     * Carga el ledger y empieza a cubrir sus SKUs. Solo debe llamarlo quien tiene el lease.
+     */
+    public void activate() {
+        rebuildLock.writeLock().lock();
+        try {
+            load();
+            active = true;
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Deja de cubrir SKUs en cuanto terminan las reservas en curso. Lo ya reservado sigue en el
+     * changelog hasta que otro dueño lo vuelque, y el UPDATE condicional lo descuenta mientras.
+     */
+    public void deactivate() {
+        rebuildLock.writeLock().lock();
+        try {
+            active = false;
+            snapshot = EMPTY;
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Recarga el ledger desde products.stock más los deltas aún no volcados del changelog.
+     */
+    public void rebuild() {
+        rebuildLock.writeLock().lock();
+        try {
+            if (active) {
+                load();
+            }
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    private void load() {
+        Map<String, Integer> stockBySku = new LinkedHashMap<>();
+        jdbcTemplate.query(REBUILD_SQL, rs -> {
+            String sku = rs.getString(1);
+            if (hotSkus.isEmpty() || hotSkus.contains(sku)) {
+                stockBySku.put(sku, rs.getInt(2));
+            }
+        });
+
+        Map<String, Integer> slots = new HashMap<>(stockBySku.size() * 2);
+        AtomicIntegerArray stock = new AtomicIntegerArray(Math.max(1, stockBySku.size()) * STRIDE);
+        int slot = 0;
+        for (Map.Entry<String, Integer> entry : stockBySku.entrySet()) {
+            slots.put(entry.getKey(), slot * STRIDE);
+            stock.set(slot * STRIDE, entry.getValue());
+            slot++;
+        }
+        snapshot = new Snapshot(slots, stock);
+        log.info("📒 Ledger de stock reconstruido: {} SKUs", slots.size());
+    }
+
+    /**
+     * Vuelca a products.stock los deltas acumulados en el changelog, en una sola sentencia, y
+     * suma en memoria las liberaciones de otras instancias. El read lock impide que un rebuild
+     * se cuele entre las dos cosas y las cuente dos veces.
+     */
+    @Scheduled(fixedDelayString = "${inventory.ledger.flush-interval-ms:500}")
+    public void flush() {
+        rebuildLock.readLock().lock();
+        try {
+            if (!active) {
+                return;
+            }
+            Map<String, Integer> remote = new HashMap<>();
+            jdbcTemplate.query(FLUSH_SQL, rs -> {
+                remote.put(rs.getString(1), rs.getInt(2));
+            });
+            increment(remote);
+            if (!remote.isEmpty()) {
+                log.debug("💾 Ledger volcado a products, {} SKUs liberados por otras instancias", remote.size());
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    public boolean covers(String sku) {
+        return snapshot.slots.containsKey(sku);
+    }
+
+    /**
+     * Descuenta todas las cantidades o ninguna. Todos los SKUs deben estar cubiertos por el ledger.
+     */
+    public Map<String, Boolean> tryDecrement(Map<String, Integer> quantities) {
+        Snapshot current = snapshot;
+        Map<String, Boolean> status = new LinkedHashMap<>();
+        List<Map.Entry<String, Integer>> decremented = new ArrayList<>(quantities.size());
+        boolean allReserved = true;
+        for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+            int index = current.slots.get(entry.getKey());
+            int quantity = entry.getValue();
+            boolean reserved = allReserved && quantity > 0 && decrement(current.stock, index, quantity);
+            if (reserved) {
+                decremented.add(entry);
+            } else {
+                allReserved = false;
+            }
+            status.put(entry.getKey(), reserved || (quantity > 0 && current.stock.get(index) >= quantity));
+        }
+
+        if (!allReserved) {
+            decremented.forEach(entry -> current.stock.addAndGet(current.slots.get(entry.getKey()), entry.getValue()));
+        }
+        return status;
+    }
+
+    public void increment(Map<String, Integer> quantities) {
+        Snapshot current = snapshot;
+        quantities.forEach((sku, quantity) -> {
+            Integer index = current.slots.get(sku);
+            if (index != null) {
+                current.stock.addAndGet(index, quantity);
+            }
+        });
+    }
+
+    /**
+     * Registra los deltas en el changelog dentro de la transacción en curso.
+     */
+    public void append(Map<String, Integer> deltas) {
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((sku, delta) -> args.add(new Object[]{sku, delta}));
+        jdbcTemplate.batchUpdate(APPEND_SQL, args);
+    }
+
+    public int available(String sku) {
+        Snapshot current = snapshot;
+        Integer index = current.slots.get(sku);
+        return index == null ? -1 : current.stock.get(index);
+    }
+
+    public void enterUpdate() {
+        rebuildLock.readLock().lock();
+    }
+
+    public void exitUpdate() {
+        rebuildLock.readLock().unlock();
+    }
+
+    private static boolean decrement(AtomicIntegerArray stock, int index, int quantity) {
+        int current;
+        do {
+            current = stock.get(index);
+            if (current < quantity) {
+                return false;
+            }
+        } while (!stock.compareAndSet(index, current, current - quantity));
+        return true;
+    }
+
+    private static final class Snapshot {
+        private final Map<String, Integer> slots;
+        private final AtomicIntegerArray stock;
+
+        private Snapshot(Map<String, Integer> slots, AtomicIntegerArray stock) {
+            this.slots = slots;
+            this.stock = stock;
+        }
+    }
+}
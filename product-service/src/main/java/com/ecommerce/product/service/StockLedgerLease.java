@@ -0,0 +1,154 @@
+package com.ecommerce.product.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Propiedad del {@link StockLedger}: como mucho una instancia lo tiene activo. Es un advisory
+ * lock de sesión de Postgres en una conexión propia, fuera del pool: si el proceso muere o
+ * pierde la conexión, Postgres lo suelta y otra instancia con el ledger habilitado lo toma.
+ *
+ * <p>{@link StockReservationService} toma el mismo lock en modo compartido en cada UPDATE
+ * condicional. Con un ledger activo en otra instancia no toca los SKUs de la tabla
+ * stock_ledger_lease, y el ledger se carga cuando ya no queda ningún UPDATE en curso.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "inventory.ledger", name = "enabled", havingValue = "true")
+public class StockLedgerLease implements InitializingBean, DisposableBean {
+
+    // Clave del advisory lock en su forma de dos enteros: "STKL", 1
+    static final int LOCK_CLASS = 0x53544B4C;
+    static final int LOCK_ID = 1;
+
+    // Se suelta al terminar la transacción; false mientras hay un ledger activo o esperando el lock
+    static final String TRY_SHARED_LOCK = "pg_try_advisory_xact_lock_shared(" + LOCK_CLASS + ", " + LOCK_ID + ")";
+
+    // SKUs del ledger activo (vacío = todos). Sin fila si el dueño aún no la ha escrito tras tomar el lock
+    static final String OWNED_SKUS_SQL =
+            "SELECT l.skus FROM stock_ledger_lease l WHERE l.id = 1 AND l.pid IN (" +
+            "SELECT k.pid FROM pg_locks k WHERE k.locktype = 'advisory' AND k.mode = 'ExclusiveLock' " +
+            "AND k.granted AND k.classid = " + LOCK_CLASS + " AND k.objid = " + LOCK_ID + " AND k.objsubid = 2)";
+
+    private static final String CREATE_SQL =
+            "CREATE TABLE IF NOT EXISTS stock_ledger_lease (" +
+            "id SMALLINT PRIMARY KEY, pid INTEGER NOT NULL, skus TEXT NOT NULL, acquired_at TIMESTAMP NOT NULL)";
+    private static final String LOCK_SQL = "SELECT pg_advisory_lock(" + LOCK_CLASS + ", " + LOCK_ID + ")";
+    private static final String WRITE_SQL =
+            "INSERT INTO stock_ledger_lease (id, pid, skus, acquired_at) VALUES (1, pg_backend_pid(), ?, now()) " +
+            "ON CONFLICT (id) DO UPDATE SET pid = EXCLUDED.pid, skus = EXCLUDED.skus, acquired_at = EXCLUDED.acquired_at";
+
+    // Espera por el lock en cada intento: encola la petición para que los UPDATE nuevos no la adelanten
+    private static final int LOCK_WAIT_MS = 2000;
+
+    private final DataSourceProperties dataSourceProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private final StockLedger stockLedger;
+    private final String skus;
+
+    // Protegidos por this
+    private Connection connection;
+    private boolean standby;
+
+    public StockLedgerLease(DataSourceProperties dataSourceProperties,
+                            JdbcTemplate jdbcTemplate,
+                            StockLedger stockLedger,
+                            @Value("${inventory.ledger.skus:}") List<String> skus) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.stockLedger = stockLedger;
+        this.skus = String.join(",", skus);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        jdbcTemplate.execute(CREATE_SQL);
+    }
+
+    /**
+     * Comprueba que la conexión del lock sigue viva o, sin lock, intenta tomarlo.
+     */
+    @Scheduled(fixedDelayString = "${inventory.ledger.lease-check-interval-ms:1000}")
+    public synchronized void maintain() {
+        if (connection != null) {
+            if (isValid(connection)) {
+                return;
+            }
+            log.error("❌ Conexión del lease del ledger perdida: el ledger pasa a inactivo");
+            stockLedger.deactivate();
+            close(connection);
+            connection = null;
+        }
+        acquire();
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (connection != null) {
+            stockLedger.flush();
+            stockLedger.deactivate();
+            close(connection);
+            connection = null;
+        }
+    }
+
+    private void acquire() {
+        Connection candidate = null;
+        try {
+            candidate = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+            try (Statement statement = candidate.createStatement()) {
+                statement.execute("SET lock_timeout = " + LOCK_WAIT_MS);
+                statement.execute(LOCK_SQL);
+            }
+            try (PreparedStatement statement = candidate.prepareStatement(WRITE_SQL)) {
+                statement.setString(1, skus);
+                statement.executeUpdate();
+            }
+            stockLedger.activate();
+            connection = candidate;
+            standby = false;
+            log.info("📒 Lease del ledger adquirido: esta instancia lleva {}", skus.isEmpty() ? "todos los SKUs" : skus);
+        } catch (SQLException | RuntimeException e) {
+            // Lo normal es lock_timeout: el ledger está activo en otra instancia
+            close(candidate);
+            if (!standby) {
+                log.info("⏳ Ledger inactivo, sin lease: {}", e.getMessage());
+                standby = true;
+            }
+        }
+    }
+
+    private static boolean isValid(Connection connection) {
+        try {
+            return connection.isValid(1);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static void close(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.warn("⚠️ Error cerrando la conexión del lease del ledger: {}", e.getMessage());
+        }
+    }
+}
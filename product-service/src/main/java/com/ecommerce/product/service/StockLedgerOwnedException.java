@@ -0,0 +1,14 @@
+package com.ecommerce.product.service;
+
+import java.util.Set;
+
+/**
+ * La orden incluye SKUs del {@link StockLedger} activo en otra instancia: reservarlos aquí
+ * descuadraría su stock en memoria. El evento se reintenta en vez de rechazar la orden.
+ */
+public class StockLedgerOwnedException extends RuntimeException {
+
+    public StockLedgerOwnedException(String orderId, Set<String> skus) {
+        super("SKUs " + skus + " de la orden " + orderId + " en el ledger de otra instancia");
+    }
+}
@@ -0,0 +1,292 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.common.event.order.OrderCreatedEvent;
+import com.ecommerce.common.logging.LogMarkers;
+import com.ecommerce.product.model.StockReservation;
+import com.ecommerce.product.repository.StockReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Reserva de stock con decrementos condicionales atómicos. La comprobación y el
+ * decremento ocurren en la misma sentencia UPDATE, por lo que varios consumidores
+ * concurrentes nunca pueden vender la misma unidad dos veces. Si el {@link StockLedger}
+ * está activo, los SKUs que cubre se descuentan en memoria y llegan a la BD por write-behind.
+ *
+ * <p>Con el ledger activo en otra instancia ({@link StockLedgerLease}) sus SKUs no se tocan
+ * aquí: las reservas lanzan {@link StockLedgerOwnedException} y las liberaciones se le pasan
+ * por el changelog.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockReservationService {
+
+    // Cuenta lo que el ledger aún no ha volcado y no descuenta nada si hay un ledger activo
+    private static final String RESERVE_SQL =
+            "UPDATE products p SET stock = p.stock - ?, updated_at = now() WHERE p.sku = ? " +
+            "AND p.stock + COALESCE((SELECT SUM(c.delta) FROM stock_changelog c WHERE c.sku = p.sku), 0) >= ? " +
+            "AND " + StockLedgerLease.TRY_SHARED_LOCK;
+    private static final String UNLOCKED_RESERVE_SQL =
+            "UPDATE products p SET stock = p.stock - ?, updated_at = now() WHERE p.sku = ? " +
+            "AND p.stock + COALESCE((SELECT SUM(c.delta) FROM stock_changelog c WHERE c.sku = p.sku), 0) >= ?";
+    private static final String RELEASE_SQL =
+            "UPDATE products SET stock = stock + ?, updated_at = now() WHERE sku = ?";
+    private static final String REMOTE_RELEASE_SQL =
+            "INSERT INTO stock_changelog (sku, delta, remote, created_at) VALUES (?, ?, true, now())";
+    private static final String TRY_SHARED_LOCK_SQL = "SELECT " + StockLedgerLease.TRY_SHARED_LOCK;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StockReservationRepository reservationRepository;
+    private final Optional<StockLedger> stockLedger;
+
+    /**
+     * Reserva todos los items de la orden en un único batch JDBC dentro de una transacción.
+     * Si algún SKU no tiene stock suficiente se hace rollback de toda la orden.
+     *
+     * @return disponibilidad por SKU; la reserva se ha confirmado solo si todos son true
+     */
+    @Transactional
+    public Map<String, Boolean> reserve(String orderId, List<OrderCreatedEvent.OrderItem> items) {
+        // Redelivery de la misma orden: no volver a descontar stock
+        List<StockReservation> existing = reservationRepository.findByOrderId(orderId);
+        if (!existing.isEmpty()) {
+            log.info(LogMarkers.SAMPLED, "♻️ Orden {} ya reservada, se reutiliza la reserva existente", orderId);
+            Map<String, Boolean> status = new LinkedHashMap<>();
+            existing.forEach(r -> status.put(r.getSku(), r.getStatus() == StockReservation.Status.RESERVED));
+            return status;
+        }
+
+        // Agrupar por SKU y ordenar: todas las transacciones bloquean filas en el mismo orden (sin deadlocks)
+        Map<String, Integer> quantities = new TreeMap<>();
+        for (OrderCreatedEvent.OrderItem item : items) {
+            quantities.merge(item.getProductId(), item.getQuantity() == null ? 0 : item.getQuantity(), Integer::sum);
+        }
+
+        Map<String, Boolean> status = new LinkedHashMap<>();
+        Map<String, Integer> sqlQuantities = quantities;
+        if (stockLedger.isPresent()) {
+            // Los SKUs del ledger se descuentan en memoria; el resto va por UPDATE condicional
+            Map<String, Integer> ledgerQuantities = new TreeMap<>();
+            sqlQuantities = new TreeMap<>();
+            StockLedger ledger = enterLedger();
+            for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+                (ledger.covers(entry.getKey()) ? ledgerQuantities : sqlQuantities).put(entry.getKey(), entry.getValue());
+            }
+            if (!ledgerQuantities.isEmpty()) {
+                status.putAll(reserveInLedger(ledger, ledgerQuantities));
+            }
+        }
+        if (!status.containsValue(false) && !sqlQuantities.isEmpty()) {
+            status.putAll(reserveInDatabase(orderId, sqlQuantities));
+        }
+
+        if (status.containsValue(false)) {
+            log.warn(LogMarkers.SAMPLED, "⚠️ Stock insuficiente para orden {}: {}", orderId, status);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return status;
+        }
+
+        List<StockReservation> reservations = new ArrayList<>(quantities.size());
+        quantities.forEach((sku, quantity) -> reservations.add(StockReservation.builder()
+                .orderId(orderId)
+                .sku(sku)
+                .quantity(quantity)
+                .status(StockReservation.Status.RESERVED)
+                .build()));
+        reservationRepository.saveAll(reservations);
+
+        log.info(LogMarkers.SAMPLED, "🔒 Stock reservado para orden {}: {}", orderId, quantities);
+        return status;
+    }
+
+    /**
+     * Compensación: devuelve al stock lo reservado para la orden. Es idempotente,
+     * una orden ya liberada no vuelve a sumar stock.
+     */
+    @Transactional
+    public boolean release(String orderId) {
+        List<StockReservation> reservations =
+                reservationRepository.findByOrderIdAndStatus(orderId, StockReservation.Status.RESERVED);
+        if (reservations.isEmpty()) {
+            log.info(LogMarkers.SAMPLED, "⏭️  Sin reservas activas para orden: {}", orderId);
+            return false;
+        }
+
+        Map<String, Integer> quantities = new TreeMap<>();
+        for (StockReservation reservation : reservations) {
+            quantities.merge(reservation.getSku(), reservation.getQuantity(), Integer::sum);
+            reservation.setStatus(StockReservation.Status.RELEASED);
+        }
+
+        Map<String, Integer> sqlQuantities = quantities;
+        if (stockLedger.isPresent()) {
+            Map<String, Integer> ledgerQuantities = new TreeMap<>();
+            sqlQuantities = new TreeMap<>();
+            StockLedger ledger = enterLedger();
+            for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+                (ledger.covers(entry.getKey()) ? ledgerQuantities : sqlQuantities).put(entry.getKey(), entry.getValue());
+            }
+            if (!ledgerQuantities.isEmpty()) {
+                ledger.append(ledgerQuantities);
+                // El stock liberado solo se ve en memoria una vez confirmado en el changelog
+                afterCommit(() -> ledger.increment(ledgerQuantities));
+            }
+        }
+        if (!sqlQuantities.isEmpty()) {
+            releaseInDatabase(sqlQuantities);
+        }
+
+        log.info(LogMarkers.SAMPLED, "🔓 Stock liberado para orden {}: {} SKUs", orderId, reservations.size());
+        return true;
+    }
+
+    private Map<String, Boolean> reserveInDatabase(String orderId, Map<String, Integer> quantities) {
+        Map<String, Boolean> status = new LinkedHashMap<>();
+        Map<String, Integer> missed = new TreeMap<>();
+        int[] updated = batchReserve(RESERVE_SQL, quantities);
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+            boolean reserved = entry.getValue() > 0 && updated[i++] > 0;
+            status.put(entry.getKey(), reserved);
+            if (!reserved && entry.getValue() > 0) {
+                missed.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        // Sin fila actualizada: o no hay stock o hay un ledger activo, que puede ser el nuestro
+        if (missed.isEmpty() || tryLockShared()) {
+            return status;
+        }
+        Set<String> owned = ownedByOtherLedger(missed.keySet());
+        if (!owned.isEmpty()) {
+            throw new StockLedgerOwnedException(orderId, owned);
+        }
+        int[] retried = batchReserve(UNLOCKED_RESERVE_SQL, missed);
+        i = 0;
+        for (String sku : missed.keySet()) {
+            status.put(sku, retried[i++] > 0);
+        }
+        return status;
+    }
+
+    private int[] batchReserve(String sql, Map<String, Integer> quantities) {
+        List<Object[]> args = new ArrayList<>(quantities.size());
+        quantities.forEach((sku, quantity) -> args.add(new Object[]{quantity, sku, quantity}));
+        return jdbcTemplate.batchUpdate(sql, args);
+    }
+
+    private void releaseInDatabase(Map<String, Integer> quantities) {
+        List<Object[]> args = new ArrayList<>(quantities.size());
+        List<Object[]> remoteArgs = new ArrayList<>();
+        Set<String> owned = tryLockShared() ? Set.of() : ownedByOtherLedger(quantities.keySet());
+        quantities.forEach((sku, quantity) -> {
+            if (owned.contains(sku)) {
+                remoteArgs.add(new Object[]{sku, quantity});
+            } else {
+                args.add(new Object[]{quantity, sku});
+            }
+        });
+        if (!args.isEmpty()) {
+            jdbcTemplate.batchUpdate(RELEASE_SQL, args);
+        }
+        if (!remoteArgs.isEmpty()) {
+            // El ledger dueño las suma en memoria al volcar el changelog
+            jdbcTemplate.batchUpdate(REMOTE_RELEASE_SQL, remoteArgs);
+        }
+    }
+
+    /**
+     * Toma el lock del ledger en modo compartido hasta el fin de la transacción, para que
+     * ningún ledger se cargue sin ver lo que esta haga con products.
+     *
+     * @return false si hay un ledger activo (o esperando el lock) en esta u otra instancia
+     */
+    private boolean tryLockShared() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(TRY_SHARED_LOCK_SQL, Boolean.class));
+    }
+
+    /**
+     * SKUs del ledger activo en otra instancia. Si su lease aún no está escrito no se sabe
+     * cuáles son y se consideran suyos todos.
+     */
+    private Set<String> ownedByOtherLedger(Set<String> skus) {
+        if (stockLedger.map(StockLedger::isActive).orElse(false)) {
+            return Set.of();
+        }
+        List<String> leases = jdbcTemplate.queryForList(StockLedgerLease.OWNED_SKUS_SQL, String.class);
+        if (leases.isEmpty() || leases.get(0).isBlank()) {
+            return new TreeSet<>(skus);
+        }
+        Set<String> owned = new TreeSet<>(Arrays.asList(leases.get(0).split(",")));
+        owned.retainAll(skus);
+        return owned;
+    }
+
+    private Map<String, Boolean> reserveInLedger(StockLedger ledger, Map<String, Integer> quantities) {
+        Map<String, Boolean> status = ledger.tryDecrement(quantities);
+        if (status.containsValue(false)) {
+            return status;
+        }
+
+        // Si la transacción no se confirma, el stock vuelve al ledger
+        onRollback(() -> ledger.increment(quantities));
+
+        Map<String, Integer> deltas = new TreeMap<>();
+        quantities.forEach((sku, quantity) -> deltas.put(sku, -quantity));
+        ledger.append(deltas);
+        return status;
+    }
+
+    /**
+     * Bloquea la reconstrucción del ledger hasta que termine la transacción actual, para que
+     * un rebuild nunca lea el changelog sin los deltas ya aplicados en memoria.
+     */
+    private StockLedger enterLedger() {
+        StockLedger ledger = stockLedger.get();
+        ledger.enterUpdate();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                ledger.exitUpdate();
+            }
+        });
+        return ledger;
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static void onRollback(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
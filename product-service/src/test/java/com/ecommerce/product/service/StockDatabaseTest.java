@@ -0,0 +1,209 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.common.event.order.OrderCreatedEvent;
+import com.ecommerce.product.model.StockReservation;
+import com.ecommerce.product.repository.StockReservationRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Base de los tests de stock contra un PostgreSQL embebido. Cada {@link Instance} hace de una
+ * instancia de product-service: su propio contexto con {@link StockReservationService} y, si
+ * lleva ledger, {@link StockLedger} y {@link StockLedgerLease}. Todas comparten la BD y la tabla
+ * de reservas, que aquí es una lista en memoria.
+ */
+abstract class StockDatabaseTest {
+
+    private static EmbeddedPostgres postgres;
+    protected static JdbcTemplate jdbcTemplate;
+
+    private final List<StockReservation> reservations = new CopyOnWriteArrayList<>();
+    private final List<Instance> instances = new ArrayList<>();
+
+    @BeforeAll
+    static void startPostgres() throws IOException {
+        // initdb se niega a arrancar como root
+        assumeFalse("root".equals(System.getProperty("user.name")), "PostgreSQL embebido no arranca como root");
+        postgres = EmbeddedPostgres.builder().start();
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    // Las mismas columnas que genera ddl-auto para Product y StockChange
+    @BeforeEach
+    void createTables() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS products, stock_changelog, stock_ledger_lease");
+        jdbcTemplate.execute("CREATE TABLE products (id BIGSERIAL PRIMARY KEY, sku VARCHAR(255) UNIQUE, " +
+                "stock INTEGER, updated_at TIMESTAMP)");
+        jdbcTemplate.execute("CREATE TABLE stock_changelog (id BIGSERIAL PRIMARY KEY, sku VARCHAR(255) NOT NULL, " +
+                "delta INTEGER NOT NULL, remote BOOLEAN NOT NULL DEFAULT false, created_at TIMESTAMP)");
+    }
+
+    @AfterEach
+    void closeInstances() {
+        instances.forEach(Instance::close);
+    }
+
+    protected void product(String sku, int stock) {
+        jdbcTemplate.update("INSERT INTO products (sku, stock) VALUES (?, ?)", sku, stock);
+    }
+
+    protected int stock(String sku) {
+        return jdbcTemplate.queryForObject("SELECT stock FROM products WHERE sku = ?", Integer.class, sku);
+    }
+
+    protected int pendingChanges(String sku) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(delta), 0) FROM stock_changelog WHERE sku = ?",
+                Integer.class, sku);
+    }
+
+    protected Instance withoutLedger() {
+        return start(null);
+    }
+
+    /**
+     * Instancia con el ledger habilitado para {@code hotSkus}. Sin lease hasta que se llama a
+     * {@link StockLedgerLease#maintain()}.
+     */
+    protected Instance withLedger(String... hotSkus) {
+        return start(Arrays.asList(hotSkus));
+    }
+
+    protected static List<OrderCreatedEvent.OrderItem> items(Object... skuAndQuantity) {
+        List<OrderCreatedEvent.OrderItem> items = new ArrayList<>();
+        for (int i = 0; i < skuAndQuantity.length; i += 2) {
+            items.add(OrderCreatedEvent.OrderItem.builder()
+                    .productId((String) skuAndQuantity[i])
+                    .quantity((Integer) skuAndQuantity[i + 1])
+                    .build());
+        }
+        return items;
+    }
+
+    private Instance start(List<String> hotSkus) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.register(TransactionConfig.class);
+        context.registerBean(StockReservationRepository.class, this::reservationRepository);
+        if (hotSkus != null) {
+            // StockLedger y StockLedgerLease llevan la misma condición que en product-service
+            TestPropertyValues.of("inventory.ledger.enabled=true").applyTo(context);
+            context.registerBean(StockLedger.class,
+                    () -> new StockLedger(context.getBean(JdbcTemplate.class), hotSkus));
+            context.registerBean(StockLedgerLease.class, () -> new StockLedgerLease(dataSourceProperties(),
+                    context.getBean(JdbcTemplate.class), context.getBean(StockLedger.class), hotSkus));
+        }
+        context.registerBean(StockReservationService.class, () -> new StockReservationService(
+                context.getBean(JdbcTemplate.class),
+                context.getBean(StockReservationRepository.class),
+                Optional.ofNullable(hotSkus == null ? null : context.getBean(StockLedger.class))));
+        context.refresh();
+        Instance instance = new Instance(context);
+        instances.add(instance);
+        return instance;
+    }
+
+    private StockReservationRepository reservationRepository() {
+        StockReservationRepository repository = mock(StockReservationRepository.class);
+        when(repository.findByOrderId(anyString())).thenAnswer(invocation -> reservations.stream()
+                .filter(r -> r.getOrderId().equals(invocation.getArgument(0)))
+                .toList());
+        when(repository.findByOrderIdAndStatus(anyString(), any())).thenAnswer(invocation -> reservations.stream()
+                .filter(r -> r.getOrderId().equals(invocation.getArgument(0)))
+                .filter(r -> r.getStatus() == invocation.getArgument(1))
+                .toList());
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<StockReservation> saved = invocation.getArgument(0);
+            reservations.addAll(saved);
+            return saved;
+        });
+        return repository;
+    }
+
+    private static DataSourceProperties dataSourceProperties() {
+        DataSourceProperties properties = new DataSourceProperties();
+        properties.setUrl(postgres.getJdbcUrl("postgres", "postgres"));
+        properties.setUsername("postgres");
+        properties.setPassword("postgres");
+        return properties;
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class TransactionConfig {
+
+        @Bean
+        DataSource dataSource() {
+            return postgres.getPostgresDatabase();
+        }
+
+        @Bean
+        JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+
+        @Bean
+        DataSourceTransactionManager transactionManager(DataSource dataSource) {
+            return new DataSourceTransactionManager(dataSource);
+        }
+    }
+
+    /**
+     * Una instancia de product-service. Al cerrarla, el lease vuelca el ledger y lo suelta.
+     */
+    protected static final class Instance {
+
+        private final AnnotationConfigApplicationContext context;
+
+        private Instance(AnnotationConfigApplicationContext context) {
+            this.context = context;
+        }
+
+        StockReservationService service() {
+            return context.getBean(StockReservationService.class);
+        }
+
+        StockLedger ledger() {
+            return context.getBean(StockLedger.class);
+        }
+
+        StockLedgerLease lease() {
+            return context.getBean(StockLedgerLease.class);
+        }
+
+        void close() {
+            context.close();
+        }
+    }
+}
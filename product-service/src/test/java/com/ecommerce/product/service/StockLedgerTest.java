@@ -0,0 +1,140 @@
+package com.ecommerce.product.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StockLedgerTest extends StockDatabaseTest {
+
+    @Test
+    void reservationsStayInTheChangelogUntilFlushed() {
+        product("HOT", 10);
+        Instance instance = withLedger("HOT");
+        instance.lease().maintain();
+
+        assertThat(instance.ledger().isActive()).isTrue();
+        assertThat(instance.service().reserve("O1", items("HOT", 3))).containsExactly(Map.entry("HOT", true));
+        assertThat(instance.ledger().available("HOT")).isEqualTo(7);
+        assertThat(stock("HOT")).isEqualTo(10);
+        assertThat(pendingChanges("HOT")).isEqualTo(-3);
+
+        instance.ledger().flush();
+
+        assertThat(stock("HOT")).isEqualTo(7);
+        assertThat(pendingChanges("HOT")).isZero();
+        assertThat(instance.ledger().available("HOT")).isEqualTo(7);
+    }
+
+    @Test
+    void releaseReachesTheLedgerOnceCommitted() {
+        product("HOT", 10);
+        Instance instance = withLedger("HOT");
+        instance.lease().maintain();
+        instance.service().reserve("O1", items("HOT", 4));
+
+        assertThat(instance.service().release("O1")).isTrue();
+        assertThat(instance.service().release("O1")).isFalse();
+
+        assertThat(instance.ledger().available("HOT")).isEqualTo(10);
+        instance.ledger().flush();
+        assertThat(stock("HOT")).isEqualTo(10);
+    }
+
+    @Test
+    void rejectedOrderGivesItsUnitsBackToTheLedger() {
+        product("HOT", 10);
+        product("COLD", 1);
+        Instance instance = withLedger("HOT");
+        instance.lease().maintain();
+
+        Map<String, Boolean> status = instance.service().reserve("O1", items("HOT", 3, "COLD", 2));
+
+        assertThat(status).containsEntry("HOT", true).containsEntry("COLD", false);
+        assertThat(instance.ledger().available("HOT")).isEqualTo(10);
+        assertThat(pendingChanges("HOT")).isZero();
+        assertThat(stock("COLD")).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        product("HOT", 50);
+        Instance instance = withLedger("HOT");
+        instance.lease().maintain();
+
+        // Flush y rebuild en paralelo, como el scheduler y los rebalanceos
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(9);
+        Future<?> maintenance = executor.submit(() -> {
+            while (running.get()) {
+                instance.ledger().flush();
+                instance.ledger().rebuild();
+            }
+        });
+        List<Future<Boolean>> orders = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String orderId = "O" + i;
+            orders.add(executor.submit(() -> instance.service().reserve(orderId, items("HOT", 1)).get("HOT")));
+        }
+        int reserved = 0;
+        for (Future<Boolean> order : orders) {
+            reserved += order.get(30, TimeUnit.SECONDS) ? 1 : 0;
+        }
+        running.set(false);
+        maintenance.get(30, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertThat(reserved).isEqualTo(50);
+        assertThat(instance.ledger().available("HOT")).isZero();
+        instance.ledger().flush();
+        assertThat(stock("HOT")).isZero();
+    }
+
+    @Test
+    void rebuildLoadsProductsPlusPendingChangelog() {
+        product("HOT", 10);
+        product("COLD", 5);
+        // Deltas que un dueño anterior no llegó a volcar y una liberación de otra instancia
+        jdbcTemplate.update("INSERT INTO stock_changelog (sku, delta, remote) VALUES ('HOT', -4, false)");
+        jdbcTemplate.update("INSERT INTO stock_changelog (sku, delta, remote) VALUES ('HOT', 2, true)");
+        Instance instance = withLedger("HOT");
+
+        instance.lease().maintain();
+
+        assertThat(instance.ledger().available("HOT")).isEqualTo(6);
+        assertThat(instance.ledger().covers("COLD")).isFalse();
+
+        // El rebuild sigue sin contar la remota hasta que el flush la aplica
+        instance.ledger().rebuild();
+        assertThat(instance.ledger().available("HOT")).isEqualTo(6);
+        instance.ledger().flush();
+        assertThat(instance.ledger().available("HOT")).isEqualTo(8);
+        assertThat(stock("HOT")).isEqualTo(8);
+    }
+
+    @Test
+    void nextOwnerPicksUpWhatTheLastOneReserved() {
+        product("HOT", 10);
+        Instance first = withLedger("HOT");
+        first.lease().maintain();
+        first.service().reserve("O1", items("HOT", 6));
+
+        // Al cerrarse vuelca el ledger y suelta el lease
+        first.close();
+        Instance second = withLedger("HOT");
+        second.lease().maintain();
+
+        assertThat(stock("HOT")).isEqualTo(4);
+        assertThat(second.ledger().isActive()).isTrue();
+        assertThat(second.ledger().available("HOT")).isEqualTo(4);
+        assertThat(second.service().reserve("O2", items("HOT", 5))).containsExactly(Map.entry("HOT", false));
+    }
+}
@@ -0,0 +1,103 @@
+package com.ecommerce.product.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StockReservationServiceTest extends StockDatabaseTest {
+
+    @Test
+    void withoutLedgerReservesAndReleasesInProducts() {
+        product("COLD", 5);
+        Instance instance = withoutLedger();
+
+        assertThat(instance.service().reserve("O1", items("COLD", 2, "COLD", 1)))
+                .containsExactly(Map.entry("COLD", true));
+        assertThat(instance.service().reserve("O2", items("COLD", 3))).containsExactly(Map.entry("COLD", false));
+        assertThat(stock("COLD")).isEqualTo(2);
+
+        assertThat(instance.service().release("O1")).isTrue();
+        assertThat(instance.service().release("O1")).isFalse();
+        assertThat(stock("COLD")).isEqualTo(5);
+    }
+
+    @Test
+    void redeliveredOrderIsNotReservedTwice() {
+        product("COLD", 5);
+        Instance instance = withoutLedger();
+        instance.service().reserve("O1", items("COLD", 2));
+
+        assertThat(instance.service().reserve("O1", items("COLD", 2))).containsExactly(Map.entry("COLD", true));
+        assertThat(stock("COLD")).isEqualTo(3);
+    }
+
+    @Test
+    void skuOutsideTheOwnLedgerIsRetriedUnlocked() {
+        product("HOT", 10);
+        product("COLD", 5);
+        Instance instance = withLedger("HOT");
+        instance.lease().maintain();
+
+        // Con el lease tomado el UPDATE con lock compartido no actualiza nada: lo hace el reintento
+        assertThat(instance.service().reserve("O1", items("COLD", 2))).containsExactly(Map.entry("COLD", true));
+        assertThat(stock("COLD")).isEqualTo(3);
+
+        assertThat(instance.service().reserve("O2", items("COLD", 4))).containsExactly(Map.entry("COLD", false));
+        assertThat(stock("COLD")).isEqualTo(3);
+    }
+
+    @Test
+    void skuOutsideAnotherInstanceLedgerIsRetriedUnlocked() {
+        product("HOT", 10);
+        product("COLD", 5);
+        withLedger("HOT").lease().maintain();
+        Instance other = withoutLedger();
+
+        assertThat(other.service().reserve("O1", items("COLD", 1))).containsExactly(Map.entry("COLD", true));
+        assertThat(stock("COLD")).isEqualTo(4);
+    }
+
+    @Test
+    void skuInAnotherInstanceLedgerIsNotReserved() {
+        product("HOT", 10);
+        product("COLD", 5);
+        withLedger("HOT").lease().maintain();
+        Instance other = withoutLedger();
+
+        assertThatThrownBy(() -> other.service().reserve("O1", items("HOT", 1, "COLD", 1)))
+                .isInstanceOf(StockLedgerOwnedException.class)
+                .hasMessageContaining("HOT");
+
+        // La orden se reintenta entera: tampoco se descuenta COLD
+        assertThat(stock("HOT")).isEqualTo(10);
+        assertThat(stock("COLD")).isEqualTo(5);
+    }
+
+    @Test
+    void releaseOfAnotherInstanceLedgerSkuGoesThroughTheChangelog() {
+        product("HOT", 10);
+        product("COLD", 5);
+        Instance other = withoutLedger();
+        other.service().reserve("O1", items("HOT", 4, "COLD", 1));
+        Instance owner = withLedger("HOT");
+        owner.lease().maintain();
+        assertThat(owner.ledger().available("HOT")).isEqualTo(6);
+
+        assertThat(other.service().release("O1")).isTrue();
+
+        // HOT queda como fila remote para el dueño; COLD vuelve directamente a products
+        assertThat(stock("HOT")).isEqualTo(6);
+        assertThat(pendingChanges("HOT")).isEqualTo(4);
+        assertThat(stock("COLD")).isEqualTo(5);
+        assertThat(owner.ledger().available("HOT")).isEqualTo(6);
+
+        owner.ledger().flush();
+
+        assertThat(owner.ledger().available("HOT")).isEqualTo(10);
+        assertThat(stock("HOT")).isEqualTo(10);
+        assertThat(pendingChanges("HOT")).isZero();
+    }
+}